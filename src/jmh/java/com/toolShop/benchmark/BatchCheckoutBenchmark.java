@@ -0,0 +1,89 @@
+package com.toolShop.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.toolShop.CheckoutRequest;
+import com.toolShop.ParallelPricingEngine;
+import com.toolShop.RentalAgreement;
+import com.toolShop.RentalPricingService;
+import com.toolShop.ToolCatalog;
+import com.toolShop.exception.InvalidDiscountPercentException;
+import com.toolShop.exception.InvalidRentalDayCountException;
+import com.toolShop.workload.WorkloadGenerator;
+
+/**
+ * Pricing a list of requests one checkout at a time, as one batch and in
+ * parallel. The requests come from the WorkloadGenerator. Throughput is
+ * reported in lists per second.
+ * 
+ * @author tadtab
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatchCheckoutBenchmark {
+
+    @Param({ "10000" })
+    public int requestCount;
+
+    @Param({ "4" })
+    public int parallelism;
+
+    private RentalPricingService pricingService;
+    private ParallelPricingEngine parallelEngine;
+    private List<CheckoutRequest> requests;
+
+    @Setup
+    public void setUp() {
+
+        pricingService = new RentalPricingService(ToolCatalog.createDefault());
+        parallelEngine = new ParallelPricingEngine(pricingService, parallelism);
+
+        requests = new WorkloadGenerator.Builder().seed(42).build().generate(requestCount);
+    }
+
+    @TearDown
+    public void tearDown() {
+        parallelEngine.shutdown();
+    }
+
+    @Benchmark
+    public void singleCheckOuts(Blackhole blackhole)
+            throws InvalidDiscountPercentException, InvalidRentalDayCountException {
+
+        for (CheckoutRequest request : requests) {
+            blackhole.consume(pricingService.checkOut(request));
+        }
+    }
+
+    @Benchmark
+    public List<RentalAgreement> batchCheckOut() throws InvalidDiscountPercentException, InvalidRentalDayCountException {
+        return pricingService.checkOutAll(requests);
+    }
+
+    @Benchmark
+    public List<RentalAgreement> parallelCheckOut()
+            throws InvalidDiscountPercentException, InvalidRentalDayCountException {
+        return parallelEngine.checkOutAll(requests);
+    }
+
+}
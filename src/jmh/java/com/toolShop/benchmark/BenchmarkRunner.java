@@ -0,0 +1,64 @@
+package com.toolShop.benchmark;
+
+import java.io.IOException;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Main class of benchmarks.jar. Accepts the command line of the JMH main
+ * class: -h, -l, -lp and -lrf print the help, the benchmarks, the profilers
+ * and the result formats, otherwise the selected benchmarks are run, all of
+ * them by default. Unless profilers are given with -prof, the GC profiler is
+ * enabled so every result reports the allocation rate and bytes per operation
+ * next to the throughput.
+ *
+ * @author tadtab
+ *
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException, IOException {
+
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+
+        if (commandLineOptions.shouldHelp()) {
+            commandLineOptions.showHelp();
+            return;
+        }
+
+        if (commandLineOptions.shouldListProfilers()) {
+            commandLineOptions.listProfilers();
+            return;
+        }
+
+        if (commandLineOptions.shouldListResultFormats()) {
+            commandLineOptions.listResultFormats();
+            return;
+        }
+
+        if (commandLineOptions.shouldList()) {
+            new Runner(commandLineOptions).list();
+            return;
+        }
+
+        if (commandLineOptions.shouldListWithParams()) {
+            new Runner(commandLineOptions).listWithParams(commandLineOptions);
+            return;
+        }
+
+        Options options = commandLineOptions;
+
+        if (commandLineOptions.getProfilers().isEmpty()) {
+            options = new OptionsBuilder().parent(commandLineOptions).addProfiler(GCProfiler.class).build();
+        }
+
+        new Runner(options).run();
+    }
+
+}
@@ -0,0 +1,95 @@
+package com.toolShop.benchmark;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.toolShop.calendar.HolidayCalendar;
+import com.toolShop.pricing.ChargeDayCalculator;
+import com.toolShop.pricing.ChargeDayTables;
+import com.toolShop.pricing.ChargePolicy;
+
+/**
+ * Charge day counting for rentals of 1 to 3650 days, by the closed form and by
+ * the prefix sum tables, compared with walking the rental period one day at a
+ * time like checkout used to.
+ * 
+ * @author tadtab
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ChargeDayBenchmark {
+
+    @Param({ "1", "7", "30", "365", "3650" })
+    public int rentalDays;
+
+    private final ChargePolicy jackhammer = ChargePolicy.of(true, false, false);
+
+    private LocalDate checkOutDate;
+    private LocalDate dueDate;
+    private int checkOutDay;
+    private int dueDay;
+
+    @Setup
+    public void setUp() {
+        checkOutDate = LocalDate.of(2020, 7, 2);
+        dueDate = checkOutDate.plusDays(rentalDays);
+        checkOutDay = (int) checkOutDate.toEpochDay();
+        dueDay = (int) dueDate.toEpochDay();
+
+        // build the decades touched before measuring
+        ChargeDayTables.getDefault().countChargeDays(jackhammer, checkOutDay, dueDay);
+    }
+
+    @Benchmark
+    public int countChargeDays() {
+        return ChargeDayCalculator.countChargeDays(jackhammer, checkOutDate, dueDate);
+    }
+
+    @Benchmark
+    public int countChargeDaysOfEpochDays() {
+        return ChargeDayCalculator.countChargeDays(jackhammer, HolidayCalendar.getDefault(), checkOutDay, dueDay);
+    }
+
+    @Benchmark
+    public int countChargeDaysFromTables() {
+        return ChargeDayTables.getDefault().countChargeDays(jackhammer, checkOutDay, dueDay);
+    }
+
+    @Benchmark
+    public int countChargeDaysByWalking() {
+
+        HolidayCalendar calendar = HolidayCalendar.getDefault();
+        int chargeDays = 0;
+
+        for (LocalDate day = checkOutDate.plusDays(1); !day.isAfter(dueDate); day = day.plusDays(1)) {
+
+            boolean weekEnd = DayOfWeek.SATURDAY.equals(day.getDayOfWeek())
+                    || DayOfWeek.SUNDAY.equals(day.getDayOfWeek());
+
+            if (!weekEnd && !calendar.isHoliday((int) day.toEpochDay())) {
+                chargeDays++;
+            }
+        }
+
+        return chargeDays;
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.toolShop.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.toolShop.RentalAgreement;
+import com.toolShop.RentalTool;
+import com.toolShop.ToolCatalog;
+import com.toolShop.ToolCode;
+import com.toolShop.exception.InvalidDiscountPercentException;
+import com.toolShop.exception.InvalidRentalDayCountException;
+
+/**
+ * Single checkout of every tool code, from a short rental over July 4th up to
+ * a ten year rental.
+ * 
+ * @author tadtab
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CheckoutBenchmark {
+
+    @Param({ "LADW", "CHNS", "JAKR", "JAKD" })
+    public ToolCode toolCode;
+
+    @Param({ "1", "5", "30", "365", "3650" })
+    public int rentalDays;
+
+    private RentalTool rentalTool;
+
+    @Setup
+    public void setUp() {
+        rentalTool = ToolCatalog.createDefault().get(toolCode);
+    }
+
+    @Benchmark
+    public RentalAgreement checkOut() throws InvalidDiscountPercentException, InvalidRentalDayCountException {
+        return rentalTool.checkOut(toolCode, rentalDays, 10, "7/2/20");
+    }
+
+    @Benchmark
+    public String checkOutAndFormat() throws InvalidDiscountPercentException, InvalidRentalDayCountException {
+
+        RentalAgreement rentalAgreement = rentalTool.checkOut(toolCode, rentalDays, 10, "7/2/20");
+
+        return rentalAgreement.getFinalCharge();
+    }
+
+}
@@ -0,0 +1,66 @@
+package com.toolShop.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.toolShop.RentalAgreement;
+import com.toolShop.RentalTool;
+import com.toolShop.ToolCatalog;
+import com.toolShop.ToolCode;
+import com.toolShop.exception.InvalidDiscountPercentException;
+import com.toolShop.exception.InvalidRentalDayCountException;
+import com.toolShop.metrics.CheckoutMetrics;
+
+/**
+ * Single checkout with the checkout metrics switched on and off, to show the
+ * cost of recording them.
+ *
+ * @author tadtab
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class CheckoutMetricsBenchmark {
+
+    @Param({ "JAKR" })
+    public ToolCode toolCode;
+
+    @Param({ "5", "365" })
+    public int rentalDays;
+
+    private RentalTool rentalTool;
+
+    @Setup
+    public void setUp() {
+        rentalTool = ToolCatalog.createDefault().get(toolCode);
+    }
+
+    @Benchmark
+    @Fork(1)
+    public RentalAgreement checkOutWithoutMetrics()
+            throws InvalidDiscountPercentException, InvalidRentalDayCountException {
+        return rentalTool.checkOut(toolCode, rentalDays, 10, "7/2/20");
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-D" + CheckoutMetrics.ENABLED_PROPERTY + "=true")
+    public RentalAgreement checkOutWithMetrics()
+            throws InvalidDiscountPercentException, InvalidRentalDayCountException {
+        return rentalTool.checkOut(toolCode, rentalDays, 10, "7/2/20");
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.toolShop.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.toolShop.util.CheckOutDateParser;
+import com.toolShop.util.ToolShopUtility;
+
+/**
+ * Parsing of M/d/yy checkout dates by the hand written parser compared with
+ * the DateTimeFormatter path it replaced.
+ * 
+ * @author tadtab
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DateParsingBenchmark {
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("M/d/yy");
+
+    @Param({ "7/2/20", "12/31/15" })
+    public String checkOutDate;
+
+    private byte[] checkOutDateBytes;
+
+    @Setup
+    public void setUp() {
+        checkOutDateBytes = checkOutDate.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Benchmark
+    public LocalDate formatter() {
+        return LocalDate.parse(checkOutDate, FORMATTER);
+    }
+
+    @Benchmark
+    public LocalDate convertStringToLocalDate() {
+        return ToolShopUtility.convertStringToLocalDate(checkOutDate);
+    }
+
+    @Benchmark
+    public int parseEpochDay() {
+        return CheckOutDateParser.parseEpochDay(checkOutDate);
+    }
+
+    @Benchmark
+    public int parseEpochDayFromBytes() {
+        return CheckOutDateParser.parseEpochDay(checkOutDateBytes, 0, checkOutDateBytes.length);
+    }
+
+}
@@ -0,0 +1,125 @@
+package com.toolShop.benchmark;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.toolShop.CheckoutRequest;
+import com.toolShop.RentalAgreement;
+import com.toolShop.RentalPricingService;
+import com.toolShop.ToolCatalog;
+import com.toolShop.ToolCode;
+import com.toolShop.export.AgreementWriter;
+import com.toolShop.export.ExportFormat;
+
+/**
+ * Exports a batch of agreements in every format to a channel which throws the
+ * bytes away, so the cost of encoding is measured without the disk.
+ * 
+ * @author tadtab
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExportBenchmark {
+
+    private static final int BATCH_SIZE = 10000;
+
+    @Param({ "BINARY", "CSV", "JSON" })
+    public ExportFormat format;
+
+    private final List<RentalAgreement> agreements = new ArrayList<RentalAgreement>(BATCH_SIZE);
+
+    @Setup
+    public void setUp() throws Exception {
+
+        RentalPricingService service = new RentalPricingService(ToolCatalog.createDefault());
+        ToolCode[] toolCodes = ToolCode.values();
+
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            agreements.add(service.checkOut(new CheckoutRequest(toolCodes[i % toolCodes.length], 1 + i % 30,
+                    i % 101, (1 + i % 12) + "/" + (1 + i % 28) + "/" + (10 + i % 15))));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public long export() throws IOException {
+
+        DiscardingChannel channel = new DiscardingChannel();
+
+        try (AgreementWriter writer = format.createWriter(channel)) {
+            for (RentalAgreement rentalAgreement : agreements) {
+                writer.write(rentalAgreement);
+            }
+        }
+
+        return channel.written;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public long toStringConcatenation() {
+
+        long length = 0;
+
+        for (RentalAgreement rentalAgreement : agreements) {
+            length += (rentalAgreement.getToolCode() + "," + rentalAgreement.getToolType() + ","
+                    + rentalAgreement.getToolBrand().getValue() + "," + rentalAgreement.getRentalDays() + ","
+                    + rentalAgreement.getCheckOutDate() + "," + rentalAgreement.getDueDate() + ","
+                    + rentalAgreement.getDailyRentalChage() + "," + rentalAgreement.getChargeDays() + ","
+                    + rentalAgreement.getPreDiscountCharge() + "," + rentalAgreement.getDiscountPercent() + ","
+                    + rentalAgreement.getDiscountAmount() + "," + rentalAgreement.getFinalCharge() + "\n").length();
+        }
+
+        return length;
+    }
+
+    /**
+     * Counts the bytes written to it and drops them.
+     */
+    private static final class DiscardingChannel implements WritableByteChannel {
+
+        long written;
+
+        @Override
+        public int write(ByteBuffer source) {
+
+            int bytes = source.remaining();
+            source.position(source.limit());
+            written += bytes;
+
+            return bytes;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.toolShop.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.toolShop.util.NumberStringFormatter;
+import com.toolShop.util.ToolShopUtility;
+
+/**
+ * Date parsing and formatting and the currency conversions used by the
+ * rental agreement.
+ * 
+ * @author tadtab
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FormattingBenchmark {
+
+    private final String checkOutDate = "12/31/20";
+    private final LocalDate dueDate = LocalDate.of(2021, 12, 31);
+    private final long cents = 122803;
+    private final String currency = "$1,228.03";
+
+    @Benchmark
+    public LocalDate parseCheckOutDate() {
+        return ToolShopUtility.convertStringToLocalDate(checkOutDate);
+    }
+
+    @Benchmark
+    public String formatDueDate() {
+        return ToolShopUtility.formatLocalDate(dueDate);
+    }
+
+    @Benchmark
+    public String formatDueDateThroughIsoString() {
+        return ToolShopUtility.convertADateFormatToAnothorDateFormat(dueDate.toString());
+    }
+
+    @Benchmark
+    public String formatCents() {
+        return NumberStringFormatter.formatCents(cents);
+    }
+
+    @Benchmark
+    public String formatPercent() {
+        return NumberStringFormatter.addPercentSign(15);
+    }
+
+    @Benchmark
+    public BigDecimal parseCurrency() {
+        return NumberStringFormatter.convertStringToBigDecimal(currency);
+    }
+
+}
@@ -0,0 +1,129 @@
+package com.toolShop.benchmark;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.toolShop.Brand;
+import com.toolShop.CheckoutRequest;
+import com.toolShop.RentalAgreement;
+import com.toolShop.RentalPricingService;
+import com.toolShop.ToolCatalog;
+import com.toolShop.exception.InvalidDiscountPercentException;
+import com.toolShop.exception.InvalidRentalDayCountException;
+import com.toolShop.ledger.AgreementColumnStore;
+import com.toolShop.ledger.RevenueAggregator;
+import com.toolShop.ledger.RevenueTotals;
+import com.toolShop.workload.WorkloadGenerator;
+
+/**
+ * Revenue totals over a synthetic store of agreements of the WorkloadGenerator,
+ * checked out over ten years. Besides the queries per second, the rows counter
+ * reports the rows scanned per second.
+ *
+ * @author tadtab
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-XX:MaxDirectMemorySize=6g")
+@State(Scope.Benchmark)
+public class RevenueAggregationBenchmark {
+
+    /**
+     * Rows of the store, each taking 52 bytes off the heap. The fork allows 6 GB
+     * of direct memory, enough for the 100M row dataset of 5.2 GB: run it with
+     * -p rows=100000000 on a machine with more than 6 GB of memory. Options
+     * replacing the fork's JVM arguments, like -jvmArgs, must pass
+     * -XX:MaxDirectMemorySize=6g again.
+     */
+    @Param({ "10000000" })
+    public int rows;
+
+    @Param({ "4" })
+    public int parallelism;
+
+    private AgreementColumnStore store;
+    private RevenueAggregator aggregator;
+
+    /**
+     * Rows scanned, reported as a rate next to the queries.
+     */
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class ScannedRows {
+
+        public long rows;
+
+        @Setup(Level.Iteration)
+        public void clear() {
+            rows = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() throws InvalidDiscountPercentException, InvalidRentalDayCountException {
+
+        List<CheckoutRequest> requests = new WorkloadGenerator.Builder().seed(24).build()
+                .generate(AgreementColumnStore.CHUNK_ROWS);
+
+        List<RentalAgreement> agreements = new RentalPricingService(ToolCatalog.createDefault())
+                .checkOutAll(requests);
+
+        store = new AgreementColumnStore();
+
+        for (int i = 0; i < rows; i++) {
+            store.append(agreements.get(i % agreements.size()));
+        }
+
+        aggregator = new RevenueAggregator(parallelism);
+    }
+
+    @TearDown
+    public void tearDown() {
+        aggregator.shutdown();
+    }
+
+    @Benchmark
+    public RevenueTotals total(ScannedRows scanned) {
+        scanned.rows += rows;
+        return aggregator.total(store);
+    }
+
+    @Benchmark
+    public Map<Brand, RevenueTotals> byBrand(ScannedRows scanned) {
+        scanned.rows += rows;
+        return aggregator.byBrand(store);
+    }
+
+    @Benchmark
+    public Map<String, RevenueTotals> byToolType(ScannedRows scanned) {
+        scanned.rows += rows;
+        return aggregator.byToolType(store);
+    }
+
+    @Benchmark
+    public Map<YearMonth, RevenueTotals> byMonth(ScannedRows scanned) {
+        scanned.rows += rows;
+        return aggregator.byMonth(store);
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.toolShop;
+
+/**
+ * The values entered at checkout for a single tool rental. Used to price many
+ * rentals in one call.
+ * 
+ * @author tadtab
+ *
+ */
+public class CheckoutRequest {
+
+    private final ToolCode toolCode;
+    private final int rentalDayCount;
+    private final int discountPercent;
+    private final String checkOutDate;
+
+    /**
+     * Constructor with the values entered at checkout.
+     * 
+     * @param toolCode
+     *            identifies each tool.
+     * @param rentalDayCount
+     *            number of days the tool will be rented.
+     * @param discountPercent
+     *            discount on the daily rental charge made up on checkout.
+     * @param checkOutDate
+     *            the date the tool is checked out, formatted as M/d/yy.
+     */
+    public CheckoutRequest(ToolCode toolCode, int rentalDayCount, int discountPercent, String checkOutDate) {
+        this.toolCode = toolCode;
+        this.rentalDayCount = rentalDayCount;
+        this.discountPercent = discountPercent;
+        this.checkOutDate = checkOutDate;
+    }
+
+    /**
+     * Retrieves tool code.
+     * 
+     * @return ToolCode
+     */
+    public ToolCode getToolCode() {
+        return toolCode;
+    }
+
+    /**
+     * Retrieves the number of days the tool will be rented.
+     * 
+     * @return int
+     */
+    public int getRentalDayCount() {
+        return rentalDayCount;
+    }
+
+    /**
+     * Retrieves the discount percent.
+     * 
+     * @return int
+     */
+    public int getDiscountPercent() {
+        return discountPercent;
+    }
+
+    /**
+     * Retrieves the checkout date formatted as M/d/yy.
+     * 
+     * @return String
+     */
+    public String getCheckOutDate() {
+        return checkOutDate;
+    }
+
+    @Override
+    public String toString() {
+        return "CheckoutRequest[" + toolCode + ", " + rentalDayCount + " days, " + discountPercent + "%, "
+                + checkOutDate + "]";
+    }
+
+}
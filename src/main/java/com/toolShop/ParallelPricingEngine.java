@@ -0,0 +1,190 @@
+package com.toolShop;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.toolShop.exception.InvalidDiscountPercentException;
+import com.toolShop.exception.InvalidRentalDayCountException;
+
+/**
+ * Prices large lists of checkout requests on a ForkJoinPool. The list is split
+ * into slices which are priced as batches by the RentalPricingService, so the
+ * work scales with the number of cores.
+ * 
+ * The result does not depend on the parallelism: agreements are returned in
+ * the order of the requests and are equal to the ones priced sequentially, and
+ * if requests are invalid the exception of the first invalid request in the
+ * list is thrown, just like checkOutAll does. All slices are priced against
+ * the same snapshot of the ToolCatalog, taken once per call. Each agreement is created by one
+ * pool thread and handed to the caller when the pool task completes.
+ * 
+ * @author tadtab
+ *
+ */
+public class ParallelPricingEngine {
+
+    /**
+     * Number of requests priced as one batch unless specified otherwise.
+     */
+    public static final int DEFAULT_SLICE_SIZE = 1024;
+
+    private final RentalPricingService pricingService;
+    private final ForkJoinPool pool;
+    private final int sliceSize;
+    private final boolean ownsPool;
+
+    /**
+     * Constructor creating a pool with the given parallelism.
+     * 
+     * @param pricingService
+     *            service pricing the slices
+     * @param parallelism
+     *            number of threads pricing in parallel
+     */
+    public ParallelPricingEngine(RentalPricingService pricingService, int parallelism) {
+        this(pricingService, new ForkJoinPool(parallelism), DEFAULT_SLICE_SIZE, true);
+    }
+
+    /**
+     * Constructor using a pool owned by the caller.
+     * 
+     * @param pricingService
+     *            service pricing the slices
+     * @param pool
+     *            pool the slices are priced on
+     * @param sliceSize
+     *            number of requests priced as one batch
+     */
+    public ParallelPricingEngine(RentalPricingService pricingService, ForkJoinPool pool, int sliceSize) {
+        this(pricingService, pool, sliceSize, false);
+    }
+
+    private ParallelPricingEngine(RentalPricingService pricingService, ForkJoinPool pool, int sliceSize,
+            boolean ownsPool) {
+
+        if (sliceSize < 1) {
+            throw new IllegalArgumentException("sliceSize must be positive");
+        }
+
+        this.pricingService = pricingService;
+        this.pool = pool;
+        this.sliceSize = sliceSize;
+        this.ownsPool = ownsPool;
+    }
+
+    /**
+     * Produces the rental agreements of many checkouts in parallel.
+     * 
+     * @param requests
+     *            values entered at checkout
+     * @return RentalAgreements in the same order as the requests
+     * 
+     * @throws InvalidDiscountPercentException
+     *             thrown when a discount percent is not between 0 and 100
+     * @throws InvalidRentalDayCountException
+     *             thrown if a rental day count is less than 1
+     */
+    public List<RentalAgreement> checkOutAll(List<CheckoutRequest> requests)
+            throws InvalidDiscountPercentException, InvalidRentalDayCountException {
+
+        RentalAgreement[] rentalAgreements = new RentalAgreement[requests.size()];
+        int slices = (requests.size() + sliceSize - 1) / sliceSize;
+        AtomicReferenceArray<Exception> failures = new AtomicReferenceArray<Exception>(slices);
+
+        Map<ToolCode, RentalTool> tools = pricingService.getToolCatalog().getTools();
+
+        pool.invoke(new PricingTask(requests, tools, rentalAgreements, failures, 0, slices));
+
+        for (int slice = 0; slice < slices; slice++) {
+
+            Exception failure = failures.get(slice);
+
+            if (failure instanceof InvalidDiscountPercentException) {
+                throw (InvalidDiscountPercentException) failure;
+            }
+
+            if (failure instanceof InvalidRentalDayCountException) {
+                throw (InvalidRentalDayCountException) failure;
+            }
+
+            if (failure != null) {
+                throw (RuntimeException) failure;
+            }
+        }
+
+        return Arrays.asList(rentalAgreements);
+    }
+
+    /**
+     * Shuts down the pool if it was created by this engine.
+     */
+    public void shutdown() {
+
+        if (ownsPool) {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Splits a range of slices in halves until a single slice is left and prices
+     * it. Failures are kept per slice so the first one can be reported.
+     */
+    private class PricingTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<CheckoutRequest> requests;
+        private final Map<ToolCode, RentalTool> tools;
+        private final RentalAgreement[] rentalAgreements;
+        private final AtomicReferenceArray<Exception> failures;
+        private final int firstSlice;
+        private final int endSlice;
+
+        PricingTask(List<CheckoutRequest> requests, Map<ToolCode, RentalTool> tools,
+                RentalAgreement[] rentalAgreements, AtomicReferenceArray<Exception> failures, int firstSlice,
+                int endSlice) {
+            this.requests = requests;
+            this.tools = tools;
+            this.rentalAgreements = rentalAgreements;
+            this.failures = failures;
+            this.firstSlice = firstSlice;
+            this.endSlice = endSlice;
+        }
+
+        @Override
+        protected void compute() {
+
+            if (endSlice - firstSlice > 1) {
+
+                int middle = (firstSlice + endSlice) >>> 1;
+
+                invokeAll(new PricingTask(requests, tools, rentalAgreements, failures, firstSlice, middle),
+                        new PricingTask(requests, tools, rentalAgreements, failures, middle, endSlice));
+                return;
+            }
+
+            if (endSlice == firstSlice) {
+                return;
+            }
+
+            int from = firstSlice * sliceSize;
+            int to = Math.min(from + sliceSize, requests.size());
+
+            try {
+                List<RentalAgreement> priced = pricingService.checkOutAll(requests.subList(from, to), tools);
+
+                for (int i = from; i < to; i++) {
+                    rentalAgreements[i] = priced.get(i - from);
+                }
+
+            } catch (InvalidDiscountPercentException | InvalidRentalDayCountException | RuntimeException e) {
+                failures.set(firstSlice, e);
+            }
+        }
+    }
+
+}
@@ -1,36 +1,52 @@
 package com.toolShop;
 
-import java.math.BigDecimal;
-import java.time.DayOfWeek;
 import java.time.LocalDate;
-import java.time.Month;
+import java.util.Objects;
 
 import com.toolShop.util.NumberStringFormatter;
-import com.toolShop.util.ToolNameAndCodeMapper;
 import com.toolShop.util.ToolShopUtility;
 
 /**
  * This class represents the Rental Agreement which shows tool info, charges,
  * due dates and discounts. Up on checkout some of these properties will be
  * printed for a single tool rental.
- * 
+ *
+ * An agreement is immutable. It is created in one go through a Builder once
+ * all the charges are calculated, so it can be shared between threads and
+ * cached.
+ *
  * @author tadtab
  *
  */
-public class RentalAgreement {
-
-    private ToolCode toolCode;
-    private String toolType;
-    private Brand toolBrand;
-    private int rentalDays;
-    private LocalDate checkOutDate;
-    private LocalDate dueDate;
-    private String dailyRentalChage;
-    private int chargeDays;
-    private String preDiscountCharge;
-    private String discountPercent;
-    private String discountAmount;
-    private String finalCharge;
+public final class RentalAgreement {
+
+    private final ToolCode toolCode;
+    private final String toolType;
+    private final Brand toolBrand;
+    private final int rentalDays;
+    private final int checkOutDay;
+    private final int dueDay;
+    private final long dailyRentalChargeCents;
+    private final int chargeDays;
+    private final long preDiscountChargeCents;
+    private final int discountPercent;
+    private final long discountAmountCents;
+    private final long finalChargeCents;
+
+    private RentalAgreement(Builder builder) {
+        this.toolCode = builder.toolCode;
+        this.toolType = builder.toolType;
+        this.toolBrand = builder.toolBrand;
+        this.rentalDays = builder.rentalDays;
+        this.checkOutDay = builder.checkOutDay;
+        this.dueDay = builder.dueDay;
+        this.dailyRentalChargeCents = builder.dailyRentalChargeCents;
+        this.chargeDays = builder.chargeDays;
+        this.preDiscountChargeCents = builder.preDiscountChargeCents;
+        this.discountPercent = builder.discountPercent;
+        this.discountAmountCents = builder.discountAmountCents;
+        this.finalChargeCents = builder.finalChargeCents;
+    }
 
     /**
      * Retrieves tool code
@@ -39,13 +55,6 @@ public class RentalAgreement {
         return toolCode;
     }
 
-    /**
-     * Setter for tool code. the value is set from the tool being rented
-     */
-    public void setToolCode(ToolCode toolCode) {
-        this.toolCode = toolCode;
-    }
-
     /**
      * getter for tool type
      */
@@ -53,13 +62,6 @@ public class RentalAgreement {
         return toolType;
     }
 
-    /**
-     * Sets tool type from the tool being rented
-     */
-    public void setToolType(String str) {
-        this.toolType = str;
-    }
-
     /**
      * getter for tool brand property
      */
@@ -67,13 +69,6 @@ public class RentalAgreement {
         return toolBrand;
     }
 
-    /**
-     * Sets tool brand from the tool being rented
-     */
-    public void setToolBrand(Brand toolBrand) {
-        this.toolBrand = toolBrand;
-    }
-
     /**
      * retrieves the number of days the tool being rented
      */
@@ -81,294 +76,316 @@ public class RentalAgreement {
         return rentalDays;
     }
 
-    /**
-     * sets the rental days for the tool
-     */
-    public void setRentalDays(int rentalDays) {
-        this.rentalDays = rentalDays;
-    }
-
     /**
      * retrieves the day the tool is checked out
      */
     public LocalDate getCheckOutDate() {
-        return checkOutDate;
+        return LocalDate.ofEpochDay(checkOutDay);
     }
 
     /**
-     * sets the day the tool is checked out
+     * Retrieves the day the tool is checked out as an epoch day.
      */
-    public void setCheckOutDate(LocalDate checkOutDate) {
-        this.checkOutDate = checkOutDate;
+    public int getCheckOutEpochDay() {
+        return checkOutDay;
     }
 
     /**
      * retrieves the date the tool need to be returned
      */
     public LocalDate getDueDate() {
-        return dueDate;
+        return LocalDate.ofEpochDay(dueDay);
     }
 
     /**
-     * Sets the date the tool need to be returned. It is Calculated from checkout
-     * date and rental days.
+     * Retrieves the date the tool need to be returned as an epoch day.
      */
-    public void setDueDate(String checkOutDate, int rentalDays) {
-        LocalDate localDate = ToolShopUtility.convertStringToLocalDate(checkOutDate);
-
-        this.dueDate = ToolShopUtility.addDaysToLocalDate(localDate, rentalDays);
+    public int getDueEpochDay() {
+        return dueDay;
     }
 
     /**
      * Retrieves the daily rental charge of the tool.
      */
     public String getDailyRentalChage() {
-        return dailyRentalChage;
+        return NumberStringFormatter.formatCents(dailyRentalChargeCents);
     }
 
     /**
-     * Sets the daily rental charge of the tool.
-     *
-     * @param dailyRentalChage
+     * Retrieves the daily rental charge of the tool in cents.
      */
-    public void setDailyRentalCharge(BigDecimal dailyRentalChage) {
-
-        this.dailyRentalChage = NumberStringFormatter.addCurrencySign(dailyRentalChage);
+    public long getDailyRentalChargeCents() {
+        return dailyRentalChargeCents;
     }
 
     /**
-     * Retrieves the number of days the customer is charged.
+     * Retrieves the count of chargeable days, from day after checkout through and
+     * including due date, excluding “no charge” days as specified by the tool
+     * type.
      */
     public int getChargeDays() {
         return chargeDays;
     }
 
     /**
-     * Count of chargeable days, from day after checkout through and including due
-     * date, excluding “no charge” days as specified by the tool type.
-     * 
-     * @param chargeDays
+     * retrieves the charges before discount, calculated as charge days X daily
+     * charge.
+     *
+     * @return
      */
-    public void setChargeDays(ToolCode toolCode, LocalDate checkOutDate, LocalDate dueDate) {
-
-        int chergeDayCounter = 0;
-
-        LocalDate currentChargeDay = checkOutDate;
-
-        while (currentChargeDay.isBefore(dueDate) && !currentChargeDay.equals(dueDate)) {
-
-            currentChargeDay = currentChargeDay.plusDays(1);
-
-            ToolNameAndCodeMapper mapperInstance = ToolNameAndCodeMapper.getMapper();
-
-            if (("Ladder").equals(mapperInstance.toolCodeNameMap.get(toolCode)) && !isItFourthOfJuly(currentChargeDay)
-                    && !isItLaborDay(currentChargeDay)) {
-                chergeDayCounter++;
-            }
-
-            if (("Chainsaw").equals(mapperInstance.toolCodeNameMap.get(toolCode)) && !isItWeekEnd(currentChargeDay)) {
-
-                chergeDayCounter++;
-
-            }
-
-            if (("Jackhammer").equals(mapperInstance.toolCodeNameMap.get(toolCode))
-                    && !isItFourthOfJuly(currentChargeDay) && !isItLaborDay(currentChargeDay)
-                    && !isItWeekEnd(currentChargeDay)) {
-                chergeDayCounter++;
-            }
-
-        }
-
-        this.chargeDays = chergeDayCounter;
+    public String getPreDiscountCharge() {
+        return NumberStringFormatter.formatCents(preDiscountChargeCents);
     }
 
     /**
-     * Determines if the current day is Saturday or Sunday.
-     * 
-     * @param currentChargeDay
+     * retrieves the charges before discount in cents
+     *
      * @return
      */
-    private boolean isItWeekEnd(LocalDate currentChargeDay) {
-
-        boolean isCurrentDayAWeekEnd = false;
-
-        if (DayOfWeek.SATURDAY.equals(currentChargeDay.getDayOfWeek())
-                || DayOfWeek.SUNDAY.equals(currentChargeDay.getDayOfWeek())) {
-
-            isCurrentDayAWeekEnd = true;
-        }
-
-        return isCurrentDayAWeekEnd;
-
+    public long getPreDiscountChargeCents() {
+        return preDiscountChargeCents;
     }
 
     /**
-     * Checks if the current day is July 4th and weekday, Or
-     * 
-     * If July Fourth is on weekend, consider the closest weekday as a Holiday. For
-     * that analyze current day if it is July 3rd and Friday or if it is July 5th
-     * and Monday.
-     * 
-     * @param currentChargeDay
-     *            to be checked against July 4th
+     * Retrieves the discount percent
+     *
      * @return
      */
-    private boolean isItFourthOfJuly(LocalDate currentChargeDay) {
-
-        boolean isCurrentDayFourthOfJuly = false;
-
-        if (Month.JULY.equals(currentChargeDay.getMonth())) {
-
-            if (currentChargeDay.getDayOfMonth() == 4 && !(DayOfWeek.SATURDAY.equals(currentChargeDay.getDayOfWeek())
-                    || DayOfWeek.SUNDAY.equals(currentChargeDay.getDayOfWeek()))) {
-
-                isCurrentDayFourthOfJuly = true;
-            }
-
-            if (currentChargeDay.getDayOfMonth() == 3 && DayOfWeek.FRIDAY.equals(currentChargeDay.getDayOfWeek())) {
-
-                isCurrentDayFourthOfJuly = true;
-            }
-
-            if (currentChargeDay.getDayOfMonth() == 5 && DayOfWeek.MONDAY.equals(currentChargeDay.getDayOfWeek())) {
-
-                isCurrentDayFourthOfJuly = true;
-            }
-        }
-
-        return isCurrentDayFourthOfJuly;
+    public String getDiscountPercent() {
+        return NumberStringFormatter.addPercentSign(discountPercent);
     }
 
     /**
-     * Checks if the current day is Labor day which happens on first day of
-     * September, To work on this first check if the month is September and the day
-     * is Monday. To find out if it is the first Monday, check the day one week
-     * before and see if it is still September
-     * 
-     * @param currentChargeDay
+     * Retrieves the discount percent as a number between 0 and 100
+     *
      * @return
      */
-    private boolean isItLaborDay(LocalDate currentChargeDay) {
-
-        boolean isCurrentDayLaborDay = false;
-
-        if (Month.SEPTEMBER.equals(currentChargeDay.getMonth())
-                && DayOfWeek.MONDAY.equals(currentChargeDay.getDayOfWeek())
-                && !Month.SEPTEMBER.equals(currentChargeDay.minusDays(7).getMonth())) {
-
-            isCurrentDayLaborDay = true;
-
-        }
-
-        return isCurrentDayLaborDay;
+    public int getDiscountPercentValue() {
+        return discountPercent;
     }
 
     /**
-     * retrieves the charges before discount
-     * 
+     * Retrives the dicount amount, calculated from discount % and pre-discount
+     * charge and rounded half up to cents.
+     *
      * @return
      */
-    public String getPreDiscountCharge() {
-        return preDiscountCharge;
+    public String getDiscountAmount() {
+        return NumberStringFormatter.formatCents(discountAmountCents);
     }
 
     /**
-     * Sets preDiscount charges. It is Calculated as charge days X daily charge.
-     * Resulting total rounded half up to cents.
-     * 
-     * @param preDiscountCharge
+     * Retrives the dicount amount in cents.
+     *
+     * @return
      */
-    public void setPreDiscountCharge(int chargeDays, String dailyCharge) {
-
-        BigDecimal currenctAmount = NumberStringFormatter.convertStringToBigDecimal(dailyCharge);
-
-        BigDecimal newpreDiscountCharge = currenctAmount.multiply(new BigDecimal(chargeDays));
-
-        this.preDiscountCharge = NumberStringFormatter.addCurrencySign(newpreDiscountCharge);
+    public long getDiscountAmountCents() {
+        return discountAmountCents;
     }
 
     /**
-     * Retrieves the discount percent
-     * 
+     * Retrieves the final amount of the rental charge, calculated as pre-discount
+     * charge - discount amount.
+     *
      * @return
      */
-    public String getDiscountPercent() {
-        return discountPercent;
+    public String getFinalCharge() {
+        return NumberStringFormatter.formatCents(finalChargeCents);
     }
 
     /**
-     * Sets discount percent. The amount is specified at checkout
-     * 
-     * @param dicountPercent
+     * Retrieves the final amount of the rental charge in cents
+     *
+     * @return
      */
-    public void setDiscountPercent(int dicountPercent) {
-        this.discountPercent = NumberStringFormatter.addPercentSign(dicountPercent);
+    public long getFinalChargeCents() {
+        return finalChargeCents;
     }
 
     /**
-     * Retrives the dicount amount.
-     * 
-     * @return
+     * Creates a builder holding the properties of this agreement, to create an
+     * agreement differing in a few of them.
+     *
+     * @return Builder
      */
-    public String getDiscountAmount() {
-        return discountAmount;
+    public Builder toBuilder() {
+        return new Builder()
+                .toolCode(toolCode)
+                .toolType(toolType)
+                .toolBrand(toolBrand)
+                .rentalDays(rentalDays)
+                .checkOutEpochDay(checkOutDay)
+                .dueEpochDay(dueDay)
+                .dailyRentalChargeCents(dailyRentalChargeCents)
+                .chargeDays(chargeDays)
+                .preDiscountChargeCents(preDiscountChargeCents)
+                .discountPercent(discountPercent)
+                .discountAmountCents(discountAmountCents)
+                .finalChargeCents(finalChargeCents);
     }
 
     /**
-     * Sets the discount amount. It is calculated from discount % and pre-discount
-     * charge. Resulting amount rounded half up to cents.
-     * 
-     * @param discountAmount
+     * Prints out the properties of this objects. The lines are put together first
+     * and printed at once, so the agreement is not interleaved with other output.
      */
-    public void setDiscountAmount(int discountPercent, String preDiscountCharge) {
-        BigDecimal chargeAmount = NumberStringFormatter.convertStringToBigDecimal(preDiscountCharge);
-        double discountAmountInDecimal = (double) discountPercent / 100;
-        BigDecimal newDiscountAmount = chargeAmount.multiply(BigDecimal.valueOf(discountAmountInDecimal));
-        this.discountAmount = NumberStringFormatter.addCurrencySign(newDiscountAmount);
+    public void printOutThisPropertiesToConsole() {
+
+        String lineSeparator = System.lineSeparator();
+        StringBuilder lines = new StringBuilder(320);
+
+        lines.append("Tool code: ").append(this.getToolCode()).append(lineSeparator)
+                .append("Tool type: ").append(this.getToolType()).append(lineSeparator)
+                .append("Tool brand: ").append(this.getToolBrand().getValue()).append(lineSeparator)
+                .append("Rental days: ").append(this.getRentalDays()).append(lineSeparator)
+
+                .append("Check out date: ").append(ToolShopUtility.formatLocalDate(this.getCheckOutDate()))
+                .append(lineSeparator)
+                .append("Due date: ").append(ToolShopUtility.formatLocalDate(this.getDueDate())).append(lineSeparator)
+                .append("Daily rental charge: ").append(this.getDailyRentalChage()).append(lineSeparator)
+                .append("Charge days: ").append(this.getChargeDays()).append(lineSeparator)
+
+                .append("Pre-discount charge: ").append(this.getPreDiscountCharge()).append(lineSeparator)
+                .append("Discount percent: ").append(this.getDiscountPercent()).append(lineSeparator)
+                .append("Discount amount: ").append(this.getDiscountAmount()).append(lineSeparator)
+                .append("Final charge: ").append(this.getFinalCharge()).append(lineSeparator);
+
+        System.out.print(lines);
     }
 
-    /**
-     * Retrieves the final amount of the rental charge
-     * 
-     * @return
-     */
-    public String getFinalCharge() {
-        return finalCharge;
+    @Override
+    public boolean equals(Object obj) {
+
+        if (this == obj) {
+            return true;
+        }
+
+        if (!(obj instanceof RentalAgreement)) {
+            return false;
+        }
+
+        RentalAgreement other = (RentalAgreement) obj;
+
+        return toolCode == other.toolCode && Objects.equals(toolType, other.toolType)
+                && toolBrand == other.toolBrand && rentalDays == other.rentalDays
+                && checkOutDay == other.checkOutDay && dueDay == other.dueDay
+                && dailyRentalChargeCents == other.dailyRentalChargeCents && chargeDays == other.chargeDays
+                && preDiscountChargeCents == other.preDiscountChargeCents
+                && discountPercent == other.discountPercent && discountAmountCents == other.discountAmountCents
+                && finalChargeCents == other.finalChargeCents;
     }
 
-    /**
-     * Sets the final Amount of the rental charge. It is Calculated as pre-discount
-     * charge - discount amount.
-     * 
-     * @param finalCharge
-     */
-    public void setFinalCharge(String preDiscountCharge, String discountAmount) {
-        BigDecimal preCharge = NumberStringFormatter.convertStringToBigDecimal(preDiscountCharge);
-        BigDecimal discount = NumberStringFormatter.convertStringToBigDecimal(discountAmount);
-        this.finalCharge = NumberStringFormatter.addCurrencySign(preCharge.subtract(discount));
+    @Override
+    public int hashCode() {
+        return Objects.hash(toolCode, toolType, toolBrand, rentalDays, checkOutDay, dueDay,
+                dailyRentalChargeCents, chargeDays, preDiscountChargeCents, discountPercent, discountAmountCents,
+                finalChargeCents);
+    }
+
+    @Override
+    public String toString() {
+        return "RentalAgreement[" + toolCode + ", " + toolType + ", " + toolBrand + ", " + rentalDays + " days, "
+                + getCheckOutDate() + " - " + getDueDate() + ", daily " + dailyRentalChargeCents + ", " + chargeDays
+                + " charge days, pre-discount " + preDiscountChargeCents + ", " + discountPercent
+                + "%, discount " + discountAmountCents + ", final " + finalChargeCents + "]";
     }
 
     /**
-     * Prints out the properties of this objects
+     * Collects the properties of an agreement. Amounts are given in cents.
+     *
+     * @author tadtab
+     *
      */
-    public void printOutThisPropertiesToConsole() {
-        System.out.println("Tool code: " + this.getToolCode());
-        System.out.println("Tool type: " + this.getToolType());
-        System.out.println("Tool brand: " + this.getToolBrand().getValue());
-        System.out.println("Rental days: " + this.getRentalDays());
-
-        System.out.println("Check out date: "
-                + ToolShopUtility.convertADateFormatToAnothorDateFormat(this.getCheckOutDate().toString()));
-        System.out
-                .println("Due date: " + ToolShopUtility.convertADateFormatToAnothorDateFormat(this.getDueDate().toString()));
-        System.out.println("Daily rental charge: " + this.getDailyRentalChage());
-        System.out.println("Charge days: " + this.getChargeDays());
-
-        System.out.println("Pre-discount charge: " + this.getPreDiscountCharge());
-        System.out.println("Discount percent: " + this.getDiscountPercent());
-        System.out.println("Discount amount: " + this.getDiscountAmount());
-        System.out.println("Final charge: " + this.getFinalCharge());
+    public static final class Builder {
+
+        private ToolCode toolCode;
+        private String toolType;
+        private Brand toolBrand;
+        private int rentalDays;
+        private int checkOutDay;
+        private int dueDay;
+        private long dailyRentalChargeCents;
+        private int chargeDays;
+        private long preDiscountChargeCents;
+        private int discountPercent;
+        private long discountAmountCents;
+        private long finalChargeCents;
+
+        public Builder toolCode(ToolCode toolCode) {
+            this.toolCode = toolCode;
+            return this;
+        }
+
+        public Builder toolType(String toolType) {
+            this.toolType = toolType;
+            return this;
+        }
+
+        public Builder toolBrand(Brand toolBrand) {
+            this.toolBrand = toolBrand;
+            return this;
+        }
+
+        public Builder rentalDays(int rentalDays) {
+            this.rentalDays = rentalDays;
+            return this;
+        }
+
+        public Builder checkOutDate(LocalDate checkOutDate) {
+            return checkOutEpochDay(Math.toIntExact(checkOutDate.toEpochDay()));
+        }
+
+        public Builder checkOutEpochDay(int checkOutDay) {
+            this.checkOutDay = checkOutDay;
+            return this;
+        }
+
+        public Builder dueDate(LocalDate dueDate) {
+            return dueEpochDay(Math.toIntExact(dueDate.toEpochDay()));
+        }
+
+        public Builder dueEpochDay(int dueDay) {
+            this.dueDay = dueDay;
+            return this;
+        }
+
+        public Builder dailyRentalChargeCents(long dailyRentalChargeCents) {
+            this.dailyRentalChargeCents = dailyRentalChargeCents;
+            return this;
+        }
+
+        public Builder chargeDays(int chargeDays) {
+            this.chargeDays = chargeDays;
+            return this;
+        }
+
+        public Builder preDiscountChargeCents(long preDiscountChargeCents) {
+            this.preDiscountChargeCents = preDiscountChargeCents;
+            return this;
+        }
+
+        public Builder discountPercent(int discountPercent) {
+            this.discountPercent = discountPercent;
+            return this;
+        }
+
+        public Builder discountAmountCents(long discountAmountCents) {
+            this.discountAmountCents = discountAmountCents;
+            return this;
+        }
+
+        public Builder finalChargeCents(long finalChargeCents) {
+            this.finalChargeCents = finalChargeCents;
+            return this;
+        }
+
+        /**
+         * Creates the agreement from the collected properties.
+         *
+         * @return RentalAgreement
+         */
+        public RentalAgreement build() {
+            return new RentalAgreement(this);
+        }
     }
 
 }
@@ -0,0 +1,440 @@
+package com.toolShop;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.toolShop.exception.InvalidDiscountPercentException;
+import com.toolShop.exception.InvalidRentalDayCountException;
+import com.toolShop.exception.ToolUnavailableException;
+import com.toolShop.inventory.Booking;
+import com.toolShop.inventory.InventoryIndex;
+import com.toolShop.inventory.Reservation;
+import com.toolShop.metrics.CheckoutMetrics;
+import com.toolShop.metrics.CheckoutStage;
+import com.toolShop.calendar.HolidayCalendar;
+import com.toolShop.pricing.ChargeDayTables;
+import com.toolShop.pricing.QuoteCache;
+import com.toolShop.pricing.QuoteKey;
+import com.toolShop.util.CheckOutDateParser;
+import com.toolShop.util.EpochDays;
+
+/**
+ * Prices rentals of all the tools of the shop. Besides single checkouts it
+ * prices whole batches of requests in one call: every request is validated
+ * and its checkout date parsed before anything is priced, and requests sharing
+ * the checkout date share the date parsing. Charge days are counted from the
+ * ChargeDayTables of the holidays. Single checkouts can be served from a
+ * QuoteCache.
+ * 
+ * Tools are read from a ToolCatalog without locking, so a single service can be
+ * shared by threads pricing in parallel while the catalog is reloaded.
+ * 
+ * @author tadtab
+ *
+ */
+public class RentalPricingService {
+
+    private final ToolCatalog toolCatalog;
+    private final HolidayCalendar holidayCalendar;
+    private final ChargeDayTables chargeDayTables;
+    private final QuoteCache quoteCache;
+
+    /**
+     * Constructor taking the catalog of the tools which can be rented.
+     * 
+     * @param toolCatalog
+     *            tools of the shop, one for each tool code
+     */
+    public RentalPricingService(ToolCatalog toolCatalog) {
+        this(toolCatalog, HolidayCalendar.getDefault(), null);
+    }
+
+    /**
+     * Constructor taking the catalog, the holidays and the cache of single
+     * checkouts.
+     * 
+     * @param toolCatalog
+     *            tools of the shop, one for each tool code
+     * @param holidayCalendar
+     *            holidays on which the holiday charge applies
+     * @param quoteCache
+     *            cache of single checkouts, null for no caching
+     */
+    public RentalPricingService(ToolCatalog toolCatalog, HolidayCalendar holidayCalendar, QuoteCache quoteCache) {
+        this.toolCatalog = toolCatalog;
+        this.holidayCalendar = holidayCalendar;
+        this.chargeDayTables = ChargeDayTables.forCalendar(holidayCalendar);
+        this.quoteCache = quoteCache;
+    }
+
+    /**
+     * Constructor taking the tools which can be rented.
+     * 
+     * @param rentalTools
+     *            tools of the shop, one for each tool code
+     */
+    public RentalPricingService(Collection<RentalTool> rentalTools) {
+        this(new ToolCatalog(rentalTools));
+    }
+
+    /**
+     * Retrieves the catalog of the tools priced by this service.
+     * 
+     * @return ToolCatalog
+     */
+    public ToolCatalog getToolCatalog() {
+        return toolCatalog;
+    }
+
+    /**
+     * Retrieves the holidays used by this service.
+     * 
+     * @return HolidayCalendar
+     */
+    public HolidayCalendar getHolidayCalendar() {
+        return holidayCalendar;
+    }
+
+    /**
+     * Retrieves the cache of single checkouts.
+     * 
+     * @return QuoteCache or null if checkouts are not cached
+     */
+    public QuoteCache getQuoteCache() {
+        return quoteCache;
+    }
+
+    /**
+     * Produces the rental agreement of a single checkout. If the service has a
+     * cache, an agreement priced earlier for the same values is returned as long
+     * as neither the tools nor the holidays changed since.
+     * 
+     * @param request
+     *            values entered at checkout
+     * @return RentalAgreement
+     * 
+     * @throws InvalidDiscountPercentException
+     *             thrown when the discount percent is not between 0 and 100
+     * @throws InvalidRentalDayCountException
+     *             thrown if the rental day count is less than 1
+     */
+    public RentalAgreement checkOut(CheckoutRequest request)
+            throws InvalidDiscountPercentException, InvalidRentalDayCountException {
+
+        if (quoteCache == null) {
+            return price(request);
+        }
+
+        long catalogVersion = toolCatalog.getVersion();
+        int calendarVersion = holidayCalendar.getVersion();
+
+        QuoteKey key = new QuoteKey(request.getToolCode(), request.getCheckOutDate(), request.getRentalDayCount(),
+                request.getDiscountPercent());
+
+        RentalAgreement rentalAgreement = quoteCache.get(key, catalogVersion, calendarVersion);
+
+        if (rentalAgreement == null) {
+            rentalAgreement = price(request);
+            quoteCache.put(key, rentalAgreement, catalogVersion, calendarVersion);
+        }
+
+        return rentalAgreement;
+    }
+
+    /**
+     * Produces the rental agreement of a single checkout and reserves a unit of
+     * the tool from the checkout date until the due date. Nothing is reserved if
+     * the request is invalid.
+     * 
+     * @param request
+     *            values entered at checkout
+     * @param inventory
+     *            units of the tools and their reservations
+     * @return Booking with the agreement and the reserved unit
+     * 
+     * @throws InvalidDiscountPercentException
+     *             thrown when the discount percent is not between 0 and 100
+     * @throws InvalidRentalDayCountException
+     *             thrown if the rental day count is less than 1
+     * @throws ToolUnavailableException
+     *             thrown if every unit of the tool is reserved during the rental
+     */
+    public Booking checkOutAndReserve(CheckoutRequest request, InventoryIndex inventory)
+            throws InvalidDiscountPercentException, InvalidRentalDayCountException, ToolUnavailableException {
+
+        RentalAgreement rentalAgreement = checkOut(request);
+
+        Reservation reservation = inventory.reserve(rentalAgreement.getToolCode(),
+                rentalAgreement.getCheckOutEpochDay(), rentalAgreement.getDueEpochDay());
+
+        if (reservation == null) {
+            throw new ToolUnavailableException();
+        }
+
+        return new Booking(rentalAgreement, reservation);
+    }
+
+    /**
+     * Produces the rental agreement of a checkout whose date is already parsed,
+     * for callers reading many checkouts from files. The cache is not used.
+     * 
+     * @param toolCode
+     *            identifies each tool.
+     * @param rentalDayCount
+     *            number of days the tool will be rented.
+     * @param discountPercent
+     *            discount on the daily rental charge made up on checkout.
+     * @param checkOutDate
+     *            the date the tool is checked out.
+     * @return RentalAgreement
+     * 
+     * @throws InvalidDiscountPercentException
+     *             thrown when the discount percent is not between 0 and 100
+     * @throws InvalidRentalDayCountException
+     *             thrown if the rental day count is less than 1
+     */
+    public RentalAgreement checkOut(ToolCode toolCode, int rentalDayCount, int discountPercent,
+            LocalDate checkOutDate) throws InvalidDiscountPercentException, InvalidRentalDayCountException {
+
+        return checkOut(toolCode, rentalDayCount, discountPercent, Math.toIntExact(checkOutDate.toEpochDay()));
+    }
+
+    /**
+     * Produces the rental agreement of a checkout whose date is already parsed
+     * into an epoch day. The cache is not used.
+     * 
+     * @param toolCode
+     *            identifies each tool.
+     * @param rentalDayCount
+     *            number of days the tool will be rented.
+     * @param discountPercent
+     *            discount on the daily rental charge made up on checkout.
+     * @param checkOutDay
+     *            epoch day the tool is checked out.
+     * @return RentalAgreement
+     * 
+     * @throws InvalidDiscountPercentException
+     *             thrown when the discount percent is not between 0 and 100
+     * @throws InvalidRentalDayCountException
+     *             thrown if the rental day count is less than 1
+     */
+    public RentalAgreement checkOut(ToolCode toolCode, int rentalDayCount, int discountPercent, int checkOutDay)
+            throws InvalidDiscountPercentException, InvalidRentalDayCountException {
+
+        return checkOut(toolOf(toolCode), rentalDayCount, discountPercent, checkOutDay);
+    }
+
+    /**
+     * Produces the rental agreement of a checkout of a tool already looked up,
+     * for callers taking the tools from one snapshot of the catalog. The cache
+     * is not used.
+     * 
+     * @param rentalTool
+     *            tool to be rented.
+     * @param rentalDayCount
+     *            number of days the tool will be rented.
+     * @param discountPercent
+     *            discount on the daily rental charge made up on checkout.
+     * @param checkOutDay
+     *            epoch day the tool is checked out.
+     * @return RentalAgreement
+     * 
+     * @throws InvalidDiscountPercentException
+     *             thrown when the discount percent is not between 0 and 100
+     * @throws InvalidRentalDayCountException
+     *             thrown if the rental day count is less than 1
+     */
+    public RentalAgreement checkOut(RentalTool rentalTool, int rentalDayCount, int discountPercent, int checkOutDay)
+            throws InvalidDiscountPercentException, InvalidRentalDayCountException {
+
+        RentalTool.validate(rentalDayCount, discountPercent);
+
+        return price(rentalTool, rentalDayCount, discountPercent, checkOutDay);
+    }
+
+    /**
+     * Prices a single checkout.
+     */
+    private RentalAgreement price(CheckoutRequest request)
+            throws InvalidDiscountPercentException, InvalidRentalDayCountException {
+
+        long startTime = CheckoutMetrics.startTime();
+
+        RentalTool rentalTool = toolOf(request.getToolCode());
+
+        RentalTool.validate(request.getRentalDayCount(), request.getDiscountPercent());
+        long stageTime = CheckoutMetrics.stageEnded(CheckoutStage.VALIDATION, startTime);
+
+        int checkOutDay = CheckOutDateParser.parseEpochDay(request.getCheckOutDate());
+        CheckoutMetrics.stageEnded(CheckoutStage.DATE_PARSING, stageTime);
+
+        RentalAgreement rentalAgreement = price(rentalTool, request.getRentalDayCount(),
+                request.getDiscountPercent(), checkOutDay);
+        CheckoutMetrics.checkoutEnded(rentalTool.getToolCode(), startTime);
+
+        return rentalAgreement;
+    }
+
+    /**
+     * Prices a single validated checkout.
+     */
+    private RentalAgreement price(RentalTool rentalTool, int rentalDayCount, int discountPercent, int checkOutDay) {
+
+        long stageTime = CheckoutMetrics.startTime();
+
+        int dueDay = EpochDays.plusDays(checkOutDay, rentalDayCount);
+
+        int chargeDays = chargeDayTables.countChargeDays(rentalTool.getToolType().getChargePolicy(), checkOutDay,
+                dueDay);
+        CheckoutMetrics.stageEnded(CheckoutStage.CHARGE_DAY_CALCULATION, stageTime);
+
+        return rentalTool.createAgreement(rentalTool.getToolCode(), rentalDayCount, discountPercent, checkOutDay,
+                dueDay, chargeDays);
+    }
+
+    /**
+     * Extends a rental by some days, pricing only the added days.
+     * 
+     * @param rentalAgreement
+     *            agreement of the rental
+     * @param extraDays
+     *            number of days the rental is extended by
+     * @return RentalAgreement with the new due date and charges
+     * 
+     * @throws InvalidRentalDayCountException
+     *             thrown if the number of days is less than 1
+     */
+    public RentalAgreement extend(RentalAgreement rentalAgreement, int extraDays)
+            throws InvalidRentalDayCountException {
+
+        if (extraDays < 1) {
+            throw new InvalidRentalDayCountException();
+        }
+
+        return toolOf(rentalAgreement.getToolCode()).reprice(rentalAgreement,
+                Math.addExact(rentalAgreement.getRentalDays(), extraDays), chargeDayTables);
+    }
+
+    /**
+     * Shortens a rental because the tool is returned before the due date, pricing
+     * only the removed days.
+     * 
+     * @param rentalAgreement
+     *            agreement of the rental
+     * @param daysEarlier
+     *            number of days before the due date the tool is returned
+     * @return RentalAgreement with the new due date and charges
+     * 
+     * @throws InvalidRentalDayCountException
+     *             thrown if the number of days is less than 1 or leaves less than
+     *             one rental day
+     */
+    public RentalAgreement returnEarly(RentalAgreement rentalAgreement, int daysEarlier)
+            throws InvalidRentalDayCountException {
+
+        if (daysEarlier < 1) {
+            throw new InvalidRentalDayCountException();
+        }
+
+        return toolOf(rentalAgreement.getToolCode()).reprice(rentalAgreement,
+                rentalAgreement.getRentalDays() - daysEarlier, chargeDayTables);
+    }
+
+    /**
+     * Produces the rental agreements of many checkouts. Nothing is priced if any
+     * of the requests is invalid. The whole batch is priced against the tools of
+     * one catalog version, even if the catalog is reloaded meanwhile.
+     * 
+     * @param requests
+     *            values entered at checkout
+     * @return RentalAgreements in the same order as the requests
+     * 
+     * @throws InvalidDiscountPercentException
+     *             thrown when a discount percent is not between 0 and 100
+     * @throws InvalidRentalDayCountException
+     *             thrown if a rental day count is less than 1
+     */
+    public List<RentalAgreement> checkOutAll(List<CheckoutRequest> requests)
+            throws InvalidDiscountPercentException, InvalidRentalDayCountException {
+        return checkOutAll(requests, toolCatalog.getTools());
+    }
+
+    /**
+     * Produces the rental agreements of many checkouts with the tools of a
+     * catalog snapshot, so batches priced apart can share one catalog version.
+     * 
+     * @param requests
+     *            values entered at checkout
+     * @param tools
+     *            snapshot of the catalog, as returned by ToolCatalog.getTools
+     * @return RentalAgreements in the same order as the requests
+     * 
+     * @throws InvalidDiscountPercentException
+     *             thrown when a discount percent is not between 0 and 100
+     * @throws InvalidRentalDayCountException
+     *             thrown if a rental day count is less than 1
+     */
+    List<RentalAgreement> checkOutAll(List<CheckoutRequest> requests, Map<ToolCode, RentalTool> tools)
+            throws InvalidDiscountPercentException, InvalidRentalDayCountException {
+
+        Map<String, Integer> parsedDates = new HashMap<String, Integer>();
+        int[] checkOutDays = new int[requests.size()];
+
+        for (int i = 0; i < checkOutDays.length; i++) {
+
+            CheckoutRequest request = requests.get(i);
+
+            toolOf(tools, request.getToolCode());
+            RentalTool.validate(request.getRentalDayCount(), request.getDiscountPercent());
+
+            checkOutDays[i] = parsedDates.computeIfAbsent(request.getCheckOutDate(),
+                    CheckOutDateParser::parseEpochDay);
+        }
+
+        List<RentalAgreement> rentalAgreements = new ArrayList<RentalAgreement>(checkOutDays.length);
+
+        for (int i = 0; i < checkOutDays.length; i++) {
+
+            CheckoutRequest request = requests.get(i);
+            RentalTool rentalTool = toolOf(tools, request.getToolCode());
+            int rentalDayCount = request.getRentalDayCount();
+
+            int checkOutDay = checkOutDays[i];
+            int dueDay = EpochDays.plusDays(checkOutDay, rentalDayCount);
+
+            int charged = chargeDayTables.countChargeDays(rentalTool.getToolType().getChargePolicy(), checkOutDay,
+                    dueDay);
+
+            rentalAgreements.add(rentalTool.createAgreement(request.getToolCode(), rentalDayCount,
+                    request.getDiscountPercent(), checkOutDay, dueDay, charged));
+        }
+
+        return rentalAgreements;
+    }
+
+    /**
+     * Finds the tool with the given code.
+     */
+    private RentalTool toolOf(ToolCode toolCode) {
+        return toolOf(toolCatalog.getTools(), toolCode);
+    }
+
+    /**
+     * Finds the tool with the given code in a catalog snapshot.
+     */
+    private static RentalTool toolOf(Map<ToolCode, RentalTool> tools, ToolCode toolCode) {
+
+        RentalTool rentalTool = tools.get(toolCode);
+
+        if (rentalTool == null) {
+            throw new IllegalArgumentException("No tool with code " + toolCode);
+        }
+
+        return rentalTool;
+    }
+
+}
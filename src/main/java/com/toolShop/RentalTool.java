@@ -1,9 +1,14 @@
 package com.toolShop;
 
-import java.time.LocalDate;
 import com.toolShop.exception.InvalidDiscountPercentException;
 import com.toolShop.exception.InvalidRentalDayCountException;
-import com.toolShop.util.ToolShopUtility;
+import com.toolShop.metrics.CheckoutMetrics;
+import com.toolShop.metrics.CheckoutStage;
+import com.toolShop.pricing.ChargeDayTables;
+import com.toolShop.pricing.ChargePolicy;
+import com.toolShop.pricing.Money;
+import com.toolShop.util.CheckOutDateParser;
+import com.toolShop.util.EpochDays;
 
 /**
  * This class represents the rental tool with code, brand and tool type.
@@ -15,9 +20,9 @@ import com.toolShop.util.ToolShopUtility;
  */
 public class RentalTool implements Tool {
 
-    private ToolCode toolCode;
-    private Brand brand;
-    private ToolType toolType;
+    private final ToolCode toolCode;
+    private final Brand brand;
+    private final ToolType toolType;
 
     /**
      * Constructor with three arguments which initializes RentalTool properties to
@@ -62,58 +67,201 @@ public class RentalTool implements Tool {
     public RentalAgreement checkOut(ToolCode toolCode, int rentalDayCount, int discountPercent, String checkOutDate)
             throws InvalidDiscountPercentException, InvalidRentalDayCountException {
 
-        RentalAgreement rentalAgreement = new RentalAgreement();
+        long startTime = CheckoutMetrics.startTime();
 
-        if (discountPercent < 0 || discountPercent > 100) {
+        validate(rentalDayCount, discountPercent);
+        long stageTime = CheckoutMetrics.stageEnded(CheckoutStage.VALIDATION, startTime);
 
-            throw new InvalidDiscountPercentException();
+        int checkOutDay = CheckOutDateParser.parseEpochDay(checkOutDate);
+        int dueDay = EpochDays.plusDays(checkOutDay, rentalDayCount);
+        stageTime = CheckoutMetrics.stageEnded(CheckoutStage.DATE_PARSING, stageTime);
+
+        int chargeDays = ChargeDayTables.getDefault().countChargeDays(this.getToolType().getChargePolicy(),
+                checkOutDay, dueDay);
+        CheckoutMetrics.stageEnded(CheckoutStage.CHARGE_DAY_CALCULATION, stageTime);
+
+        RentalAgreement rentalAgreement = createAgreement(toolCode, rentalDayCount, discountPercent, checkOutDay,
+                dueDay, chargeDays);
+        CheckoutMetrics.checkoutEnded(toolCode, startTime);
+
+        return rentalAgreement;
+    }
+
+    /**
+     * Extends a rental by some days. Only the added days are counted, and the
+     * charges of the agreement are adjusted by their charge.
+     * 
+     * @param rentalAgreement
+     *            agreement of the rental, produced by this tool
+     * @param extraDays
+     *            number of days the rental is extended by
+     * @return RentalAgreement with the new due date and charges
+     * 
+     * @throws InvalidRentalDayCountException
+     *             thrown if the number of days is less than 1
+     */
+    public RentalAgreement extend(RentalAgreement rentalAgreement, int extraDays)
+            throws InvalidRentalDayCountException {
+
+        if (extraDays < 1) {
+            throw new InvalidRentalDayCountException();
         }
 
-        if (rentalDayCount < 1) {
+        return reprice(rentalAgreement, Math.addExact(rentalAgreement.getRentalDays(), extraDays),
+                ChargeDayTables.getDefault());
+    }
 
+    /**
+     * Shortens a rental because the tool is returned before the due date. Only
+     * the removed days are counted, and the charges of the agreement are reduced
+     * by their charge.
+     * 
+     * @param rentalAgreement
+     *            agreement of the rental, produced by this tool
+     * @param daysEarlier
+     *            number of days before the due date the tool is returned
+     * @return RentalAgreement with the new due date and charges
+     * 
+     * @throws InvalidRentalDayCountException
+     *             thrown if the number of days is less than 1 or leaves less than
+     *             one rental day
+     */
+    public RentalAgreement returnEarly(RentalAgreement rentalAgreement, int daysEarlier)
+            throws InvalidRentalDayCountException {
+
+        if (daysEarlier < 1) {
             throw new InvalidRentalDayCountException();
         }
 
-        // set tool code
-        rentalAgreement.setToolCode(toolCode);
+        return reprice(rentalAgreement, rentalAgreement.getRentalDays() - daysEarlier, ChargeDayTables.getDefault());
+    }
 
-        // set tool type
-        rentalAgreement.setToolType(this.getToolType().getToolName());
+    /**
+     * Changes the rental day count of an agreement by counting only the days
+     * between the old and the new due date. The charge days and the pre-discount
+     * charge are adjusted by the charge of those days; the discount is taken
+     * again from the new pre-discount charge, because a rounded percentage of a
+     * sum is not the sum of the rounded percentages. The daily charge agreed at
+     * checkout is kept.
+     * 
+     * @param rentalAgreement
+     *            agreement of the rental, produced by this tool
+     * @param rentalDayCount
+     *            new number of days the tool is rented
+     * @param chargeDayTables
+     *            charge days of the calendar the agreement was priced with
+     * @return RentalAgreement
+     * 
+     * @throws InvalidRentalDayCountException
+     *             thrown if the rental day count is less than 1
+     */
+    RentalAgreement reprice(RentalAgreement rentalAgreement, int rentalDayCount, ChargeDayTables chargeDayTables)
+            throws InvalidRentalDayCountException {
 
-        // set tool brand
-        rentalAgreement.setToolBrand(this.getBrand());
+        if (rentalDayCount < 1) {
+            throw new InvalidRentalDayCountException();
+        }
 
-        // set rental days
-        rentalAgreement.setRentalDays(rentalDayCount);
+        ChargePolicy chargePolicy = this.getToolType().getChargePolicy();
+        int oldDueDay = rentalAgreement.getDueEpochDay();
+        int newDueDay = EpochDays.plusDays(rentalAgreement.getCheckOutEpochDay(), rentalDayCount);
 
-        // set due date
-        rentalAgreement.setDueDate(checkOutDate, rentalDayCount);
+        int chargeDayChange = newDueDay >= oldDueDay
+                ? chargeDayTables.countChargeDays(chargePolicy, oldDueDay, newDueDay)
+                : -chargeDayTables.countChargeDays(chargePolicy, newDueDay, oldDueDay);
 
-        // set number of charge day
-        LocalDate toolCheckOut = ToolShopUtility.convertStringToLocalDate(checkOutDate);
-        rentalAgreement.setChargeDays(toolCode, toolCheckOut, rentalAgreement.getDueDate());
+        long preDiscountChargeCents = rentalAgreement.getPreDiscountChargeCents()
+                + Money.multiply(rentalAgreement.getDailyRentalChargeCents(), chargeDayChange);
+        long discountAmountCents = Money.percentOf(preDiscountChargeCents,
+                rentalAgreement.getDiscountPercentValue());
 
-        // Check out date
-        rentalAgreement.setCheckOutDate(toolCheckOut);
+        return rentalAgreement.toBuilder()
+                .rentalDays(rentalDayCount)
+                .dueEpochDay(newDueDay)
+                .chargeDays(rentalAgreement.getChargeDays() + chargeDayChange)
+                .preDiscountChargeCents(preDiscountChargeCents)
+                .discountAmountCents(discountAmountCents)
+                .finalChargeCents(preDiscountChargeCents - discountAmountCents)
+                .build();
+    }
 
-        // set daily charge
-        rentalAgreement.setDailyRentalCharge(this.getToolType().getDailyChargeAmount());
+    /**
+     * Validates the values entered at checkout.
+     * 
+     * @param rentalDayCount
+     *            number of days the tool will be rented.
+     * @param discountPercent
+     *            discount on the daily rental charge made up on checkout.
+     * 
+     * @throws InvalidDiscountPercentException
+     *             thrown when the discount percent is not between 0 and 100
+     * @throws InvalidRentalDayCountException
+     *             thrown if the rental day count is less than 0;
+     */
+    static void validate(int rentalDayCount, int discountPercent)
+            throws InvalidDiscountPercentException, InvalidRentalDayCountException {
+
+        if (discountPercent < 0 || discountPercent > 100) {
+
+            CheckoutMetrics.exceptionThrown(InvalidDiscountPercentException.class);
+            throw new InvalidDiscountPercentException();
+        }
+
+        if (rentalDayCount < 1) {
+
+            CheckoutMetrics.exceptionThrown(InvalidRentalDayCountException.class);
+            throw new InvalidRentalDayCountException();
+        }
+    }
+
+    /**
+     * Calculates the charges and builds the rental agreement in a single pass from
+     * validated values and the already counted charge days, so callers pricing
+     * many rentals can share the calculations.
+     * 
+     * @param toolCode
+     *            identifies each tool.
+     * @param rentalDayCount
+     *            number of days the tool will be rented.
+     * @param discountPercent
+     *            discount on the daily rental charge made up on checkout.
+     * @param checkOutDay
+     *            epoch day the tool is checked out.
+     * @param dueDay
+     *            epoch day the tool need to be returned.
+     * @param chargeDays
+     *            number of days the customer is charged.
+     * 
+     * @return RentalAgreement
+     */
+    RentalAgreement createAgreement(ToolCode toolCode, int rentalDayCount, int discountPercent,
+            int checkOutDay, int dueDay, int chargeDays) {
 
-        // set PreDiscount Charge
-        int dailyChargeCount = rentalAgreement.getChargeDays();
-        String dailyRentalChage = rentalAgreement.getDailyRentalChage();
-        rentalAgreement.setPreDiscountCharge(dailyChargeCount, dailyRentalChage);
+        long stageTime = CheckoutMetrics.startTime();
 
-        // populate Discount present
-        rentalAgreement.setDiscountPercent(discountPercent);
+        ToolType toolType = this.getToolType();
 
-        // populate discount amount
-        String preDiscountCharge = rentalAgreement.getPreDiscountCharge();
-        rentalAgreement.setDiscountAmount(discountPercent, preDiscountCharge);
+        long dailyChargeCents = toolType.getDailyChargeCents();
+        long preDiscountChargeCents = Money.multiply(dailyChargeCents, chargeDays);
+        long discountAmountCents = Money.percentOf(preDiscountChargeCents, discountPercent);
+        long finalChargeCents = preDiscountChargeCents - discountAmountCents;
+        stageTime = CheckoutMetrics.stageEnded(CheckoutStage.CHARGE_CALCULATION, stageTime);
 
-        // populate final charge
-        String discountAmount = rentalAgreement.getDiscountAmount();
-        rentalAgreement.setFinalCharge(preDiscountCharge, discountAmount);
+        RentalAgreement rentalAgreement = new RentalAgreement.Builder()
+                .toolCode(toolCode)
+                .toolType(toolType.getToolName())
+                .toolBrand(this.getBrand())
+                .rentalDays(rentalDayCount)
+                .checkOutEpochDay(checkOutDay)
+                .dueEpochDay(dueDay)
+                .dailyRentalChargeCents(dailyChargeCents)
+                .chargeDays(chargeDays)
+                .preDiscountChargeCents(preDiscountChargeCents)
+                .discountPercent(discountPercent)
+                .discountAmountCents(discountAmountCents)
+                .finalChargeCents(finalChargeCents)
+                .build();
+        CheckoutMetrics.stageEnded(CheckoutStage.AGREEMENT_ASSEMBLY, stageTime);
 
         return rentalAgreement;
     }
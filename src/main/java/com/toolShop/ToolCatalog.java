@@ -0,0 +1,151 @@
+package com.toolShop;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Registry of the tools which can be rented, one RentalTool (brand and tool
+ * type) for each tool code.
+ * 
+ * The tools are held in an immutable snapshot. Reading a tool is a single
+ * volatile read without any lock, and changing the catalog copies the snapshot
+ * and swaps it atomically, so checkouts running at the same time either see
+ * the old or the new catalog but never a mix of both.
+ * 
+ * @author tadtab
+ *
+ */
+public class ToolCatalog {
+
+    private final AtomicReference<Snapshot> snapshot;
+
+    /**
+     * Constructor which initializes the catalog with the given tools.
+     * 
+     * @param rentalTools
+     *            tools of the shop, one for each tool code
+     */
+    public ToolCatalog(Collection<RentalTool> rentalTools) {
+        this.snapshot = new AtomicReference<Snapshot>(new Snapshot(toMap(rentalTools), 0));
+    }
+
+    /**
+     * Creates a catalog with the tools of the shop:
+     * 
+     * LADW Werner Ladder, CHNS Stihl Chainsaw, JAKR Ridgid Jackhammer and JAKD
+     * DeWalt Jackhammer.
+     * 
+     * @return ToolCatalog
+     */
+    public static ToolCatalog createDefault() {
+
+        ToolType ladder = new ToolType("Ladder", new BigDecimal("1.99"), true, true, false);
+        ToolType chainsaw = new ToolType("Chainsaw", new BigDecimal("1.49"), true, false, true);
+        ToolType jackhammer = new ToolType("Jackhammer", new BigDecimal("2.99"), true, false, false);
+
+        return new ToolCatalog(Arrays.asList(new RentalTool(ToolCode.LADW, Brand.WERNER, ladder),
+                new RentalTool(ToolCode.CHNS, Brand.STIHL, chainsaw),
+                new RentalTool(ToolCode.JAKR, Brand.RIDGID, jackhammer),
+                new RentalTool(ToolCode.JAKD, Brand.DEWALT, jackhammer)));
+    }
+
+    /**
+     * Retrieves the tool with the given code.
+     * 
+     * @param toolCode
+     *            identifies each tool
+     * @return RentalTool or null if there is no such tool in the catalog
+     */
+    public RentalTool get(ToolCode toolCode) {
+        return snapshot.get().tools.get(toolCode);
+    }
+
+    /**
+     * Retrieves all the tools of the catalog.
+     * 
+     * @return unmodifiable map of the tools by tool code
+     */
+    public Map<ToolCode, RentalTool> getTools() {
+        return snapshot.get().tools;
+    }
+
+    /**
+     * Retrieves the version of the catalog which is incremented every time the
+     * catalog changes.
+     * 
+     * @return long
+     */
+    public long getVersion() {
+        return snapshot.get().version;
+    }
+
+    /**
+     * Replaces all the tools of the catalog.
+     * 
+     * @param rentalTools
+     *            tools of the shop, one for each tool code
+     */
+    public void reload(Collection<RentalTool> rentalTools) {
+
+        Map<ToolCode, RentalTool> tools = toMap(rentalTools);
+        Snapshot current;
+
+        do {
+            current = snapshot.get();
+        } while (!snapshot.compareAndSet(current, new Snapshot(tools, current.version + 1)));
+    }
+
+    /**
+     * Adds a tool or replaces the tool with the same code.
+     * 
+     * @param rentalTool
+     *            tool to be added
+     */
+    public void update(RentalTool rentalTool) {
+
+        Snapshot current;
+        Snapshot updated;
+
+        do {
+            current = snapshot.get();
+
+            Map<ToolCode, RentalTool> tools = new EnumMap<ToolCode, RentalTool>(ToolCode.class);
+            tools.putAll(current.tools);
+            tools.put(rentalTool.getToolCode(), rentalTool);
+
+            updated = new Snapshot(Collections.unmodifiableMap(tools), current.version + 1);
+
+        } while (!snapshot.compareAndSet(current, updated));
+    }
+
+    private static Map<ToolCode, RentalTool> toMap(Collection<RentalTool> rentalTools) {
+
+        Map<ToolCode, RentalTool> tools = new EnumMap<ToolCode, RentalTool>(ToolCode.class);
+
+        for (RentalTool rentalTool : rentalTools) {
+            tools.put(rentalTool.getToolCode(), rentalTool);
+        }
+
+        return Collections.unmodifiableMap(tools);
+    }
+
+    /**
+     * Immutable state of the catalog.
+     */
+    private static class Snapshot {
+
+        private final Map<ToolCode, RentalTool> tools;
+        private final long version;
+
+        Snapshot(Map<ToolCode, RentalTool> tools, long version) {
+            this.tools = tools;
+            this.version = version;
+        }
+    }
+
+}
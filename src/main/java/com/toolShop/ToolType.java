@@ -2,6 +2,9 @@ package com.toolShop;
 
 import java.math.BigDecimal;
 
+import com.toolShop.pricing.ChargePolicy;
+import com.toolShop.pricing.Money;
+
 /**
  * Rental tool type with daily charge and to which days(weekends, weekdays, holidays) the charge applies.
  * 
@@ -10,11 +13,13 @@ import java.math.BigDecimal;
  */
 public class ToolType {
     
-    private String toolName;
-    private BigDecimal dailyChargeAmount;
-    private boolean weekDayChargeApplies;
-    private boolean weekEndChargeApplies;
-    private boolean holidayChargeApplies;
+    private final String toolName;
+    private final BigDecimal dailyChargeAmount;
+    private final boolean weekDayChargeApplies;
+    private final boolean weekEndChargeApplies;
+    private final boolean holidayChargeApplies;
+    private final ChargePolicy chargePolicy;
+    private final long dailyChargeCents;
     
     /**
      *Constructor to instantiate the ToolType object with given values. 
@@ -32,6 +37,8 @@ public class ToolType {
         this.weekDayChargeApplies = weekDayChargeApplies;
         this.weekEndChargeApplies = weekEndChargeApplies;
         this.holidayChargeApplies = holidayChargeApplies;
+        this.dailyChargeCents = Money.toCents(dailyChargeAmount);
+        this.chargePolicy = ChargePolicy.of(weekDayChargeApplies, weekEndChargeApplies, holidayChargeApplies);
     }
     
     /**
@@ -51,6 +58,14 @@ public class ToolType {
         return dailyChargeAmount;
     }
     
+    /**
+     * Retrieves the daily charge amount rounded half up to cents
+     * @return
+     */
+    public long getDailyChargeCents() {
+        return dailyChargeCents;
+    }
+    
     /**
      * Indicates if charge applies to weekdays 
      * @return boolean
@@ -74,6 +89,14 @@ public class ToolType {
         return holidayChargeApplies;
     }
     
+    /**
+     * Retrieves the charge flags compiled into a policy when this type was created
+     * @return ChargePolicy
+     */
+    public ChargePolicy getChargePolicy() {
+        return chargePolicy;
+    }
+    
     
 
 }
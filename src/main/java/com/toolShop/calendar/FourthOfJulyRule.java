@@ -0,0 +1,31 @@
+package com.toolShop.calendar;
+
+import com.toolShop.util.EpochDays;
+
+/**
+ * Independence Day - July 4th. If it falls on weekend, it is observed on the
+ * closest weekday (Saturday on Friday before, Sunday on Monday after).
+ * 
+ * @author tadtab
+ *
+ */
+public class FourthOfJulyRule implements HolidayRule {
+
+    @Override
+    public int observedEpochDay(int year) {
+
+        int epochDay = EpochDays.of(year, 7, 4);
+        int dayOfWeek = EpochDays.dayOfWeek(epochDay);
+
+        if (dayOfWeek == EpochDays.SATURDAY) {
+            return epochDay - 1;
+        }
+
+        if (dayOfWeek == EpochDays.SUNDAY) {
+            return epochDay + 1;
+        }
+
+        return epochDay;
+    }
+
+}
@@ -0,0 +1,246 @@
+package com.toolShop.calendar;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.toolShop.util.EpochDays;
+
+/**
+ * Calendar of the observed holidays. The holidays of a year are materialized
+ * once into a sorted array of epoch days and kept in a bounded cache, so a
+ * membership check is a binary search over a handful of values. Counting the
+ * holidays between two dates visits every year of the period, but only
+ * searches the first and the last year; the years in between add the length
+ * of their array.
+ *
+ * Rules can be registered at any time. Registering a rule replaces the cache
+ * as a whole, readers never take a lock.
+ *
+ * @author tadtab
+ *
+ */
+public class HolidayCalendar {
+
+    /**
+     * Number of years kept in the cache unless specified otherwise.
+     */
+    public static final int DEFAULT_CACHED_YEARS = 256;
+
+    private static final HolidayCalendar DEFAULT = new HolidayCalendar(DEFAULT_CACHED_YEARS, new FourthOfJulyRule(),
+            new LaborDayRule());
+
+    private final int cachedYears;
+
+    private volatile State state;
+
+    /**
+     * Constructor which initializes the calendar with the given holidays.
+     *
+     * @param cachedYears
+     *            maximum number of years kept in the cache
+     * @param rules
+     *            holidays observed in this calendar
+     */
+    public HolidayCalendar(int cachedYears, HolidayRule... rules) {
+
+        if (cachedYears < 1) {
+            throw new IllegalArgumentException("cachedYears must be positive");
+        }
+
+        this.cachedYears = cachedYears;
+        this.state = new State(rules.clone(), 0, cachedYears);
+    }
+
+    /**
+     * Retrieves the calendar with July 4th and Labor Day holidays used for
+     * rental charges.
+     *
+     * @return HolidayCalendar
+     */
+    public static HolidayCalendar getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Adds a holiday to the calendar. Cached years are discarded and will be
+     * materialized again including the new holiday.
+     *
+     * @param rule
+     *            holiday to be added
+     */
+    public synchronized void register(HolidayRule rule) {
+
+        State current = this.state;
+        HolidayRule[] rules = Arrays.copyOf(current.rules, current.rules.length + 1);
+        rules[current.rules.length] = rule;
+
+        this.state = new State(rules, current.version + 1, cachedYears);
+    }
+
+    /**
+     * Retrieves the version of the calendar which is incremented every time a
+     * holiday is registered.
+     *
+     * @return int
+     */
+    public int getVersion() {
+        return state.version;
+    }
+
+    /**
+     * Checks if the given day is an observed holiday.
+     *
+     * @param epochDay
+     *            day to be checked
+     * @return boolean
+     */
+    public boolean isHoliday(int epochDay) {
+        return Arrays.binarySearch(holidaysOf(EpochDays.yearOf(epochDay)).days, epochDay) >= 0;
+    }
+
+    /**
+     * Counts the holidays between two days.
+     *
+     * @param firstDay
+     *            first epoch day of the period, inclusive
+     * @param lastDay
+     *            last epoch day of the period, inclusive
+     * @return number of holidays
+     */
+    public int countHolidays(int firstDay, int lastDay) {
+        return count(firstDay, lastDay, false);
+    }
+
+    /**
+     * Counts the holidays falling on Saturday or Sunday between two days.
+     *
+     * @param firstDay
+     *            first epoch day of the period, inclusive
+     * @param lastDay
+     *            last epoch day of the period, inclusive
+     * @return number of weekend holidays
+     */
+    public int countWeekEndHolidays(int firstDay, int lastDay) {
+        return count(firstDay, lastDay, true);
+    }
+
+    private int count(int firstDay, int lastDay, boolean weekEndOnly) {
+
+        if (lastDay < firstDay) {
+            return 0;
+        }
+
+        int firstYear = EpochDays.yearOf(firstDay);
+        int lastYear = EpochDays.yearOf(lastDay);
+
+        int holidays = 0;
+
+        for (int year = firstYear; year <= lastYear; year++) {
+
+            HolidayYear holidayYear = holidaysOf(year);
+            int[] days = weekEndOnly ? holidayYear.weekEndDays : holidayYear.days;
+
+            if (year != firstYear && year != lastYear) {
+                holidays += days.length;
+            } else {
+                holidays += lowerBound(days, lastDay + 1) - lowerBound(days, firstDay);
+            }
+        }
+
+        return holidays;
+    }
+
+    /**
+     * Retrieves the holidays of a year from the cache, materializing them if the
+     * year is not cached yet.
+     */
+    private HolidayYear holidaysOf(int year) {
+
+        State current = this.state;
+        int slot = Math.floorMod(year, current.years.length());
+
+        HolidayYear holidayYear = current.years.get(slot);
+
+        if (holidayYear == null || holidayYear.year != year) {
+            holidayYear = new HolidayYear(year, current.rules);
+            current.years.set(slot, holidayYear);
+        }
+
+        return holidayYear;
+    }
+
+    /**
+     * Index of the first value that is not less than the key.
+     */
+    private static int lowerBound(int[] days, int key) {
+
+        int low = 0;
+        int high = days.length;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+
+            if (days[middle] < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * Rules with the cache materialized from them. Replaced as a whole when a
+     * rule is registered.
+     */
+    private static class State {
+
+        private final HolidayRule[] rules;
+        private final int version;
+        private final AtomicReferenceArray<HolidayYear> years;
+
+        State(HolidayRule[] rules, int version, int cachedYears) {
+            this.rules = rules;
+            this.version = version;
+            this.years = new AtomicReferenceArray<HolidayYear>(cachedYears);
+        }
+    }
+
+    /**
+     * Sorted observed holidays of a single year.
+     */
+    private static class HolidayYear {
+
+        private final int year;
+        private final int[] days;
+        private final int[] weekEndDays;
+
+        HolidayYear(int year, HolidayRule[] rules) {
+
+            this.year = year;
+
+            int firstDay = EpochDays.of(year, 1, 1);
+            int lastDay = EpochDays.of(year, 12, 31);
+
+            // a holiday of the previous or the next year may be observed in this year
+            int[] candidates = new int[rules.length * 3];
+            int count = 0;
+
+            for (HolidayRule rule : rules) {
+                for (int ruleYear = year - 1; ruleYear <= year + 1; ruleYear++) {
+
+                    int day = rule.observedEpochDay(ruleYear);
+
+                    if (day >= firstDay && day <= lastDay) {
+                        candidates[count++] = day;
+                    }
+                }
+            }
+
+            this.days = Arrays.stream(candidates, 0, count).sorted().distinct().toArray();
+            this.weekEndDays = Arrays.stream(days).filter(EpochDays::isWeekEnd).toArray();
+        }
+    }
+
+}
@@ -0,0 +1,21 @@
+package com.toolShop.calendar;
+
+/**
+ * A holiday which is observed once a year. Implementations are registered with
+ * the HolidayCalendar which asks each rule for its observed day only once per
+ * cached year.
+ * 
+ * @author tadtab
+ *
+ */
+public interface HolidayRule {
+
+    /**
+     * Calculates the day the holiday is observed in the given year.
+     * 
+     * @param year
+     *            the year to be examined
+     * @return epoch day of the observed holiday
+     */
+    public int observedEpochDay(int year);
+}
@@ -0,0 +1,22 @@
+package com.toolShop.calendar;
+
+import com.toolShop.util.EpochDays;
+
+/**
+ * Labor Day - first Monday in September.
+ * 
+ * @author tadtab
+ *
+ */
+public class LaborDayRule implements HolidayRule {
+
+    @Override
+    public int observedEpochDay(int year) {
+
+        int firstOfSeptember = EpochDays.of(year, 9, 1);
+        int daysToMonday = (EpochDays.DAYS_PER_WEEK - EpochDays.dayOfWeek(firstOfSeptember)) % EpochDays.DAYS_PER_WEEK;
+
+        return firstOfSeptember + daysToMonday;
+    }
+
+}
@@ -0,0 +1,10 @@
+package com.toolShop.exception;
+
+public class ToolUnavailableException extends Exception {
+
+    /**
+     * 
+     */
+    private static final long serialVersionUID = 1L;
+
+}
@@ -0,0 +1,35 @@
+package com.toolShop.export;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+
+import com.toolShop.RentalAgreement;
+
+/**
+ * Writes rental agreements one after the other in some export format. Closing
+ * the writer completes the output and closes what it writes to.
+ * 
+ * @author tadtab
+ *
+ */
+public interface AgreementWriter extends Closeable, Flushable {
+
+    /**
+     * Writes an agreement.
+     * 
+     * @param rentalAgreement
+     *            agreement to be exported
+     * @throws IOException
+     *             thrown if the output can not be written
+     */
+    void write(RentalAgreement rentalAgreement) throws IOException;
+
+    /**
+     * Retrieves the number of agreements written so far.
+     * 
+     * @return long
+     */
+    long getWrittenCount();
+
+}
@@ -0,0 +1,54 @@
+package com.toolShop.export;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+
+import com.toolShop.RentalAgreement;
+import com.toolShop.ledger.AgreementRecordCodec;
+
+/**
+ * Writes agreements as the fixed width records of the rental ledger, numbered
+ * from 0. The output can be read back record by record with
+ * AgreementRecordCodec.
+ *
+ * @author tadtab
+ *
+ */
+public class BinaryAgreementWriter extends ChannelAgreementWriter {
+
+    private long sequence;
+
+    /**
+     * Constructor with the channel the records are written to.
+     *
+     * @param channel
+     *            channel the output is written to, closed with the writer
+     */
+    public BinaryAgreementWriter(WritableByteChannel channel) {
+        this(channel, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructor with the channel the records are written to and the size of the
+     * buffer.
+     *
+     * @param channel
+     *            channel the output is written to, closed with the writer
+     * @param bufferSize
+     *            size of the buffer in bytes, at least one record
+     */
+    public BinaryAgreementWriter(WritableByteChannel channel, int bufferSize) {
+        super(channel, bufferSize);
+    }
+
+    @Override
+    protected void encode(RentalAgreement rentalAgreement) throws IOException {
+
+        ensureRemaining(AgreementRecordCodec.RECORD_SIZE);
+
+        int position = buffer.position();
+        AgreementRecordCodec.encode(buffer, position, sequence++, rentalAgreement);
+        buffer.position(position + AgreementRecordCodec.RECORD_SIZE);
+    }
+
+}
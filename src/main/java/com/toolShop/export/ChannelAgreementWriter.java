@@ -0,0 +1,261 @@
+package com.toolShop.export;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.time.LocalDate;
+
+import com.toolShop.RentalAgreement;
+import com.toolShop.util.EpochDays;
+
+/**
+ * Base of the writers which encode agreements straight into a single reusable
+ * byte buffer and hand it to a channel whenever it fills up. Numbers, dates and
+ * amounts are written digit by digit without creating strings, so exporting
+ * does not allocate per agreement.
+ *
+ * Not thread safe.
+ *
+ * @author tadtab
+ *
+ */
+public abstract class ChannelAgreementWriter implements AgreementWriter {
+
+    /**
+     * Size of the buffer if none is given, 64 KB.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+    private static final int MAX_LONG_LENGTH = 20;
+
+    private final WritableByteChannel channel;
+    protected final ByteBuffer buffer;
+
+    private long writtenCount;
+    private boolean started;
+    private boolean closed;
+
+    /**
+     * Constructor with the channel the output goes to.
+     *
+     * @param channel
+     *            channel the output is written to, closed with the writer
+     * @param bufferSize
+     *            size of the buffer in bytes
+     */
+    protected ChannelAgreementWriter(WritableByteChannel channel, int bufferSize) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    @Override
+    public final void write(RentalAgreement rentalAgreement) throws IOException {
+
+        checkOpen();
+        startIfNeeded();
+
+        encode(rentalAgreement);
+        writtenCount++;
+    }
+
+    @Override
+    public long getWrittenCount() {
+        return writtenCount;
+    }
+
+    /**
+     * Writes what is buffered to the channel.
+     */
+    @Override
+    public void flush() throws IOException {
+
+        checkOpen();
+        drain();
+    }
+
+    /**
+     * Completes the output, writes it to the channel and closes the channel.
+     */
+    @Override
+    public void close() throws IOException {
+
+        if (closed) {
+            return;
+        }
+
+        try {
+            startIfNeeded();
+            finish();
+            drain();
+        } finally {
+            closed = true;
+            channel.close();
+        }
+    }
+
+    /**
+     * Encodes an agreement into the buffer.
+     */
+    protected abstract void encode(RentalAgreement rentalAgreement) throws IOException;
+
+    /**
+     * Writes what comes before the first agreement, like a header.
+     */
+    protected void start() throws IOException {
+    }
+
+    /**
+     * Writes what comes after the last agreement.
+     */
+    protected void finish() throws IOException {
+    }
+
+    /**
+     * Makes room for the given number of bytes, writing the buffer to the
+     * channel if needed.
+     */
+    protected void ensureRemaining(int bytes) throws IOException {
+
+        if (buffer.remaining() < bytes) {
+
+            drain();
+
+            if (buffer.remaining() < bytes) {
+                throw new IllegalArgumentException(bytes + " bytes do not fit in the buffer");
+            }
+        }
+    }
+
+    /**
+     * Writes a byte.
+     */
+    protected void putByte(int value) throws IOException {
+
+        ensureRemaining(1);
+        buffer.put((byte) value);
+    }
+
+    /**
+     * Writes bytes which are already encoded.
+     */
+    protected void putBytes(byte[] bytes) throws IOException {
+
+        ensureRemaining(bytes.length);
+        buffer.put(bytes);
+    }
+
+    /**
+     * Writes a number in decimal digits.
+     */
+    protected void putLong(long value) throws IOException {
+
+        ensureRemaining(MAX_LONG_LENGTH);
+
+        if (value == Long.MIN_VALUE) {
+            for (char digit : Long.toString(value).toCharArray()) {
+                buffer.put((byte) digit);
+            }
+            return;
+        }
+
+        if (value < 0) {
+            buffer.put((byte) '-');
+            value = -value;
+        }
+
+        int length = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            length++;
+        }
+
+        int position = buffer.position();
+
+        for (int i = position + length - 1; i >= position; i--) {
+            buffer.put(i, (byte) ('0' + value % 10));
+            value /= 10;
+        }
+
+        buffer.position(position + length);
+    }
+
+    /**
+     * Writes an amount of cents as dollars with two decimal places, like 1.99.
+     */
+    protected void putCents(long cents) throws IOException {
+
+        long dollars = cents / 100;
+        int remainder = (int) Math.abs(cents % 100);
+
+        if (cents < 0 && dollars == 0) {
+            putByte('-');
+        }
+
+        putLong(dollars);
+        ensureRemaining(3);
+        buffer.put((byte) '.');
+        buffer.put((byte) ('0' + remainder / 10));
+        buffer.put((byte) ('0' + remainder % 10));
+    }
+
+    /**
+     * Writes an epoch day as a date in ISO format, like 2020-07-02.
+     */
+    protected void putDate(int epochDay) throws IOException {
+
+        int yearMonthDay = EpochDays.toYearMonthDay(epochDay);
+        int year = yearMonthDay / 10000;
+
+        if (yearMonthDay < 0 || year > 9999) {
+            for (char character : LocalDate.ofEpochDay(epochDay).toString().toCharArray()) {
+                putByte(character);
+            }
+            return;
+        }
+
+        ensureRemaining(10);
+        putDigits(year, 4);
+        buffer.put((byte) '-');
+        putDigits(yearMonthDay / 100 % 100, 2);
+        buffer.put((byte) '-');
+        putDigits(yearMonthDay % 100, 2);
+    }
+
+    private void putDigits(int value, int length) {
+
+        int position = buffer.position();
+
+        for (int i = position + length - 1; i >= position; i--) {
+            buffer.put(i, (byte) ('0' + value % 10));
+            value /= 10;
+        }
+
+        buffer.position(position + length);
+    }
+
+    private void startIfNeeded() throws IOException {
+
+        if (!started) {
+            started = true;
+            start();
+        }
+    }
+
+    private void drain() throws IOException {
+
+        buffer.flip();
+
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+
+        buffer.clear();
+    }
+
+    private void checkOpen() {
+
+        if (closed) {
+            throw new IllegalStateException("The writer is closed");
+        }
+    }
+
+}
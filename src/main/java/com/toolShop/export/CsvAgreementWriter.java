@@ -0,0 +1,109 @@
+package com.toolShop.export;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.toolShop.RentalAgreement;
+
+/**
+ * Writes agreements as comma separated values, one line per agreement after a
+ * header line. Dates are in ISO format and amounts in dollars with two decimal
+ * places, so the file can be loaded by other programs without parsing currency
+ * strings. Text containing a comma, quote or line break is quoted.
+ *
+ * @author tadtab
+ *
+ */
+public class CsvAgreementWriter extends ChannelAgreementWriter {
+
+    private static final byte[] HEADER = ("tool_code,tool_type,tool_brand,rental_days,check_out_date,due_date,"
+            + "daily_rental_charge,charge_days,pre_discount_charge,discount_percent,discount_amount,final_charge\n")
+                    .getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Tool codes, types and brands are few, so their encoded text is kept.
+     */
+    private final Map<String, byte[]> encodedText = new HashMap<String, byte[]>();
+
+    /**
+     * Constructor with the channel the lines are written to.
+     *
+     * @param channel
+     *            channel the output is written to, closed with the writer
+     */
+    public CsvAgreementWriter(WritableByteChannel channel) {
+        this(channel, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructor with the channel the lines are written to and the size of the
+     * buffer.
+     *
+     * @param channel
+     *            channel the output is written to, closed with the writer
+     * @param bufferSize
+     *            size of the buffer in bytes
+     */
+    public CsvAgreementWriter(WritableByteChannel channel, int bufferSize) {
+        super(channel, bufferSize);
+    }
+
+    @Override
+    protected void start() throws IOException {
+        putBytes(HEADER);
+    }
+
+    @Override
+    protected void encode(RentalAgreement rentalAgreement) throws IOException {
+
+        putText(rentalAgreement.getToolCode().name());
+        putByte(',');
+        putText(rentalAgreement.getToolType());
+        putByte(',');
+        putText(rentalAgreement.getToolBrand().getValue());
+        putByte(',');
+        putLong(rentalAgreement.getRentalDays());
+        putByte(',');
+        putDate(rentalAgreement.getCheckOutEpochDay());
+        putByte(',');
+        putDate(rentalAgreement.getDueEpochDay());
+        putByte(',');
+        putCents(rentalAgreement.getDailyRentalChargeCents());
+        putByte(',');
+        putLong(rentalAgreement.getChargeDays());
+        putByte(',');
+        putCents(rentalAgreement.getPreDiscountChargeCents());
+        putByte(',');
+        putLong(rentalAgreement.getDiscountPercentValue());
+        putByte(',');
+        putCents(rentalAgreement.getDiscountAmountCents());
+        putByte(',');
+        putCents(rentalAgreement.getFinalChargeCents());
+        putByte('\n');
+    }
+
+    private void putText(String text) throws IOException {
+
+        byte[] encoded = encodedText.get(text);
+
+        if (encoded == null) {
+            encoded = escape(text).getBytes(StandardCharsets.UTF_8);
+            encodedText.put(text, encoded);
+        }
+
+        putBytes(encoded);
+    }
+
+    private static String escape(String text) {
+
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+}
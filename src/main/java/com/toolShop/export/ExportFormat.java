@@ -0,0 +1,67 @@
+package com.toolShop.export;
+
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Formats agreements can be exported in, each with the writer producing it.
+ * 
+ * @author tadtab
+ *
+ */
+public enum ExportFormat {
+
+    /**
+     * Fixed width records of the rental ledger
+     */
+    BINARY("bin") {
+        @Override
+        public AgreementWriter createWriter(WritableByteChannel channel) {
+            return new BinaryAgreementWriter(channel);
+        }
+    },
+
+    /**
+     * Comma separated values with a header line
+     */
+    CSV("csv") {
+        @Override
+        public AgreementWriter createWriter(WritableByteChannel channel) {
+            return new CsvAgreementWriter(channel);
+        }
+    },
+
+    /**
+     * A JSON array of objects
+     */
+    JSON("json") {
+        @Override
+        public AgreementWriter createWriter(WritableByteChannel channel) {
+            return new JsonAgreementWriter(channel);
+        }
+    };
+
+    private final String fileExtension;
+
+    ExportFormat(String fileExtension) {
+        this.fileExtension = fileExtension;
+    }
+
+    /**
+     * Retrieves the usual extension of files in this format.
+     * 
+     * @return String
+     */
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    /**
+     * Creates a writer of this format.
+     * 
+     * @param channel
+     *            channel the output is written to, closed with the writer
+     * @return AgreementWriter
+     */
+    public abstract AgreementWriter createWriter(WritableByteChannel channel);
+
+}
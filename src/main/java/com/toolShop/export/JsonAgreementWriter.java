@@ -0,0 +1,183 @@
+package com.toolShop.export;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.toolShop.RentalAgreement;
+
+/**
+ * Writes agreements as a JSON array of objects, one object per line. The array
+ * is opened before the first agreement and closed when the writer is closed,
+ * so any number of agreements can be streamed out. Without the array the
+ * agreements are written as JSON Lines, one object on each line, which also
+ * suits writing a single agreement. Dates are ISO strings and amounts are
+ * numbers of dollars with two decimal places.
+ *
+ * @author tadtab
+ *
+ */
+public class JsonAgreementWriter extends ChannelAgreementWriter {
+
+    private static final byte[] TOOL_CODE = ascii("{\"toolCode\":");
+    private static final byte[] TOOL_TYPE = ascii(",\"toolType\":");
+    private static final byte[] TOOL_BRAND = ascii(",\"toolBrand\":");
+    private static final byte[] RENTAL_DAYS = ascii(",\"rentalDays\":");
+    private static final byte[] CHECK_OUT_DATE = ascii(",\"checkOutDate\":\"");
+    private static final byte[] DUE_DATE = ascii("\",\"dueDate\":\"");
+    private static final byte[] DAILY_RENTAL_CHARGE = ascii("\",\"dailyRentalCharge\":");
+    private static final byte[] CHARGE_DAYS = ascii(",\"chargeDays\":");
+    private static final byte[] PRE_DISCOUNT_CHARGE = ascii(",\"preDiscountCharge\":");
+    private static final byte[] DISCOUNT_PERCENT = ascii(",\"discountPercent\":");
+    private static final byte[] DISCOUNT_AMOUNT = ascii(",\"discountAmount\":");
+    private static final byte[] FINAL_CHARGE = ascii(",\"finalCharge\":");
+
+    /**
+     * Tool codes, types and brands are few, so their encoded text is kept.
+     */
+    private final Map<String, byte[]> encodedText = new HashMap<String, byte[]>();
+
+    private final boolean array;
+
+    /**
+     * Constructor with the channel the array is written to.
+     *
+     * @param channel
+     *            channel the output is written to, closed with the writer
+     */
+    public JsonAgreementWriter(WritableByteChannel channel) {
+        this(channel, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructor with the channel the array is written to and the size of the
+     * buffer.
+     *
+     * @param channel
+     *            channel the output is written to, closed with the writer
+     * @param bufferSize
+     *            size of the buffer in bytes
+     */
+    public JsonAgreementWriter(WritableByteChannel channel, int bufferSize) {
+        this(channel, bufferSize, true);
+    }
+
+    /**
+     * Constructor with the channel the agreements are written to, the size of the
+     * buffer and whether the agreements are enclosed in an array.
+     *
+     * @param channel
+     *            channel the output is written to, closed with the writer
+     * @param bufferSize
+     *            size of the buffer in bytes
+     * @param array
+     *            true for a JSON array, false for one object on each line
+     */
+    public JsonAgreementWriter(WritableByteChannel channel, int bufferSize, boolean array) {
+        super(channel, bufferSize);
+        this.array = array;
+    }
+
+    @Override
+    protected void start() throws IOException {
+
+        if (array) {
+            putByte('[');
+        }
+    }
+
+    @Override
+    protected void encode(RentalAgreement rentalAgreement) throws IOException {
+
+        if (array) {
+
+            if (getWrittenCount() > 0) {
+                putByte(',');
+            }
+
+            putByte('\n');
+        }
+
+        putBytes(TOOL_CODE);
+        putText(rentalAgreement.getToolCode().name());
+        putBytes(TOOL_TYPE);
+        putText(rentalAgreement.getToolType());
+        putBytes(TOOL_BRAND);
+        putText(rentalAgreement.getToolBrand().getValue());
+        putBytes(RENTAL_DAYS);
+        putLong(rentalAgreement.getRentalDays());
+        putBytes(CHECK_OUT_DATE);
+        putDate(rentalAgreement.getCheckOutEpochDay());
+        putBytes(DUE_DATE);
+        putDate(rentalAgreement.getDueEpochDay());
+        putBytes(DAILY_RENTAL_CHARGE);
+        putCents(rentalAgreement.getDailyRentalChargeCents());
+        putBytes(CHARGE_DAYS);
+        putLong(rentalAgreement.getChargeDays());
+        putBytes(PRE_DISCOUNT_CHARGE);
+        putCents(rentalAgreement.getPreDiscountChargeCents());
+        putBytes(DISCOUNT_PERCENT);
+        putLong(rentalAgreement.getDiscountPercentValue());
+        putBytes(DISCOUNT_AMOUNT);
+        putCents(rentalAgreement.getDiscountAmountCents());
+        putBytes(FINAL_CHARGE);
+        putCents(rentalAgreement.getFinalChargeCents());
+        putByte('}');
+
+        if (!array) {
+            putByte('\n');
+        }
+    }
+
+    @Override
+    protected void finish() throws IOException {
+
+        if (array) {
+            putByte('\n');
+            putByte(']');
+            putByte('\n');
+        }
+    }
+
+    private void putText(String text) throws IOException {
+
+        byte[] encoded = encodedText.get(text);
+
+        if (encoded == null) {
+            encoded = quote(text).getBytes(StandardCharsets.UTF_8);
+            encodedText.put(text, encoded);
+        }
+
+        putBytes(encoded);
+    }
+
+    /**
+     * Quotes a string and escapes the characters JSON does not allow in it.
+     */
+    static String quote(String text) {
+
+        StringBuilder quoted = new StringBuilder(text.length() + 2).append('"');
+
+        for (int i = 0; i < text.length(); i++) {
+
+            char character = text.charAt(i);
+
+            if (character == '"' || character == '\\') {
+                quoted.append('\\').append(character);
+            } else if (character < 0x20) {
+                quoted.append(String.format("\\u%04x", (int) character));
+            } else {
+                quoted.append(character);
+            }
+        }
+
+        return quoted.append('"').toString();
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.toolShop.ingest;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+import com.toolShop.RentalPricingService;
+import com.toolShop.ToolCatalog;
+import com.toolShop.export.AgreementWriter;
+import com.toolShop.export.ExportFormat;
+
+/**
+ * Command line entry point checking out an order file with the tools of the
+ * shop:
+ *
+ * <pre>
+ * java -cp tool-shop.jar com.toolShop.ingest.BulkCheckoutCommand orders.csv agreements.csv [csv|json|binary]
+ * </pre>
+ *
+ * The agreements are written in CSV unless another format is given, and the
+ * report is printed once the file is done.
+ *
+ * @author tadtab
+ *
+ */
+public class BulkCheckoutCommand {
+
+    public static void main(String[] args) throws IOException {
+
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Usage: BulkCheckoutCommand <orders file> <agreements file> [csv|json|binary]");
+            System.exit(2);
+        }
+
+        Path orders = Paths.get(args[0]);
+        Path agreements = Paths.get(args[1]);
+        ExportFormat format = args.length == 3 ? ExportFormat.valueOf(args[2].toUpperCase(Locale.ROOT))
+                : ExportFormat.CSV;
+
+        CheckoutFileIngester ingester = new CheckoutFileIngester(
+                new RentalPricingService(ToolCatalog.createDefault()));
+
+        IngestReport report;
+
+        try (AgreementWriter writer = format.createWriter(FileChannel.open(agreements, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE))) {
+            report = ingester.ingest(orders, writer);
+        }
+
+        System.out.print(report);
+    }
+
+}
@@ -0,0 +1,247 @@
+package com.toolShop.ingest;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import com.toolShop.RentalAgreement;
+import com.toolShop.RentalPricingService;
+import com.toolShop.RentalTool;
+import com.toolShop.exception.InvalidDiscountPercentException;
+import com.toolShop.exception.InvalidRentalDayCountException;
+import com.toolShop.export.AgreementWriter;
+
+/**
+ * Checks out every order of a file sent by a partner branch and streams the
+ * agreements to a writer. An order file has one order per line,
+ * TOOLCODE,days,discount,M/d/yy, and may contain blank lines and comment lines
+ * starting with #.
+ *
+ * The file is read in chunks into a single buffer and each line is parsed
+ * where it lies in the buffer, so memory use does not depend on the size of
+ * the file. Lines which can not be checked out are counted by reason and the
+ * first of them are kept for the report.
+ *
+ * Not thread safe, one ingestion at a time.
+ *
+ * @author tadtab
+ *
+ */
+public class CheckoutFileIngester {
+
+    /**
+     * Size of the read buffer if none is given, 64 KB. A line longer than the
+     * buffer is rejected.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Number of rejected lines kept for the report.
+     */
+    public static final int MAX_SAMPLED_REJECTS = 100;
+
+    private final RentalPricingService rentalPricingService;
+    private final int bufferSize;
+    private final CheckoutLineParser parser = new CheckoutLineParser();
+
+    private AgreementWriter writer;
+    private long lineNumber;
+    private long recordCount;
+    private Map<RejectReason, Long> rejectedCounts;
+    private List<RejectedRow> sampledRejects;
+
+    /**
+     * Constructor with the service pricing the orders.
+     *
+     * @param rentalPricingService
+     *            prices the orders
+     */
+    public CheckoutFileIngester(RentalPricingService rentalPricingService) {
+        this(rentalPricingService, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructor with the service pricing the orders and the size of the read
+     * buffer.
+     *
+     * @param rentalPricingService
+     *            prices the orders
+     * @param bufferSize
+     *            size of the read buffer in bytes, longer than any line
+     */
+    public CheckoutFileIngester(RentalPricingService rentalPricingService, int bufferSize) {
+        this.rentalPricingService = rentalPricingService;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Checks out the orders of a file.
+     *
+     * @param orders
+     *            file of orders
+     * @param writer
+     *            receives the agreements of the accepted orders, in file order;
+     *            flushed but not closed
+     * @return IngestReport
+     * @throws IOException
+     *             thrown if the file can not be read or the agreements written
+     */
+    public IngestReport ingest(Path orders, AgreementWriter writer) throws IOException {
+
+        try (FileChannel channel = FileChannel.open(orders, StandardOpenOption.READ)) {
+            return ingest(channel, writer);
+        }
+    }
+
+    /**
+     * Checks out the orders read from a channel.
+     *
+     * @param orders
+     *            channel the orders are read from, not closed
+     * @param writer
+     *            receives the agreements of the accepted orders, in file order;
+     *            flushed but not closed
+     * @return IngestReport
+     * @throws IOException
+     *             thrown if the orders can not be read or the agreements written
+     */
+    public IngestReport ingest(ReadableByteChannel orders, AgreementWriter writer) throws IOException {
+
+        long started = System.nanoTime();
+
+        this.writer = writer;
+        this.lineNumber = 0;
+        this.recordCount = 0;
+        this.rejectedCounts = new EnumMap<RejectReason, Long>(RejectReason.class);
+        this.sampledRejects = new ArrayList<RejectedRow>();
+
+        ByteBuffer buffer = ByteBuffer.allocate(bufferSize);
+        byte[] bytes = buffer.array();
+
+        int scanFrom = 0;
+        boolean skippingLongLine = false;
+
+        while (true) {
+
+            boolean endOfInput = orders.read(buffer) < 0;
+            int filled = buffer.position();
+            int lineStart = 0;
+
+            for (int i = scanFrom; i < filled; i++) {
+
+                if (bytes[i] == '\n') {
+
+                    if (skippingLongLine) {
+                        skippingLongLine = false;
+                        lineNumber++;
+                        recordCount++;
+                        reject(RejectReason.MALFORMED, "line longer than " + bufferSize + " bytes");
+                    } else {
+                        handleLine(bytes, lineStart, i);
+                    }
+
+                    lineStart = i + 1;
+                }
+            }
+
+            if (endOfInput) {
+
+                if (skippingLongLine) {
+                    lineNumber++;
+                    recordCount++;
+                    reject(RejectReason.MALFORMED, "line longer than " + bufferSize + " bytes");
+                } else if (lineStart < filled) {
+                    handleLine(bytes, lineStart, filled);
+                }
+
+                break;
+            }
+
+            if (lineStart == 0 && filled == bytes.length) {
+
+                // the line does not fit, drop what was read of it
+                skippingLongLine = true;
+                buffer.clear();
+                scanFrom = 0;
+                continue;
+            }
+
+            int remaining = filled - lineStart;
+            System.arraycopy(bytes, lineStart, bytes, 0, remaining);
+            buffer.position(remaining);
+            scanFrom = remaining;
+        }
+
+        writer.flush();
+        this.writer = null;
+
+        return new IngestReport(recordCount, rejectedCounts, System.nanoTime() - started, sampledRejects);
+    }
+
+    private void handleLine(byte[] bytes, int start, int end) throws IOException {
+
+        lineNumber++;
+
+        if (end > start && bytes[end - 1] == '\r') {
+            end--;
+        }
+
+        int first = start;
+        while (first < end && (bytes[first] == ' ' || bytes[first] == '\t')) {
+            first++;
+        }
+
+        if (first == end || bytes[first] == '#') {
+            return;
+        }
+
+        recordCount++;
+
+        RejectReason reason = parser.parse(bytes, start, end);
+        RentalTool rentalTool = null;
+
+        if (reason == null) {
+            rentalTool = rentalPricingService.getToolCatalog().getTools().get(parser.getToolCode());
+
+            if (rentalTool == null) {
+                reason = RejectReason.UNKNOWN_TOOL;
+            }
+        }
+
+        if (reason == null) {
+            try {
+                RentalAgreement rentalAgreement = rentalPricingService.checkOut(rentalTool,
+                        parser.getRentalDayCount(), parser.getDiscountPercent(), parser.getCheckOutDay());
+                writer.write(rentalAgreement);
+                return;
+            } catch (InvalidDiscountPercentException e) {
+                reason = RejectReason.INVALID_DISCOUNT_PERCENT;
+            } catch (InvalidRentalDayCountException e) {
+                reason = RejectReason.INVALID_RENTAL_DAY_COUNT;
+            }
+        }
+
+        reject(reason, sampledRejects.size() < MAX_SAMPLED_REJECTS
+                ? new String(bytes, start, end - start, StandardCharsets.UTF_8)
+                : null);
+    }
+
+    private void reject(RejectReason reason, String line) {
+
+        Long count = rejectedCounts.get(reason);
+        rejectedCounts.put(reason, count == null ? 1 : count + 1);
+
+        if (sampledRejects.size() < MAX_SAMPLED_REJECTS) {
+            sampledRejects.add(new RejectedRow(lineNumber, reason, line));
+        }
+    }
+
+}
@@ -0,0 +1,211 @@
+package com.toolShop.ingest;
+
+import java.nio.charset.StandardCharsets;
+
+import com.toolShop.ToolCode;
+import com.toolShop.util.CheckOutDateParser;
+
+/**
+ * Parses a line of an order file, TOOLCODE,days,discount,M/d/yy, straight from
+ * the bytes read from the file. The values of the last parsed line are kept in
+ * the parser, so no strings are created for the fields.
+ *
+ * Dates are read by CheckOutDateParser, like the M/d/yy checkout dates entered
+ * at the counter.
+ *
+ * Not thread safe.
+ *
+ * @author tadtab
+ *
+ */
+final class CheckoutLineParser {
+
+    private static final ToolCode[] TOOL_CODES = ToolCode.values();
+    private static final byte[][] TOOL_CODE_BYTES = new byte[TOOL_CODES.length][];
+
+    static {
+        for (int i = 0; i < TOOL_CODES.length; i++) {
+            TOOL_CODE_BYTES[i] = TOOL_CODES[i].name().getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private static final int MAX_INT_DIGITS = 9;
+
+    private ToolCode toolCode;
+    private int rentalDayCount;
+    private int discountPercent;
+    private int checkOutDay;
+
+    private byte[] bytes;
+    private int position;
+    private int end;
+    private int lastInt;
+
+    /**
+     * Parses the line between start, inclusive, and end, exclusive.
+     *
+     * @return null if the line was parsed, otherwise why it was rejected
+     */
+    RejectReason parse(byte[] bytes, int start, int end) {
+
+        this.bytes = bytes;
+        this.position = start;
+        this.end = end;
+
+        int toolCodeStart = skipSpaces();
+        int toolCodeEnd = toolCodeStart;
+
+        while (toolCodeEnd < end && bytes[toolCodeEnd] != ',' && bytes[toolCodeEnd] != ' ') {
+            toolCodeEnd++;
+        }
+
+        toolCode = toolCodeOf(toolCodeStart, toolCodeEnd);
+        position = toolCodeEnd;
+
+        if (!nextField()) {
+            return RejectReason.MALFORMED;
+        }
+
+        skipSpaces();
+        if (!readInt()) {
+            return RejectReason.MALFORMED;
+        }
+        rentalDayCount = lastInt;
+
+        if (!nextField()) {
+            return RejectReason.MALFORMED;
+        }
+
+        skipSpaces();
+        if (!readInt()) {
+            return RejectReason.MALFORMED;
+        }
+        discountPercent = lastInt;
+
+        if (!nextField()) {
+            return RejectReason.MALFORMED;
+        }
+
+        skipSpaces();
+        if (!readDate()) {
+            return RejectReason.MALFORMED;
+        }
+
+        skipSpaces();
+        if (position != end) {
+            return RejectReason.MALFORMED;
+        }
+
+        return toolCode == null ? RejectReason.UNKNOWN_TOOL : null;
+    }
+
+    ToolCode getToolCode() {
+        return toolCode;
+    }
+
+    int getRentalDayCount() {
+        return rentalDayCount;
+    }
+
+    int getDiscountPercent() {
+        return discountPercent;
+    }
+
+    int getCheckOutDay() {
+        return checkOutDay;
+    }
+
+    private ToolCode toolCodeOf(int start, int end) {
+
+        for (int i = 0; i < TOOL_CODE_BYTES.length; i++) {
+
+            byte[] name = TOOL_CODE_BYTES[i];
+
+            if (name.length == end - start) {
+
+                int matched = 0;
+                while (matched < name.length && name[matched] == bytes[start + matched]) {
+                    matched++;
+                }
+
+                if (matched == name.length) {
+                    return TOOL_CODES[i];
+                }
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Moves past the comma ending a field and the spaces around it.
+     */
+    private boolean nextField() {
+
+        skipSpaces();
+
+        if (position == end || bytes[position] != ',') {
+            return false;
+        }
+
+        position++;
+
+        return true;
+    }
+
+    private int skipSpaces() {
+
+        while (position < end && (bytes[position] == ' ' || bytes[position] == '\t')) {
+            position++;
+        }
+
+        return position;
+    }
+
+    /**
+     * Reads a whole number with an optional minus sign into lastInt.
+     */
+    private boolean readInt() {
+
+        boolean negative = position < end && bytes[position] == '-';
+        if (negative) {
+            position++;
+        }
+
+        int digitsStart = position;
+        int value = 0;
+
+        while (position < end && bytes[position] >= '0' && bytes[position] <= '9') {
+            value = value * 10 + (bytes[position] - '0');
+            position++;
+        }
+
+        int digits = position - digitsStart;
+
+        if (digits == 0 || digits > MAX_INT_DIGITS) {
+            return false;
+        }
+
+        lastInt = negative ? -value : value;
+
+        return true;
+    }
+
+    /**
+     * Reads a date formatted as M/d/yy, up to the end of the line or the next
+     * space, into checkOutDay.
+     */
+    private boolean readDate() {
+
+        int dateStart = position;
+
+        while (position < end && bytes[position] != ' ' && bytes[position] != '\t') {
+            position++;
+        }
+
+        checkOutDay = CheckOutDateParser.parseEpochDay(bytes, dateStart, position);
+
+        return checkOutDay != CheckOutDateParser.INVALID;
+    }
+
+}
@@ -0,0 +1,142 @@
+package com.toolShop.ingest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of ingesting an order file: how many lines were checked out or
+ * rejected and why, how long it took, and the first few rejected lines.
+ *
+ * @author tadtab
+ *
+ */
+public final class IngestReport {
+
+    private static final int PRINTED_REJECTS = 10;
+
+    private final long recordCount;
+    private final Map<RejectReason, Long> rejectedCounts;
+    private final long elapsedNanos;
+    private final List<RejectedRow> sampledRejects;
+
+    /**
+     * Constructor with the counts of the ingestion.
+     *
+     * @param recordCount
+     *            number of order lines read, comments and blank lines excluded
+     * @param rejectedCounts
+     *            number of rejected lines by reason
+     * @param elapsedNanos
+     *            time the ingestion took
+     * @param sampledRejects
+     *            the first rejected lines
+     */
+    public IngestReport(long recordCount, Map<RejectReason, Long> rejectedCounts, long elapsedNanos,
+            List<RejectedRow> sampledRejects) {
+        this.recordCount = recordCount;
+        this.rejectedCounts = Collections.unmodifiableMap(new EnumMap<RejectReason, Long>(rejectedCounts));
+        this.elapsedNanos = elapsedNanos;
+        this.sampledRejects = Collections.unmodifiableList(new ArrayList<RejectedRow>(sampledRejects));
+    }
+
+    /**
+     * Retrieves the number of order lines read.
+     *
+     * @return long
+     */
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Retrieves the number of lines checked out.
+     *
+     * @return long
+     */
+    public long getAcceptedCount() {
+        return recordCount - getRejectedCount();
+    }
+
+    /**
+     * Retrieves the number of rejected lines.
+     *
+     * @return long
+     */
+    public long getRejectedCount() {
+
+        long rejected = 0;
+
+        for (Long count : rejectedCounts.values()) {
+            rejected += count;
+        }
+
+        return rejected;
+    }
+
+    /**
+     * Retrieves the number of lines rejected for a reason.
+     *
+     * @param reason
+     *            why the lines were rejected
+     * @return long
+     */
+    public long getRejectedCount(RejectReason reason) {
+
+        Long count = rejectedCounts.get(reason);
+
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * Retrieves the time the ingestion took.
+     *
+     * @return nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Retrieves the number of order lines read per second.
+     *
+     * @return double
+     */
+    public double getRecordsPerSecond() {
+        return elapsedNanos == 0 ? 0 : recordCount * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Retrieves the first rejected lines, in file order.
+     *
+     * @return List of RejectedRow
+     */
+    public List<RejectedRow> getSampledRejects() {
+        return sampledRejects;
+    }
+
+    @Override
+    public String toString() {
+
+        StringBuilder report = new StringBuilder();
+
+        report.append(String.format("%,d records in %.3f s, %,.0f records/s%n", recordCount, elapsedNanos / 1e9,
+                getRecordsPerSecond()));
+        report.append(String.format("%,d accepted, %,d rejected%n", getAcceptedCount(), getRejectedCount()));
+
+        for (RejectReason reason : RejectReason.values()) {
+            if (getRejectedCount(reason) > 0) {
+                report.append(String.format("  %s: %,d%n", reason, getRejectedCount(reason)));
+            }
+        }
+
+        for (RejectedRow rejectedRow : sampledRejects.subList(0, Math.min(PRINTED_REJECTS, sampledRejects.size()))) {
+            report.append("  ").append(rejectedRow).append(System.lineSeparator());
+        }
+
+        return report.toString();
+    }
+
+}
@@ -0,0 +1,31 @@
+package com.toolShop.ingest;
+
+/**
+ * Reasons a line of an order file is not checked out.
+ * 
+ * @author tadtab
+ *
+ */
+public enum RejectReason {
+
+    /**
+     * The line does not have the form TOOLCODE,days,discount,M/d/yy
+     */
+    MALFORMED,
+
+    /**
+     * The tool code is not one of the tools of the shop
+     */
+    UNKNOWN_TOOL,
+
+    /**
+     * The discount percent is not between 0 and 100
+     */
+    INVALID_DISCOUNT_PERCENT,
+
+    /**
+     * The rental day count is less than 1
+     */
+    INVALID_RENTAL_DAY_COUNT
+
+}
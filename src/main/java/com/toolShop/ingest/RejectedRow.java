@@ -0,0 +1,57 @@
+package com.toolShop.ingest;
+
+/**
+ * A line of an order file which was not checked out.
+ * 
+ * @author tadtab
+ *
+ */
+public final class RejectedRow {
+
+    private final long lineNumber;
+    private final RejectReason reason;
+    private final String line;
+
+    /**
+     * Constructor with the line and why it was rejected.
+     * 
+     * @param lineNumber
+     *            number of the line in the file, starting from 1
+     * @param reason
+     *            why the line was rejected
+     * @param line
+     *            text of the line
+     */
+    public RejectedRow(long lineNumber, RejectReason reason, String line) {
+        this.lineNumber = lineNumber;
+        this.reason = reason;
+        this.line = line;
+    }
+
+    /**
+     * Number of the line in the file, starting from 1
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Why the line was rejected
+     */
+    public RejectReason getReason() {
+        return reason;
+    }
+
+    /**
+     * Text of the line
+     */
+    public String getLine() {
+        return line;
+    }
+
+    @Override
+    public String toString() {
+        return "line " + lineNumber + ": " + reason + " " + line;
+    }
+
+}
@@ -0,0 +1,43 @@
+package com.toolShop.inventory;
+
+import com.toolShop.RentalAgreement;
+
+/**
+ * A rental agreement together with the unit reserved for it.
+ * 
+ * @author tadtab
+ *
+ */
+public final class Booking {
+
+    private final RentalAgreement rentalAgreement;
+    private final Reservation reservation;
+
+    /**
+     * Constructor with the agreement and its reservation.
+     * 
+     * @param rentalAgreement
+     *            agreement produced at checkout
+     * @param reservation
+     *            unit reserved from the checkout date until the due date
+     */
+    public Booking(RentalAgreement rentalAgreement, Reservation reservation) {
+        this.rentalAgreement = rentalAgreement;
+        this.reservation = reservation;
+    }
+
+    /**
+     * Retrieves the agreement produced at checkout
+     */
+    public RentalAgreement getRentalAgreement() {
+        return rentalAgreement;
+    }
+
+    /**
+     * Retrieves the unit reserved from the checkout date until the due date
+     */
+    public Reservation getReservation() {
+        return reservation;
+    }
+
+}
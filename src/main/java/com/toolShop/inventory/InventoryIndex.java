@@ -0,0 +1,385 @@
+package com.toolShop.inventory;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.toolShop.ToolCode;
+
+/**
+ * Units of every tool and their reservations. Each unit keeps its reservations
+ * in a tree ordered by start day, so checking if a unit is free for a period
+ * and finding the first day it becomes free take logarithmic time no matter
+ * how many reservations it had.
+ *
+ * Periods start on the checkout day and end on the due date, which is not part
+ * of the reservation: a unit returned on a day can be rented again that day.
+ *
+ * The index is safe to use from many threads. Locks are striped by tool and
+ * unit: checking a unit and reserving it happen under the lock of that unit
+ * only, so a unit is never rented twice for the same day while bookings of
+ * different tools, or of different units of the same tool, never wait for each
+ * other. Queries over several units look at one unit at a time and are not a
+ * snapshot of the whole tool.
+ *
+ * @author tadtab
+ *
+ */
+public class InventoryIndex {
+
+    private static final int SEQUENCE_BITS = 48;
+
+    private final Map<ToolCode, ToolUnits> units = new EnumMap<ToolCode, ToolUnits>(ToolCode.class);
+
+    /**
+     * Creates an index without any units.
+     */
+    public InventoryIndex() {
+
+        // every tool gets its entry up front so the map is never modified afterwards
+        for (ToolCode toolCode : ToolCode.values()) {
+            units.put(toolCode, new ToolUnits(toolCode));
+        }
+    }
+
+    /**
+     * Sets the number of units of a tool. Units can be added but not removed.
+     *
+     * @param toolCode
+     *            code of the tool
+     * @param unitCount
+     *            number of units the shop owns
+     */
+    public void setUnitCount(ToolCode toolCode, int unitCount) {
+        units.get(toolCode).grow(unitCount);
+    }
+
+    /**
+     * Retrieves the number of units of a tool.
+     *
+     * @param toolCode
+     *            code of the tool
+     * @return int
+     */
+    public int getUnitCount(ToolCode toolCode) {
+        return units.get(toolCode).schedules.length;
+    }
+
+    /**
+     * Reserves the first unit of the tool which is free for the whole period.
+     * Units locked by another booking are skipped on a first pass and only waited
+     * for if no other unit is free.
+     *
+     * @param toolCode
+     *            code of the tool
+     * @param startDay
+     *            epoch day of checkout, inclusive
+     * @param endDay
+     *            epoch day of return, exclusive
+     * @return Reservation or null if no unit is free
+     */
+    public Reservation reserve(ToolCode toolCode, int startDay, int endDay) {
+
+        checkPeriod(startDay, endDay);
+
+        ToolUnits toolUnits = units.get(toolCode);
+        UnitSchedule[] schedules = toolUnits.schedules;
+        boolean skipped = false;
+
+        for (int unit = 0; unit < schedules.length; unit++) {
+
+            UnitSchedule schedule = schedules[unit];
+
+            if (!schedule.lock.tryLock()) {
+                skipped = true;
+                continue;
+            }
+
+            try {
+                if (schedule.isFree(startDay, endDay)) {
+                    return toolUnits.add(schedule, unit, startDay, endDay);
+                }
+            } finally {
+                schedule.lock.unlock();
+            }
+        }
+
+        if (!skipped) {
+            return null;
+        }
+
+        for (int unit = 0; unit < schedules.length; unit++) {
+
+            UnitSchedule schedule = schedules[unit];
+            schedule.lock.lock();
+
+            try {
+                if (schedule.isFree(startDay, endDay)) {
+                    return toolUnits.add(schedule, unit, startDay, endDay);
+                }
+            } finally {
+                schedule.lock.unlock();
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Reserves the first unit of the tool which is free from the checkout date
+     * until the due date.
+     *
+     * @param toolCode
+     *            code of the tool
+     * @param checkOutDate
+     *            the date the tool is checked out
+     * @param dueDate
+     *            the date the tool is returned
+     * @return Reservation or null if no unit is free
+     */
+    public Reservation reserve(ToolCode toolCode, LocalDate checkOutDate, LocalDate dueDate) {
+        return reserve(toolCode, (int) checkOutDate.toEpochDay(), (int) dueDate.toEpochDay());
+    }
+
+    /**
+     * Releases a reservation, for example when a rental is cancelled.
+     *
+     * @param reservation
+     *            reservation to be released
+     * @return true if the reservation was found
+     */
+    public boolean release(Reservation reservation) {
+
+        UnitSchedule[] schedules = units.get(reservation.getToolCode()).schedules;
+
+        if (reservation.getUnit() >= schedules.length) {
+            return false;
+        }
+
+        UnitSchedule schedule = schedules[reservation.getUnit()];
+        schedule.lock.lock();
+
+        try {
+            return schedule.remove(reservation);
+        } finally {
+            schedule.lock.unlock();
+        }
+    }
+
+    /**
+     * Checks if a unit of the tool is free for the whole period.
+     *
+     * @param toolCode
+     *            code of the tool
+     * @param startDay
+     *            epoch day of checkout, inclusive
+     * @param endDay
+     *            epoch day of return, exclusive
+     * @return boolean
+     */
+    public boolean isAvailable(ToolCode toolCode, int startDay, int endDay) {
+
+        checkPeriod(startDay, endDay);
+
+        for (UnitSchedule schedule : units.get(toolCode).schedules) {
+
+            schedule.lock.lock();
+
+            try {
+                if (schedule.isFree(startDay, endDay)) {
+                    return true;
+                }
+            } finally {
+                schedule.lock.unlock();
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Checks if a unit of the tool is free from the checkout date until the due
+     * date.
+     *
+     * @param toolCode
+     *            code of the tool
+     * @param checkOutDate
+     *            the date the tool is checked out
+     * @param dueDate
+     *            the date the tool is returned
+     * @return boolean
+     */
+    public boolean isAvailable(ToolCode toolCode, LocalDate checkOutDate, LocalDate dueDate) {
+        return isAvailable(toolCode, (int) checkOutDate.toEpochDay(), (int) dueDate.toEpochDay());
+    }
+
+    /**
+     * Counts the units of the tool which are free for the whole period.
+     *
+     * @param toolCode
+     *            code of the tool
+     * @param startDay
+     *            epoch day of checkout, inclusive
+     * @param endDay
+     *            epoch day of return, exclusive
+     * @return int
+     */
+    public int countAvailableUnits(ToolCode toolCode, int startDay, int endDay) {
+
+        checkPeriod(startDay, endDay);
+
+        int available = 0;
+
+        for (UnitSchedule schedule : units.get(toolCode).schedules) {
+
+            schedule.lock.lock();
+
+            try {
+                if (schedule.isFree(startDay, endDay)) {
+                    available++;
+                }
+            } finally {
+                schedule.lock.unlock();
+            }
+        }
+
+        return available;
+    }
+
+    /**
+     * Finds the first day on or after the given day from which a unit of the
+     * tool is free for the given number of days.
+     *
+     * @param toolCode
+     *            code of the tool
+     * @param fromDay
+     *            earliest epoch day of checkout
+     * @param rentalDays
+     *            number of days the tool will be rented
+     * @return epoch day
+     */
+    public int firstAvailableDay(ToolCode toolCode, int fromDay, int rentalDays) {
+
+        UnitSchedule[] schedules = units.get(toolCode).schedules;
+
+        if (schedules.length == 0) {
+            throw new IllegalArgumentException("There are no units of " + toolCode);
+        }
+
+        checkPeriod(fromDay, fromDay + rentalDays);
+
+        int firstDay = Integer.MAX_VALUE;
+
+        for (UnitSchedule schedule : schedules) {
+
+            schedule.lock.lock();
+
+            try {
+                firstDay = Math.min(firstDay, schedule.firstFreeDay(fromDay, rentalDays));
+            } finally {
+                schedule.lock.unlock();
+            }
+        }
+
+        return firstDay;
+    }
+
+    /**
+     * Finds the first date on or after the given date on which a unit of the tool
+     * can be checked out for the given number of days.
+     *
+     * @param toolCode
+     *            code of the tool
+     * @param fromDate
+     *            earliest checkout date
+     * @param rentalDays
+     *            number of days the tool will be rented
+     * @return LocalDate
+     */
+    public LocalDate firstAvailableDate(ToolCode toolCode, LocalDate fromDate, int rentalDays) {
+        return LocalDate.ofEpochDay(firstAvailableDay(toolCode, (int) fromDate.toEpochDay(), rentalDays));
+    }
+
+    /**
+     * Counts the reservations of all the units of the tool.
+     *
+     * @param toolCode
+     *            code of the tool
+     * @return int
+     */
+    public int getReservationCount(ToolCode toolCode) {
+
+        int count = 0;
+
+        for (UnitSchedule schedule : units.get(toolCode).schedules) {
+
+            schedule.lock.lock();
+
+            try {
+                count += schedule.size();
+            } finally {
+                schedule.lock.unlock();
+            }
+        }
+
+        return count;
+    }
+
+    private static void checkPeriod(int startDay, int endDay) {
+
+        if (endDay <= startDay) {
+            throw new IllegalArgumentException("Reservation must end after it starts");
+        }
+    }
+
+    /**
+     * Units of one tool. The array is replaced, never modified, when units are
+     * added, and reservation ids are drawn per tool so bookings of different
+     * tools share no state at all.
+     */
+    private static final class ToolUnits {
+
+        private final ToolCode toolCode;
+        private final long idPrefix;
+        private final AtomicLong nextSequence = new AtomicLong(1);
+
+        private volatile UnitSchedule[] schedules = new UnitSchedule[0];
+
+        ToolUnits(ToolCode toolCode) {
+            this.toolCode = toolCode;
+            this.idPrefix = (long) toolCode.ordinal() << SEQUENCE_BITS;
+        }
+
+        synchronized void grow(int unitCount) {
+
+            UnitSchedule[] current = schedules;
+
+            if (unitCount < current.length) {
+                throw new IllegalArgumentException("Units of " + toolCode + " can not be removed");
+            }
+
+            UnitSchedule[] grown = Arrays.copyOf(current, unitCount);
+
+            for (int unit = current.length; unit < unitCount; unit++) {
+                grown[unit] = new UnitSchedule();
+            }
+
+            schedules = grown;
+        }
+
+        /**
+         * Adds a reservation to a unit whose lock is held by the caller.
+         */
+        Reservation add(UnitSchedule schedule, int unit, int startDay, int endDay) {
+
+            Reservation reservation = new Reservation(idPrefix | nextSequence.getAndIncrement(), toolCode, unit,
+                    startDay, endDay);
+            schedule.add(reservation);
+
+            return reservation;
+        }
+    }
+
+}
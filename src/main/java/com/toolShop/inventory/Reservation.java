@@ -0,0 +1,113 @@
+package com.toolShop.inventory;
+
+import java.time.LocalDate;
+
+import com.toolShop.ToolCode;
+
+/**
+ * A unit of a tool reserved for a period of days. The period starts on the
+ * checkout day and ends on the due date, when the unit is returned and can be
+ * rented again, so the end day itself is not part of the reservation.
+ * 
+ * @author tadtab
+ *
+ */
+public final class Reservation {
+
+    private final long id;
+    private final ToolCode toolCode;
+    private final int unit;
+    private final int startDay;
+    private final int endDay;
+
+    /**
+     * Constructor with the reserved unit and period.
+     * 
+     * @param id
+     *            identifies the reservation
+     * @param toolCode
+     *            code of the reserved tool
+     * @param unit
+     *            index of the reserved unit of the tool
+     * @param startDay
+     *            epoch day of checkout, inclusive
+     * @param endDay
+     *            epoch day of return, exclusive
+     */
+    public Reservation(long id, ToolCode toolCode, int unit, int startDay, int endDay) {
+        this.id = id;
+        this.toolCode = toolCode;
+        this.unit = unit;
+        this.startDay = startDay;
+        this.endDay = endDay;
+    }
+
+    /**
+     * Identifies the reservation
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Code of the reserved tool
+     */
+    public ToolCode getToolCode() {
+        return toolCode;
+    }
+
+    /**
+     * Index of the reserved unit of the tool
+     */
+    public int getUnit() {
+        return unit;
+    }
+
+    /**
+     * Epoch day of checkout, inclusive
+     */
+    public int getStartDay() {
+        return startDay;
+    }
+
+    /**
+     * Epoch day of return, exclusive
+     */
+    public int getEndDay() {
+        return endDay;
+    }
+
+    /**
+     * Checkout date
+     */
+    public LocalDate getStartDate() {
+        return LocalDate.ofEpochDay(startDay);
+    }
+
+    /**
+     * Date the unit is returned
+     */
+    public LocalDate getEndDate() {
+        return LocalDate.ofEpochDay(endDay);
+    }
+
+    /**
+     * Checks if this reservation shares a day with the given period.
+     * 
+     * @param otherStartDay
+     *            first epoch day, inclusive
+     * @param otherEndDay
+     *            last epoch day, exclusive
+     * @return boolean
+     */
+    public boolean overlaps(int otherStartDay, int otherEndDay) {
+        return startDay < otherEndDay && otherStartDay < endDay;
+    }
+
+    @Override
+    public String toString() {
+        return "Reservation[" + id + ", " + toolCode + " #" + unit + ", " + getStartDate() + " - " + getEndDate()
+                + "]";
+    }
+
+}
@@ -0,0 +1,132 @@
+package com.toolShop.inventory;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Reservations of a single unit ordered by start day. Reservations of a unit
+ * never overlap, so the reservation starting last before the end of a period
+ * is the only one which can conflict with it and every check is a logarithmic
+ * tree lookup.
+ *
+ * Back to back reservations are also merged into busy blocks, so finding the
+ * first free day jumps over a fully booked season in a single lookup.
+ *
+ * Not thread safe, every access holds the lock of the unit.
+ *
+ * @author tadtab
+ *
+ */
+class UnitSchedule {
+
+    final ReentrantLock lock = new ReentrantLock();
+
+    private final TreeMap<Integer, Reservation> reservations = new TreeMap<Integer, Reservation>();
+
+    /**
+     * Start day to end day of the merged busy periods.
+     */
+    private final TreeMap<Integer, Integer> busyBlocks = new TreeMap<Integer, Integer>();
+
+    /**
+     * Checks if no reservation shares a day with the period.
+     */
+    boolean isFree(int startDay, int endDay) {
+
+        Map.Entry<Integer, Integer> block = busyBlocks.lowerEntry(endDay);
+
+        return block == null || block.getValue() <= startDay;
+    }
+
+    /**
+     * Finds the first day on or after the given day from which the unit is free
+     * for the given number of days.
+     */
+    int firstFreeDay(int fromDay, int days) {
+
+        int candidate = fromDay;
+
+        while (true) {
+
+            Map.Entry<Integer, Integer> block = busyBlocks.floorEntry(candidate);
+
+            if (block != null && block.getValue() > candidate) {
+                candidate = block.getValue();
+            }
+
+            Map.Entry<Integer, Integer> next = busyBlocks.higherEntry(candidate);
+
+            if (next == null || next.getKey() >= candidate + days) {
+                return candidate;
+            }
+
+            candidate = next.getValue();
+        }
+    }
+
+    void add(Reservation reservation) {
+
+        reservations.put(reservation.getStartDay(), reservation);
+
+        int startDay = reservation.getStartDay();
+        int endDay = reservation.getEndDay();
+
+        Map.Entry<Integer, Integer> previous = busyBlocks.floorEntry(startDay);
+
+        if (previous != null && previous.getValue() >= startDay) {
+            startDay = previous.getKey();
+            endDay = Math.max(endDay, previous.getValue());
+            busyBlocks.remove(previous.getKey());
+        }
+
+        Map.Entry<Integer, Integer> next = busyBlocks.ceilingEntry(startDay);
+
+        while (next != null && next.getKey() <= endDay) {
+            endDay = Math.max(endDay, next.getValue());
+            busyBlocks.remove(next.getKey());
+            next = busyBlocks.ceilingEntry(startDay);
+        }
+
+        busyBlocks.put(startDay, endDay);
+    }
+
+    boolean remove(Reservation reservation) {
+
+        if (!reservations.remove(reservation.getStartDay(), reservation)) {
+            return false;
+        }
+
+        // split the block the reservation belonged to into what is left of it
+        Map.Entry<Integer, Integer> block = busyBlocks.floorEntry(reservation.getStartDay());
+        busyBlocks.remove(block.getKey());
+
+        int startDay = 0;
+        int endDay = Integer.MIN_VALUE;
+
+        for (Reservation remaining : reservations.subMap(block.getKey(), true, block.getValue(), false).values()) {
+
+            if (remaining.getStartDay() > endDay) {
+
+                if (endDay != Integer.MIN_VALUE) {
+                    busyBlocks.put(startDay, endDay);
+                }
+
+                startDay = remaining.getStartDay();
+            }
+
+            endDay = Math.max(endDay, remaining.getEndDay());
+        }
+
+        if (endDay != Integer.MIN_VALUE) {
+            busyBlocks.put(startDay, endDay);
+        }
+
+        return true;
+    }
+
+    int size() {
+        return reservations.size();
+    }
+
+}
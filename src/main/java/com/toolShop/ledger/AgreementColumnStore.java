@@ -0,0 +1,586 @@
+package com.toolShop.ledger;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import com.toolShop.Brand;
+import com.toolShop.RentalAgreement;
+import com.toolShop.ToolCode;
+
+/**
+ * Rental agreements packed into columns of off-heap memory, for keeping years
+ * of agreements for reporting without holding them as objects. Agreements are
+ * appended as rows and read back one value at a time, by row or by scanning
+ * with a Cursor, without materializing anything.
+ *
+ * Rows are stored in chunks of CHUNK_ROWS, each a direct buffer holding one
+ * column after the other, so a column of a chunk is read sequentially and a
+ * full chunk never moves. A row takes ROW_SIZE bytes:
+ *
+ * <pre>
+ * byte  tool code ordinal
+ * byte  brand ordinal
+ * byte  tool type, index into the tool types of the store
+ * byte  discount percent
+ * int   rental days
+ * int   checkout epoch day
+ * int   due epoch day
+ * int   charge days
+ * long  daily rental charge in cents
+ * long  pre-discount charge in cents
+ * long  discount amount in cents
+ * long  final charge in cents
+ * </pre>
+ *
+ * A store holds at most 256 tool types. Appending is done by a single thread;
+ * readers may read every row appended before they read the size. The memory
+ * is released when the store is garbage collected.
+ *
+ * @author tadtab
+ *
+ */
+public final class AgreementColumnStore {
+
+    /**
+     * Bytes taken by a row.
+     */
+    public static final int ROW_SIZE = 52;
+
+    /**
+     * Number of rows of a chunk.
+     */
+    public static final int CHUNK_ROWS = 1 << 16;
+
+    private static final int CHUNK_SHIFT = 16;
+    private static final int ROW_MASK = CHUNK_ROWS - 1;
+
+    private static final int MAX_TOOL_TYPES = 256;
+
+    private static final int TOOL_CODE = 0;
+    private static final int BRAND = TOOL_CODE + CHUNK_ROWS;
+    private static final int TOOL_TYPE = BRAND + CHUNK_ROWS;
+    private static final int DISCOUNT_PERCENT = TOOL_TYPE + CHUNK_ROWS;
+    private static final int RENTAL_DAYS = DISCOUNT_PERCENT + CHUNK_ROWS;
+    private static final int CHECK_OUT_DAY = RENTAL_DAYS + 4 * CHUNK_ROWS;
+    private static final int DUE_DAY = CHECK_OUT_DAY + 4 * CHUNK_ROWS;
+    private static final int CHARGE_DAYS = DUE_DAY + 4 * CHUNK_ROWS;
+    private static final int DAILY_CHARGE = CHARGE_DAYS + 4 * CHUNK_ROWS;
+    private static final int PRE_DISCOUNT_CHARGE = DAILY_CHARGE + 8 * CHUNK_ROWS;
+    private static final int DISCOUNT_AMOUNT = PRE_DISCOUNT_CHARGE + 8 * CHUNK_ROWS;
+    private static final int FINAL_CHARGE = DISCOUNT_AMOUNT + 8 * CHUNK_ROWS;
+
+    private static final int CHUNK_SIZE = ROW_SIZE * CHUNK_ROWS;
+
+    private static final ToolCode[] TOOL_CODES = ToolCode.values();
+    private static final Brand[] BRANDS = Brand.values();
+
+    private final Map<String, Integer> toolTypeIndexes = new HashMap<String, Integer>();
+
+    private volatile String[] toolTypes = new String[0];
+    private volatile ByteBuffer[] chunks = new ByteBuffer[0];
+    private volatile long size;
+
+    /**
+     * Appends an agreement as the next row.
+     *
+     * @param rentalAgreement
+     *            agreement to be stored
+     * @return row of the agreement
+     */
+    public long append(RentalAgreement rentalAgreement) {
+
+        long row = size;
+        int index = (int) (row & ROW_MASK);
+        int toolType = toolTypeIndexOf(rentalAgreement.getToolType());
+
+        ByteBuffer chunk;
+        if (index == 0) {
+            chunk = ByteBuffer.allocateDirect(CHUNK_SIZE).order(ByteOrder.nativeOrder());
+            ByteBuffer[] grown = Arrays.copyOf(chunks, chunks.length + 1);
+            grown[grown.length - 1] = chunk;
+            chunks = grown;
+        } else {
+            chunk = chunks[(int) (row >>> CHUNK_SHIFT)];
+        }
+
+        chunk.put(TOOL_CODE + index, (byte) rentalAgreement.getToolCode().ordinal());
+        chunk.put(BRAND + index, (byte) rentalAgreement.getToolBrand().ordinal());
+        chunk.put(TOOL_TYPE + index, (byte) toolType);
+        chunk.put(DISCOUNT_PERCENT + index, (byte) rentalAgreement.getDiscountPercentValue());
+        chunk.putInt(RENTAL_DAYS + 4 * index, rentalAgreement.getRentalDays());
+        chunk.putInt(CHECK_OUT_DAY + 4 * index, rentalAgreement.getCheckOutEpochDay());
+        chunk.putInt(DUE_DAY + 4 * index, rentalAgreement.getDueEpochDay());
+        chunk.putInt(CHARGE_DAYS + 4 * index, rentalAgreement.getChargeDays());
+        chunk.putLong(DAILY_CHARGE + 8 * index, rentalAgreement.getDailyRentalChargeCents());
+        chunk.putLong(PRE_DISCOUNT_CHARGE + 8 * index, rentalAgreement.getPreDiscountChargeCents());
+        chunk.putLong(DISCOUNT_AMOUNT + 8 * index, rentalAgreement.getDiscountAmountCents());
+        chunk.putLong(FINAL_CHARGE + 8 * index, rentalAgreement.getFinalChargeCents());
+
+        size = row + 1;
+
+        return row;
+    }
+
+    /**
+     * Appends agreements as the next rows, in order.
+     *
+     * @param rentalAgreements
+     *            agreements to be stored
+     */
+    public void appendAll(Iterable<RentalAgreement> rentalAgreements) {
+
+        for (RentalAgreement rentalAgreement : rentalAgreements) {
+            append(rentalAgreement);
+        }
+    }
+
+    /**
+     * Retrieves the number of rows.
+     *
+     * @return long
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Retrieves the number of bytes of off-heap memory taken by the chunks.
+     *
+     * @return long
+     */
+    public long getMemoryUsed() {
+        return (long) chunks.length * CHUNK_SIZE;
+    }
+
+    /**
+     * Retrieves the tool types stored so far, indexed by their index in the
+     * tool type column.
+     *
+     * @return tool types, a copy
+     */
+    public String[] getToolTypes() {
+        return toolTypes.clone();
+    }
+
+    /**
+     * Retrieves the tool code of a row.
+     */
+    public ToolCode getToolCode(long row) {
+        return TOOL_CODES[chunkOf(row).get(TOOL_CODE + indexOf(row))];
+    }
+
+    /**
+     * Retrieves the tool brand of a row.
+     */
+    public Brand getToolBrand(long row) {
+        return BRANDS[chunkOf(row).get(BRAND + indexOf(row))];
+    }
+
+    /**
+     * Retrieves the tool type of a row.
+     */
+    public String getToolType(long row) {
+        return toolTypes[chunkOf(row).get(TOOL_TYPE + indexOf(row)) & 0xFF];
+    }
+
+    /**
+     * Retrieves the discount percent of a row.
+     */
+    public int getDiscountPercent(long row) {
+        return chunkOf(row).get(DISCOUNT_PERCENT + indexOf(row));
+    }
+
+    /**
+     * Retrieves the number of rental days of a row.
+     */
+    public int getRentalDays(long row) {
+        return chunkOf(row).getInt(RENTAL_DAYS + 4 * indexOf(row));
+    }
+
+    /**
+     * Retrieves the checkout epoch day of a row.
+     */
+    public int getCheckOutEpochDay(long row) {
+        return chunkOf(row).getInt(CHECK_OUT_DAY + 4 * indexOf(row));
+    }
+
+    /**
+     * Retrieves the due epoch day of a row.
+     */
+    public int getDueEpochDay(long row) {
+        return chunkOf(row).getInt(DUE_DAY + 4 * indexOf(row));
+    }
+
+    /**
+     * Retrieves the number of charge days of a row.
+     */
+    public int getChargeDays(long row) {
+        return chunkOf(row).getInt(CHARGE_DAYS + 4 * indexOf(row));
+    }
+
+    /**
+     * Retrieves the daily rental charge in cents of a row.
+     */
+    public long getDailyRentalChargeCents(long row) {
+        return chunkOf(row).getLong(DAILY_CHARGE + 8 * indexOf(row));
+    }
+
+    /**
+     * Retrieves the pre-discount charge in cents of a row.
+     */
+    public long getPreDiscountChargeCents(long row) {
+        return chunkOf(row).getLong(PRE_DISCOUNT_CHARGE + 8 * indexOf(row));
+    }
+
+    /**
+     * Retrieves the discount amount in cents of a row.
+     */
+    public long getDiscountAmountCents(long row) {
+        return chunkOf(row).getLong(DISCOUNT_AMOUNT + 8 * indexOf(row));
+    }
+
+    /**
+     * Retrieves the final charge in cents of a row.
+     */
+    public long getFinalChargeCents(long row) {
+        return chunkOf(row).getLong(FINAL_CHARGE + 8 * indexOf(row));
+    }
+
+    /**
+     * Rebuilds the agreement of a row. Meant for showing single agreements,
+     * reports should read the columns.
+     *
+     * @param row
+     *            row of the agreement
+     * @return RentalAgreement
+     */
+    public RentalAgreement get(long row) {
+        return new RentalAgreement.Builder()
+                .toolCode(getToolCode(row))
+                .toolType(getToolType(row))
+                .toolBrand(getToolBrand(row))
+                .rentalDays(getRentalDays(row))
+                .checkOutEpochDay(getCheckOutEpochDay(row))
+                .dueEpochDay(getDueEpochDay(row))
+                .dailyRentalChargeCents(getDailyRentalChargeCents(row))
+                .chargeDays(getChargeDays(row))
+                .preDiscountChargeCents(getPreDiscountChargeCents(row))
+                .discountPercent(getDiscountPercent(row))
+                .discountAmountCents(getDiscountAmountCents(row))
+                .finalChargeCents(getFinalChargeCents(row))
+                .build();
+    }
+
+    /**
+     * Creates a cursor over the rows stored so far, placed before the first
+     * row.
+     *
+     * @return Cursor
+     */
+    public Cursor cursor() {
+        return new Cursor(0, size);
+    }
+
+    /**
+     * Creates a cursor over a range of rows, placed before the first row of the
+     * range.
+     *
+     * @param fromRow
+     *            first row, inclusive
+     * @param toRow
+     *            last row, exclusive
+     * @return Cursor
+     */
+    public Cursor cursor(long fromRow, long toRow) {
+
+        if (fromRow < 0 || fromRow > toRow || toRow > size) {
+            throw new IndexOutOfBoundsException("Rows " + fromRow + " to " + toRow + " of " + size);
+        }
+
+        return new Cursor(fromRow, toRow);
+    }
+
+    private ByteBuffer chunkOf(long row) {
+
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + size);
+        }
+
+        return chunks[(int) (row >>> CHUNK_SHIFT)];
+    }
+
+    private static int indexOf(long row) {
+        return (int) (row & ROW_MASK);
+    }
+
+    /**
+     * Retrieves the number of chunks holding the given number of rows.
+     */
+    static int chunkCount(long rows) {
+        return (int) ((rows + ROW_MASK) >>> CHUNK_SHIFT);
+    }
+
+    /**
+     * Retrieves the number of rows of a chunk, when the store holds the given
+     * number of rows.
+     */
+    static int rowsOfChunk(int chunk, long rows) {
+        return (int) Math.min(CHUNK_ROWS, rows - ((long) chunk << CHUNK_SHIFT));
+    }
+
+    /**
+     * Copies the first rows of the tool code column of a chunk into an array.
+     */
+    void copyToolCodes(int chunk, byte[] target, int rows) {
+        columnOf(chunk, TOOL_CODE).get(target, 0, rows);
+    }
+
+    /**
+     * Copies the first rows of the brand column of a chunk into an array.
+     */
+    void copyBrands(int chunk, byte[] target, int rows) {
+        columnOf(chunk, BRAND).get(target, 0, rows);
+    }
+
+    /**
+     * Copies the first rows of the tool type column of a chunk into an array.
+     */
+    void copyToolTypes(int chunk, byte[] target, int rows) {
+        columnOf(chunk, TOOL_TYPE).get(target, 0, rows);
+    }
+
+    /**
+     * Copies the first rows of the checkout epoch day column of a chunk into an
+     * array.
+     */
+    void copyCheckOutEpochDays(int chunk, int[] target, int rows) {
+        columnOf(chunk, CHECK_OUT_DAY).asIntBuffer().get(target, 0, rows);
+    }
+
+    /**
+     * Copies the first rows of the charge days column of a chunk into an array.
+     */
+    void copyChargeDays(int chunk, int[] target, int rows) {
+        columnOf(chunk, CHARGE_DAYS).asIntBuffer().get(target, 0, rows);
+    }
+
+    /**
+     * Copies the first rows of the discount amount column of a chunk into an
+     * array.
+     */
+    void copyDiscountAmountCents(int chunk, long[] target, int rows) {
+        columnOf(chunk, DISCOUNT_AMOUNT).asLongBuffer().get(target, 0, rows);
+    }
+
+    /**
+     * Copies the first rows of the final charge column of a chunk into an array.
+     */
+    void copyFinalChargeCents(int chunk, long[] target, int rows) {
+        columnOf(chunk, FINAL_CHARGE).asLongBuffer().get(target, 0, rows);
+    }
+
+    /**
+     * A view of a chunk starting at a column, in the byte order of the chunk.
+     */
+    private ByteBuffer columnOf(int chunk, int column) {
+
+        ByteBuffer view = chunks[chunk].duplicate().order(ByteOrder.nativeOrder());
+        view.position(column);
+
+        return view.slice().order(ByteOrder.nativeOrder());
+    }
+
+    private int toolTypeIndexOf(String toolType) {
+
+        Integer index = toolTypeIndexes.get(toolType);
+
+        if (index == null) {
+
+            if (toolTypes.length == MAX_TOOL_TYPES) {
+                throw new IllegalStateException("More than " + MAX_TOOL_TYPES + " tool types");
+            }
+
+            index = toolTypes.length;
+            String[] grown = Arrays.copyOf(toolTypes, index + 1);
+            grown[index] = toolType;
+            toolTypes = grown;
+            toolTypeIndexes.put(toolType, index);
+        }
+
+        return index;
+    }
+
+    /**
+     * Reads rows one after the other. The getters read the values of the row the
+     * cursor is on; nothing is allocated while scanning.
+     *
+     * Not thread safe, each thread scans with its own cursor.
+     */
+    public final class Cursor {
+
+        private final long toRow;
+        private final ByteBuffer[] scannedChunks;
+        private final String[] scannedToolTypes;
+
+        private long row;
+        private ByteBuffer chunk;
+        private int index;
+
+        private Cursor(long fromRow, long toRow) {
+            this.toRow = toRow;
+            this.scannedChunks = chunks;
+            this.scannedToolTypes = toolTypes;
+            this.row = fromRow - 1;
+            this.index = indexOf(row);
+        }
+
+        /**
+         * Moves to the next row.
+         *
+         * @return false if there are no more rows
+         */
+        public boolean next() {
+
+            if (row + 1 >= toRow) {
+                return false;
+            }
+
+            row++;
+            index = indexOf(row);
+
+            if (index == 0 || chunk == null) {
+                chunk = scannedChunks[(int) (row >>> CHUNK_SHIFT)];
+            }
+
+            return true;
+        }
+
+        /**
+         * Retrieves the row the cursor is on.
+         *
+         * @return long
+         */
+        public long getRow() {
+            return row;
+        }
+
+        private ByteBuffer chunk() {
+
+            if (chunk == null) {
+                throw new NoSuchElementException("Cursor is before the first row");
+            }
+
+            return chunk;
+        }
+
+        /**
+         * Retrieves the ordinal of the tool code of the current row.
+         */
+        public int getToolCodeOrdinal() {
+            return chunk().get(TOOL_CODE + index);
+        }
+
+        /**
+         * Retrieves the tool code of the current row.
+         */
+        public ToolCode getToolCode() {
+            return TOOL_CODES[getToolCodeOrdinal()];
+        }
+
+        /**
+         * Retrieves the ordinal of the tool brand of the current row.
+         */
+        public int getToolBrandOrdinal() {
+            return chunk().get(BRAND + index);
+        }
+
+        /**
+         * Retrieves the tool brand of the current row.
+         */
+        public Brand getToolBrand() {
+            return BRANDS[getToolBrandOrdinal()];
+        }
+
+        /**
+         * Retrieves the index of the tool type of the current row.
+         */
+        public int getToolTypeIndex() {
+            return chunk().get(TOOL_TYPE + index) & 0xFF;
+        }
+
+        /**
+         * Retrieves the tool type of the current row.
+         */
+        public String getToolType() {
+            return scannedToolTypes[getToolTypeIndex()];
+        }
+
+        /**
+         * Retrieves the discount percent of the current row.
+         */
+        public int getDiscountPercent() {
+            return chunk().get(DISCOUNT_PERCENT + index);
+        }
+
+        /**
+         * Retrieves the number of rental days of the current row.
+         */
+        public int getRentalDays() {
+            return chunk().getInt(RENTAL_DAYS + 4 * index);
+        }
+
+        /**
+         * Retrieves the checkout epoch day of the current row.
+         */
+        public int getCheckOutEpochDay() {
+            return chunk().getInt(CHECK_OUT_DAY + 4 * index);
+        }
+
+        /**
+         * Retrieves the due epoch day of the current row.
+         */
+        public int getDueEpochDay() {
+            return chunk().getInt(DUE_DAY + 4 * index);
+        }
+
+        /**
+         * Retrieves the number of charge days of the current row.
+         */
+        public int getChargeDays() {
+            return chunk().getInt(CHARGE_DAYS + 4 * index);
+        }
+
+        /**
+         * Retrieves the daily rental charge in cents of the current row.
+         */
+        public long getDailyRentalChargeCents() {
+            return chunk().getLong(DAILY_CHARGE + 8 * index);
+        }
+
+        /**
+         * Retrieves the pre-discount charge in cents of the current row.
+         */
+        public long getPreDiscountChargeCents() {
+            return chunk().getLong(PRE_DISCOUNT_CHARGE + 8 * index);
+        }
+
+        /**
+         * Retrieves the discount amount in cents of the current row.
+         */
+        public long getDiscountAmountCents() {
+            return chunk().getLong(DISCOUNT_AMOUNT + 8 * index);
+        }
+
+        /**
+         * Retrieves the final charge in cents of the current row.
+         */
+        public long getFinalChargeCents() {
+            return chunk().getLong(FINAL_CHARGE + 8 * index);
+        }
+    }
+
+}
@@ -0,0 +1,233 @@
+package com.toolShop.ledger;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.CRC32;
+
+import com.toolShop.Brand;
+import com.toolShop.RentalAgreement;
+import com.toolShop.ToolCode;
+
+/**
+ * Fixed width binary format of a rental agreement. Every record takes
+ * RECORD_SIZE bytes, so the n-th record of a file is found by multiplication
+ * and a file of records can be read without parsing.
+ *
+ * <pre>
+ *  0  int   marker
+ *  4  int   CRC32 of bytes 8 to 96
+ *  8  long  sequence number
+ * 16  byte  tool code ordinal
+ * 17  byte  brand ordinal
+ * 18  byte  discount percent
+ * 19  byte  length of the tool type
+ * 20  24    tool type, UTF-8, zero padded
+ * 44  int   rental days
+ * 48  int   checkout epoch day
+ * 52  int   due epoch day
+ * 56  int   charge days
+ * 60  long  daily rental charge in cents
+ * 68  long  pre-discount charge in cents
+ * 76  long  discount amount in cents
+ * 84  long  final charge in cents
+ * 92  int   reserved, zero
+ * </pre>
+ *
+ * Tool codes and brands are stored by ordinal, so new constants must be added
+ * at the end of their enums. The marker and checksum let a reader tell a
+ * complete record from zeroed space or a record torn by a crash.
+ *
+ * @author tadtab
+ *
+ */
+public final class AgreementRecordCodec {
+
+    /**
+     * Size of every record in bytes.
+     */
+    public static final int RECORD_SIZE = 96;
+
+    /**
+     * Longest tool type name in bytes.
+     */
+    public static final int MAX_TOOL_TYPE_LENGTH = 24;
+
+    private static final int MARKER = 0x52414731;
+    private static final int CHECKSUM_OFFSET = 4;
+    private static final int SEQUENCE_OFFSET = 8;
+    private static final int TOOL_TYPE_OFFSET = 20;
+
+    private static final ToolCode[] TOOL_CODES = ToolCode.values();
+    private static final Brand[] BRANDS = Brand.values();
+
+    private static final int MAX_CACHED_TOOL_TYPES = 256;
+
+    /**
+     * Tool types are few, so their encoded names are kept instead of encoding
+     * them for every record.
+     */
+    private static final ConcurrentMap<String, byte[]> TOOL_TYPE_BYTES = new ConcurrentHashMap<String, byte[]>();
+
+    private static final ThreadLocal<Checksum> CHECKSUM = new ThreadLocal<Checksum>() {
+
+        @Override
+        protected Checksum initialValue() {
+            return new Checksum();
+        }
+    };
+
+    private AgreementRecordCodec() {
+    }
+
+    /**
+     * Writes an agreement as a record at the given offset of the buffer. The
+     * position of the buffer is not changed.
+     *
+     * @param buffer
+     *            buffer the record is written to
+     * @param offset
+     *            index of the first byte of the record
+     * @param sequence
+     *            sequence number of the record
+     * @param rentalAgreement
+     *            agreement to be written
+     */
+    public static void encode(ByteBuffer buffer, int offset, long sequence, RentalAgreement rentalAgreement) {
+
+        byte[] toolType = toolTypeBytes(rentalAgreement.getToolType());
+
+        buffer.putLong(offset + SEQUENCE_OFFSET, sequence);
+        buffer.put(offset + 16, (byte) rentalAgreement.getToolCode().ordinal());
+        buffer.put(offset + 17, (byte) rentalAgreement.getToolBrand().ordinal());
+        buffer.put(offset + 18, (byte) rentalAgreement.getDiscountPercentValue());
+        buffer.put(offset + 19, (byte) toolType.length);
+
+        for (int i = 0; i < MAX_TOOL_TYPE_LENGTH; i++) {
+            buffer.put(offset + TOOL_TYPE_OFFSET + i, i < toolType.length ? toolType[i] : 0);
+        }
+
+        buffer.putInt(offset + 44, rentalAgreement.getRentalDays());
+        buffer.putInt(offset + 48, rentalAgreement.getCheckOutEpochDay());
+        buffer.putInt(offset + 52, rentalAgreement.getDueEpochDay());
+        buffer.putInt(offset + 56, rentalAgreement.getChargeDays());
+        buffer.putLong(offset + 60, rentalAgreement.getDailyRentalChargeCents());
+        buffer.putLong(offset + 68, rentalAgreement.getPreDiscountChargeCents());
+        buffer.putLong(offset + 76, rentalAgreement.getDiscountAmountCents());
+        buffer.putLong(offset + 84, rentalAgreement.getFinalChargeCents());
+        buffer.putInt(offset + 92, 0);
+
+        buffer.putInt(offset + CHECKSUM_OFFSET, checksum(buffer, offset));
+        buffer.putInt(offset, MARKER);
+    }
+
+    /**
+     * Reads the agreement of the record at the given offset of the buffer.
+     *
+     * @param buffer
+     *            buffer the record is read from
+     * @param offset
+     *            index of the first byte of the record
+     * @return RentalAgreement
+     */
+    public static RentalAgreement decode(ByteBuffer buffer, int offset) {
+
+        byte[] toolType = new byte[buffer.get(offset + 19)];
+
+        for (int i = 0; i < toolType.length; i++) {
+            toolType[i] = buffer.get(offset + TOOL_TYPE_OFFSET + i);
+        }
+
+        return new RentalAgreement.Builder()
+                .toolCode(TOOL_CODES[buffer.get(offset + 16)])
+                .toolType(new String(toolType, StandardCharsets.UTF_8))
+                .toolBrand(BRANDS[buffer.get(offset + 17)])
+                .rentalDays(buffer.getInt(offset + 44))
+                .checkOutEpochDay(buffer.getInt(offset + 48))
+                .dueEpochDay(buffer.getInt(offset + 52))
+                .dailyRentalChargeCents(buffer.getLong(offset + 60))
+                .chargeDays(buffer.getInt(offset + 56))
+                .preDiscountChargeCents(buffer.getLong(offset + 68))
+                .discountPercent(buffer.get(offset + 18))
+                .discountAmountCents(buffer.getLong(offset + 76))
+                .finalChargeCents(buffer.getLong(offset + 84))
+                .build();
+    }
+
+    /**
+     * Reads the sequence number of the record at the given offset.
+     *
+     * @param buffer
+     *            buffer the record is read from
+     * @param offset
+     *            index of the first byte of the record
+     * @return long
+     */
+    public static long sequenceOf(ByteBuffer buffer, int offset) {
+        return buffer.getLong(offset + SEQUENCE_OFFSET);
+    }
+
+    /**
+     * Checks that a complete record with the expected sequence number is stored
+     * at the given offset.
+     *
+     * @param buffer
+     *            buffer the record is read from
+     * @param offset
+     *            index of the first byte of the record
+     * @param expectedSequence
+     *            sequence number the record must have
+     * @return boolean
+     */
+    public static boolean isValid(ByteBuffer buffer, int offset, long expectedSequence) {
+        return buffer.getInt(offset) == MARKER && sequenceOf(buffer, offset) == expectedSequence
+                && buffer.getInt(offset + CHECKSUM_OFFSET) == checksum(buffer, offset);
+    }
+
+    private static byte[] toolTypeBytes(String toolType) {
+
+        byte[] bytes = TOOL_TYPE_BYTES.get(toolType);
+
+        if (bytes == null) {
+
+            bytes = toolType.getBytes(StandardCharsets.UTF_8);
+
+            if (bytes.length > MAX_TOOL_TYPE_LENGTH) {
+                throw new IllegalArgumentException("Tool type " + toolType + " is too long");
+            }
+
+            if (TOOL_TYPE_BYTES.size() < MAX_CACHED_TOOL_TYPES) {
+                TOOL_TYPE_BYTES.putIfAbsent(toolType, bytes);
+            }
+        }
+
+        return bytes;
+    }
+
+    private static int checksum(ByteBuffer buffer, int offset) {
+
+        Checksum checksum = CHECKSUM.get();
+        byte[] body = checksum.body;
+
+        for (int i = 0; i < body.length; i++) {
+            body[i] = buffer.get(offset + SEQUENCE_OFFSET + i);
+        }
+
+        checksum.crc.reset();
+        checksum.crc.update(body, 0, body.length);
+
+        return (int) checksum.crc.getValue();
+    }
+
+    /**
+     * CRC32 and a copy of the record body kept per thread, so checking records
+     * does not allocate.
+     */
+    private static final class Checksum {
+
+        final CRC32 crc = new CRC32();
+        final byte[] body = new byte[RECORD_SIZE - SEQUENCE_OFFSET];
+    }
+
+}
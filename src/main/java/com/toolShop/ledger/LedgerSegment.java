@@ -0,0 +1,144 @@
+package com.toolShop.ledger;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import com.toolShop.RentalAgreement;
+
+/**
+ * A file of fixed width records mapped into memory. The file is created at its
+ * full size, so appending a record is a copy into the mapped buffer and the
+ * operating system writes the pages back to disk.
+ *
+ * Not thread safe, guarded by the RentalLedger.
+ *
+ * @author tadtab
+ *
+ */
+class LedgerSegment {
+
+    private static final String PREFIX = "ledger-";
+    private static final String SUFFIX = ".seg";
+
+    private final Path path;
+    private final long firstSequence;
+    private final int capacity;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+
+    private int count;
+
+    private LedgerSegment(Path path, long firstSequence, int capacity) throws IOException {
+        this.path = path;
+        this.firstSequence = firstSequence;
+        this.capacity = capacity;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                (long) capacity * AgreementRecordCodec.RECORD_SIZE);
+    }
+
+    /**
+     * Creates an empty segment whose first record will have the given sequence
+     * number.
+     */
+    static LedgerSegment create(Path directory, long firstSequence, int capacity) throws IOException {
+        return new LedgerSegment(directory.resolve(fileNameOf(firstSequence)), firstSequence, capacity);
+    }
+
+    /**
+     * Opens an existing segment and counts the records which were completely
+     * written before the ledger was closed or the process died, up to the first
+     * missing, torn or out of sequence record. The file is not changed.
+     */
+    static LedgerSegment recover(Path path) throws IOException {
+
+        long size = Files.size(path);
+        int capacity = (int) (size / AgreementRecordCodec.RECORD_SIZE);
+
+        LedgerSegment segment = new LedgerSegment(path, firstSequenceOf(path), capacity);
+
+        while (segment.count < capacity && AgreementRecordCodec.isValid(segment.buffer,
+                segment.offsetOf(segment.count), segment.firstSequence + segment.count)) {
+            segment.count++;
+        }
+
+        return segment;
+    }
+
+    /**
+     * Clears the markers of the slots after the counted records, so a stale or
+     * torn record is never read back once new records are appended.
+     */
+    void dropTail() {
+
+        for (int slot = count; slot < capacity; slot++) {
+            if (buffer.getInt(offsetOf(slot)) != 0) {
+                buffer.putInt(offsetOf(slot), 0);
+            }
+        }
+    }
+
+    static boolean isSegmentFile(Path path) {
+
+        String name = path.getFileName().toString();
+
+        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+    }
+
+    static long firstSequenceOf(Path path) {
+
+        String name = path.getFileName().toString();
+
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    private static String fileNameOf(long firstSequence) {
+        return String.format("%s%020d%s", PREFIX, firstSequence, SUFFIX);
+    }
+
+    void append(RentalAgreement rentalAgreement) {
+        AgreementRecordCodec.encode(buffer, offsetOf(count), firstSequence + count, rentalAgreement);
+        count++;
+    }
+
+    RentalAgreement read(int slot) {
+        return AgreementRecordCodec.decode(buffer, offsetOf(slot));
+    }
+
+    boolean isFull() {
+        return count == capacity;
+    }
+
+    /**
+     * Writes the mapped pages back to disk.
+     */
+    void force() {
+        buffer.force();
+    }
+
+    void close() throws IOException {
+        channel.close();
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    long getFirstSequence() {
+        return firstSequence;
+    }
+
+    int getCount() {
+        return count;
+    }
+
+    private int offsetOf(int slot) {
+        return slot * AgreementRecordCodec.RECORD_SIZE;
+    }
+
+}
@@ -0,0 +1,285 @@
+package com.toolShop.ledger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+import com.toolShop.RentalAgreement;
+
+/**
+ * Durable, append only record of every rental agreement. Agreements are
+ * written as fixed width records into memory mapped segment files in a
+ * directory, and each gets the next sequence number starting from 0.
+ *
+ * Appending copies the record into mapped memory, which survives the death of
+ * the process. Calling force writes the records back to disk so they also
+ * survive a crash of the machine; a segment is always forced when it is full,
+ * before the next one is started.
+ *
+ * On opening, the segments are read back in order. Only the last segment, the
+ * one being appended to, may end in a missing or torn record; it is cut off
+ * there, so the ledger always holds an unbroken run of complete records. A
+ * full segment with a corrupt record, or a gap in the sequence numbers between
+ * the segment files, fails the opening and no file is changed.
+ *
+ * @author tadtab
+ *
+ */
+public class RentalLedger implements Closeable {
+
+    /**
+     * Number of records of a segment, about 6 MB.
+     */
+    public static final int DEFAULT_RECORDS_PER_SEGMENT = 1 << 16;
+
+    private final Path directory;
+    private final int recordsPerSegment;
+    private final List<LedgerSegment> segments = new ArrayList<LedgerSegment>();
+
+    private LedgerSegment current;
+    private long nextSequence;
+    private boolean closed;
+
+    /**
+     * Opens the ledger in a directory with segments of the default size.
+     *
+     * @param directory
+     *            directory of the segment files, created if missing
+     * @throws IOException
+     *             thrown if the segment files can not be read or created, or if a
+     *             full segment is corrupt or segments are missing
+     */
+    public RentalLedger(Path directory) throws IOException {
+        this(directory, DEFAULT_RECORDS_PER_SEGMENT);
+    }
+
+    /**
+     * Opens the ledger in a directory and recovers the records of its segment
+     * files.
+     *
+     * @param directory
+     *            directory of the segment files, created if missing
+     * @param recordsPerSegment
+     *            number of records of a new segment file
+     * @throws IOException
+     *             thrown if the segment files can not be read or created, or if a
+     *             full segment is corrupt or segments are missing
+     */
+    public RentalLedger(Path directory, int recordsPerSegment) throws IOException {
+
+        if (recordsPerSegment < 1) {
+            throw new IllegalArgumentException("A segment must hold at least one record");
+        }
+
+        this.directory = directory;
+        this.recordsPerSegment = recordsPerSegment;
+
+        Files.createDirectories(directory);
+        recover();
+    }
+
+    private void recover() throws IOException {
+
+        List<Path> paths = new ArrayList<Path>();
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path path : stream) {
+                if (LedgerSegment.isSegmentFile(path)) {
+                    paths.add(path);
+                }
+            }
+        }
+
+        Collections.sort(paths, new Comparator<Path>() {
+
+            @Override
+            public int compare(Path first, Path second) {
+                return Long.compare(LedgerSegment.firstSequenceOf(first), LedgerSegment.firstSequenceOf(second));
+            }
+        });
+
+        try {
+            for (int i = 0; i < paths.size(); i++) {
+
+                Path path = paths.get(i);
+
+                if (LedgerSegment.firstSequenceOf(path) != nextSequence) {
+                    throw new IOException("Segment " + path + " does not start with record " + nextSequence);
+                }
+
+                LedgerSegment segment = LedgerSegment.recover(path);
+                segments.add(segment);
+
+                if (i < paths.size() - 1 && !segment.isFull()) {
+                    throw new IOException("Record " + (nextSequence + segment.getCount()) + " of the full segment "
+                            + path + " is corrupt");
+                }
+
+                nextSequence += segment.getCount();
+            }
+
+        } catch (IOException e) {
+
+            for (LedgerSegment segment : segments) {
+                segment.close();
+            }
+
+            throw e;
+        }
+
+        if (segments.isEmpty() || segments.get(segments.size() - 1).isFull()) {
+            startSegment();
+        } else {
+            current = segments.get(segments.size() - 1);
+            current.dropTail();
+        }
+    }
+
+    private void startSegment() throws IOException {
+        current = LedgerSegment.create(directory, nextSequence, recordsPerSegment);
+        segments.add(current);
+    }
+
+    /**
+     * Appends an agreement to the ledger.
+     *
+     * @param rentalAgreement
+     *            agreement to be recorded
+     * @return sequence number of the record
+     * @throws IOException
+     *             thrown if a new segment file can not be created
+     */
+    public synchronized long append(RentalAgreement rentalAgreement) throws IOException {
+
+        checkOpen();
+
+        if (current.isFull()) {
+            current.force();
+            startSegment();
+        }
+
+        current.append(rentalAgreement);
+
+        return nextSequence++;
+    }
+
+    /**
+     * Reads the agreement with the given sequence number.
+     *
+     * @param sequence
+     *            sequence number of the record
+     * @return RentalAgreement
+     */
+    public synchronized RentalAgreement read(long sequence) {
+
+        checkOpen();
+
+        if (sequence < 0 || sequence >= nextSequence) {
+            throw new IndexOutOfBoundsException("No record " + sequence + " in a ledger of " + nextSequence);
+        }
+
+        int low = 0;
+        int high = segments.size() - 1;
+
+        while (low < high) {
+
+            int middle = (low + high + 1) >>> 1;
+
+            if (segments.get(middle).getFirstSequence() <= sequence) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+
+        LedgerSegment segment = segments.get(low);
+
+        return segment.read((int) (sequence - segment.getFirstSequence()));
+    }
+
+    /**
+     * Reads every agreement in sequence order. Records appended while the scan
+     * runs are not visited.
+     *
+     * @param consumer
+     *            receives the agreements
+     */
+    public void scan(Consumer<RentalAgreement> consumer) {
+
+        List<LedgerSegment> snapshot;
+        int[] counts;
+
+        synchronized (this) {
+
+            checkOpen();
+
+            snapshot = new ArrayList<LedgerSegment>(segments);
+            counts = new int[snapshot.size()];
+
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = snapshot.get(i).getCount();
+            }
+        }
+
+        for (int i = 0; i < counts.length; i++) {
+
+            LedgerSegment segment = snapshot.get(i);
+
+            for (int slot = 0; slot < counts[i]; slot++) {
+                consumer.accept(segment.read(slot));
+            }
+        }
+    }
+
+    /**
+     * Retrieves the number of records, which is also the sequence number of the
+     * next record.
+     *
+     * @return long
+     */
+    public synchronized long size() {
+        return nextSequence;
+    }
+
+    /**
+     * Writes the appended records back to disk.
+     */
+    public synchronized void force() {
+
+        checkOpen();
+        current.force();
+    }
+
+    /**
+     * Forces the records to disk and closes the segment files.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+        current.force();
+
+        for (LedgerSegment segment : segments) {
+            segment.close();
+        }
+    }
+
+    private void checkOpen() {
+
+        if (closed) {
+            throw new IllegalStateException("The ledger is closed");
+        }
+    }
+
+}
@@ -0,0 +1,424 @@
+package com.toolShop.ledger;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import com.toolShop.Brand;
+import com.toolShop.ToolCode;
+import com.toolShop.util.EpochDays;
+
+/**
+ * Revenue totals of the agreements of an AgreementColumnStore, grouped by tool
+ * code, brand, tool type or month of checkout, computed on a ForkJoinPool.
+ *
+ * Every chunk of the store is summed by one task. The task copies the columns
+ * it needs into primitive arrays kept per thread, turns the grouping column
+ * into group numbers, and adds the values into arrays of sums indexed by
+ * group in one tight loop. The sums of the chunks are added together as the
+ * tasks complete.
+ *
+ * Months from 1970 to 2100 are looked up in a table of the month of every day;
+ * agreements checked out in other months are rare and summed apart.
+ *
+ * @author tadtab
+ *
+ */
+public class RevenueAggregator {
+
+    private static final int FIRST_DAY = 0;
+    private static final int LAST_DAY = EpochDays.of(2100, 12, 31);
+    private static final int FIRST_YEAR = 1970;
+    private static final int MONTHS = (2100 - FIRST_YEAR + 1) * 12;
+
+    /**
+     * Month of every day from 1970 to 2100, counted from January 1970.
+     */
+    private static final char[] MONTH_OF_DAY = new char[LAST_DAY - FIRST_DAY + 1];
+
+    static {
+        for (int day = FIRST_DAY; day <= LAST_DAY; day++) {
+
+            int yearMonth = EpochDays.toYearMonthDay(day) / 100;
+            MONTH_OF_DAY[day - FIRST_DAY] = (char) ((yearMonth / 100 - FIRST_YEAR) * 12 + yearMonth % 100 - 1);
+        }
+    }
+
+    private static final ToolCode[] TOOL_CODES = ToolCode.values();
+    private static final Brand[] BRANDS = Brand.values();
+
+    private static final ThreadLocal<Columns> COLUMNS = new ThreadLocal<Columns>() {
+
+        @Override
+        protected Columns initialValue() {
+            return new Columns();
+        }
+    };
+
+    private final ForkJoinPool pool;
+    private final boolean ownsPool;
+
+    /**
+     * Constructor creating a pool with the given parallelism.
+     *
+     * @param parallelism
+     *            number of threads summing in parallel
+     */
+    public RevenueAggregator(int parallelism) {
+        this(new ForkJoinPool(parallelism), true);
+    }
+
+    /**
+     * Constructor using a pool owned by the caller.
+     *
+     * @param pool
+     *            pool the chunks are summed on
+     */
+    public RevenueAggregator(ForkJoinPool pool) {
+        this(pool, false);
+    }
+
+    private RevenueAggregator(ForkJoinPool pool, boolean ownsPool) {
+        this.pool = pool;
+        this.ownsPool = ownsPool;
+    }
+
+    /**
+     * Totals of all agreements of a store.
+     *
+     * @param store
+     *            agreements to be summed
+     * @return RevenueTotals
+     */
+    public RevenueTotals total(AgreementColumnStore store) {
+
+        RevenueTotals total = new RevenueTotals(0, 0, 0, 0);
+
+        for (RevenueTotals totals : byToolCode(store).values()) {
+            total = total.plus(totals);
+        }
+
+        return total;
+    }
+
+    /**
+     * Totals of the agreements of a store by tool code.
+     *
+     * @param store
+     *            agreements to be summed
+     * @return totals of the tool codes having agreements
+     */
+    public Map<ToolCode, RevenueTotals> byToolCode(AgreementColumnStore store) {
+
+        Sums sums = aggregate(store, Grouping.TOOL_CODE);
+        Map<ToolCode, RevenueTotals> totals = new EnumMap<ToolCode, RevenueTotals>(ToolCode.class);
+
+        for (int group = 0; group < TOOL_CODES.length; group++) {
+            if (sums.agreements[group] > 0) {
+                totals.put(TOOL_CODES[group], sums.totalsOf(group));
+            }
+        }
+
+        return totals;
+    }
+
+    /**
+     * Totals of the agreements of a store by brand.
+     *
+     * @param store
+     *            agreements to be summed
+     * @return totals of the brands having agreements
+     */
+    public Map<Brand, RevenueTotals> byBrand(AgreementColumnStore store) {
+
+        Sums sums = aggregate(store, Grouping.BRAND);
+        Map<Brand, RevenueTotals> totals = new EnumMap<Brand, RevenueTotals>(Brand.class);
+
+        for (int group = 0; group < BRANDS.length; group++) {
+            if (sums.agreements[group] > 0) {
+                totals.put(BRANDS[group], sums.totalsOf(group));
+            }
+        }
+
+        return totals;
+    }
+
+    /**
+     * Totals of the agreements of a store by tool type.
+     *
+     * @param store
+     *            agreements to be summed
+     * @return totals of the tool types having agreements, sorted by name
+     */
+    public Map<String, RevenueTotals> byToolType(AgreementColumnStore store) {
+
+        Sums sums = aggregate(store, Grouping.TOOL_TYPE);
+        String[] toolTypes = store.getToolTypes();
+        Map<String, RevenueTotals> totals = new TreeMap<String, RevenueTotals>();
+
+        for (int group = 0; group < toolTypes.length; group++) {
+            if (sums.agreements[group] > 0) {
+                totals.put(toolTypes[group], sums.totalsOf(group));
+            }
+        }
+
+        return totals;
+    }
+
+    /**
+     * Totals of the agreements of a store by month of checkout.
+     *
+     * @param store
+     *            agreements to be summed
+     * @return totals of the months having agreements, sorted by month
+     */
+    public Map<YearMonth, RevenueTotals> byMonth(AgreementColumnStore store) {
+
+        Sums sums = aggregate(store, Grouping.MONTH);
+        Map<YearMonth, RevenueTotals> totals = new TreeMap<YearMonth, RevenueTotals>();
+
+        for (int group = 0; group < MONTHS; group++) {
+            if (sums.agreements[group] > 0) {
+                totals.put(YearMonth.of(FIRST_YEAR + group / 12, group % 12 + 1), sums.totalsOf(group));
+            }
+        }
+
+        if (sums.otherMonths != null) {
+            for (Map.Entry<YearMonth, RevenueTotals> entry : sums.otherMonths.entrySet()) {
+                totals.merge(entry.getKey(), entry.getValue(), RevenueTotals::plus);
+            }
+        }
+
+        return totals;
+    }
+
+    /**
+     * Shuts down the pool if it was created by this aggregator.
+     */
+    public void shutdown() {
+
+        if (ownsPool) {
+            pool.shutdown();
+        }
+    }
+
+    private Sums aggregate(AgreementColumnStore store, Grouping grouping) {
+
+        long rows = store.size();
+        int chunks = AgreementColumnStore.chunkCount(rows);
+
+        if (chunks == 0) {
+            return new Sums(grouping.groups);
+        }
+
+        return pool.invoke(new AggregationTask(store, grouping, rows, 0, chunks));
+    }
+
+    /**
+     * Column a store is grouped by, with the most groups it can have.
+     */
+    private enum Grouping {
+
+        TOOL_CODE(256), BRAND(256), TOOL_TYPE(256), MONTH(MONTHS);
+
+        final int groups;
+
+        Grouping(int groups) {
+            this.groups = groups;
+        }
+    }
+
+    /**
+     * Splits a range of chunks in halves until a single chunk is left and sums
+     * it.
+     */
+    private static class AggregationTask extends RecursiveTask<Sums> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final AgreementColumnStore store;
+        private final Grouping grouping;
+        private final long rows;
+        private final int firstChunk;
+        private final int endChunk;
+
+        AggregationTask(AgreementColumnStore store, Grouping grouping, long rows, int firstChunk, int endChunk) {
+            this.store = store;
+            this.grouping = grouping;
+            this.rows = rows;
+            this.firstChunk = firstChunk;
+            this.endChunk = endChunk;
+        }
+
+        @Override
+        protected Sums compute() {
+
+            if (endChunk - firstChunk > 1) {
+
+                int middle = (firstChunk + endChunk) >>> 1;
+
+                AggregationTask second = new AggregationTask(store, grouping, rows, middle, endChunk);
+                second.fork();
+
+                Sums sums = new AggregationTask(store, grouping, rows, firstChunk, middle).compute();
+                sums.add(second.join());
+
+                return sums;
+            }
+
+            return sumChunk(firstChunk);
+        }
+
+        private Sums sumChunk(int chunk) {
+
+            int count = AgreementColumnStore.rowsOfChunk(chunk, rows);
+            Columns columns = COLUMNS.get();
+            Sums sums = new Sums(grouping.groups);
+
+            int[] groups = columns.groups;
+            long[] finalCharges = columns.finalCharges;
+            long[] discounts = columns.discounts;
+            int[] chargeDays = columns.chargeDays;
+
+            store.copyFinalChargeCents(chunk, finalCharges, count);
+            store.copyDiscountAmountCents(chunk, discounts, count);
+            store.copyChargeDays(chunk, chargeDays, count);
+
+            switch (grouping) {
+            case TOOL_CODE:
+                store.copyToolCodes(chunk, columns.bytes, count);
+                groupsOfOrdinals(columns.bytes, groups, count);
+                break;
+            case BRAND:
+                store.copyBrands(chunk, columns.bytes, count);
+                groupsOfOrdinals(columns.bytes, groups, count);
+                break;
+            case TOOL_TYPE:
+                store.copyToolTypes(chunk, columns.bytes, count);
+                groupsOfOrdinals(columns.bytes, groups, count);
+                break;
+            default:
+                store.copyCheckOutEpochDays(chunk, columns.days, count);
+                groupsOfMonths(columns, sums, count);
+            }
+
+            long[] agreementSums = sums.agreements;
+            long[] finalChargeSums = sums.finalChargeCents;
+            long[] discountSums = sums.discountAmountCents;
+            long[] chargeDaySums = sums.chargeDays;
+
+            for (int i = 0; i < count; i++) {
+
+                int group = groups[i];
+
+                agreementSums[group]++;
+                finalChargeSums[group] += finalCharges[i];
+                discountSums[group] += discounts[i];
+                chargeDaySums[group] += chargeDays[i];
+            }
+
+            return sums;
+        }
+
+        private static void groupsOfOrdinals(byte[] ordinals, int[] groups, int count) {
+
+            for (int i = 0; i < count; i++) {
+                groups[i] = ordinals[i] & 0xFF;
+            }
+        }
+
+        /**
+         * Looks up the month of every checkout day. Agreements of months outside
+         * the table are summed into the other months and given the spare group,
+         * which is never reported.
+         */
+        private static void groupsOfMonths(Columns columns, Sums sums, int count) {
+
+            int[] days = columns.days;
+            int[] groups = columns.groups;
+
+            for (int i = 0; i < count; i++) {
+
+                int day = days[i];
+
+                if (day >= FIRST_DAY && day <= LAST_DAY) {
+                    groups[i] = MONTH_OF_DAY[day - FIRST_DAY];
+                } else {
+                    groups[i] = MONTHS;
+                    sums.addOtherMonth(YearMonth.from(LocalDate.ofEpochDay(day)), new RevenueTotals(1,
+                            columns.finalCharges[i], columns.discounts[i], columns.chargeDays[i]));
+                }
+            }
+        }
+    }
+
+    /**
+     * Sums by group, with a spare group at the end.
+     */
+    private static class Sums {
+
+        final long[] agreements;
+        final long[] finalChargeCents;
+        final long[] discountAmountCents;
+        final long[] chargeDays;
+
+        Map<YearMonth, RevenueTotals> otherMonths;
+
+        Sums(int groups) {
+            this.agreements = new long[groups + 1];
+            this.finalChargeCents = new long[groups + 1];
+            this.discountAmountCents = new long[groups + 1];
+            this.chargeDays = new long[groups + 1];
+        }
+
+        RevenueTotals totalsOf(int group) {
+            return new RevenueTotals(agreements[group], finalChargeCents[group], discountAmountCents[group],
+                    chargeDays[group]);
+        }
+
+        void addOtherMonth(YearMonth month, RevenueTotals totals) {
+
+            if (otherMonths == null) {
+                otherMonths = new HashMap<YearMonth, RevenueTotals>();
+            }
+
+            otherMonths.merge(month, totals, RevenueTotals::plus);
+        }
+
+        void add(Sums other) {
+
+            for (int group = 0; group < agreements.length; group++) {
+                agreements[group] += other.agreements[group];
+                finalChargeCents[group] += other.finalChargeCents[group];
+                discountAmountCents[group] += other.discountAmountCents[group];
+                chargeDays[group] += other.chargeDays[group];
+            }
+
+            if (other.otherMonths != null) {
+                for (Map.Entry<YearMonth, RevenueTotals> entry : other.otherMonths.entrySet()) {
+                    addOtherMonth(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+    }
+
+    /**
+     * Columns of a chunk copied into arrays, kept per thread so summing does not
+     * allocate them for every chunk.
+     */
+    private static final class Columns {
+
+        final byte[] bytes = new byte[AgreementColumnStore.CHUNK_ROWS];
+        final int[] days = new int[AgreementColumnStore.CHUNK_ROWS];
+        final int[] groups = new int[AgreementColumnStore.CHUNK_ROWS];
+        final int[] chargeDays = new int[AgreementColumnStore.CHUNK_ROWS];
+        final long[] finalCharges = new long[AgreementColumnStore.CHUNK_ROWS];
+        final long[] discounts = new long[AgreementColumnStore.CHUNK_ROWS];
+    }
+
+}
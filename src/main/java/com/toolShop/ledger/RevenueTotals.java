@@ -0,0 +1,107 @@
+package com.toolShop.ledger;
+
+import java.util.Objects;
+
+import com.toolShop.pricing.Money;
+
+/**
+ * Totals of a group of rental agreements, produced by the RevenueAggregator.
+ *
+ * @author tadtab
+ *
+ */
+public final class RevenueTotals {
+
+    private final long agreements;
+    private final long finalChargeCents;
+    private final long discountAmountCents;
+    private final long chargeDays;
+
+    /**
+     * Constructor taking every total.
+     *
+     * @param agreements
+     *            number of agreements
+     * @param finalChargeCents
+     *            sum of the final charges in cents
+     * @param discountAmountCents
+     *            sum of the discount amounts in cents
+     * @param chargeDays
+     *            sum of the charge days
+     */
+    public RevenueTotals(long agreements, long finalChargeCents, long discountAmountCents, long chargeDays) {
+        this.agreements = agreements;
+        this.finalChargeCents = finalChargeCents;
+        this.discountAmountCents = discountAmountCents;
+        this.chargeDays = chargeDays;
+    }
+
+    /**
+     * Retrieves the number of agreements.
+     */
+    public long getAgreements() {
+        return agreements;
+    }
+
+    /**
+     * Retrieves the sum of the final charges in cents.
+     */
+    public long getFinalChargeCents() {
+        return finalChargeCents;
+    }
+
+    /**
+     * Retrieves the sum of the discount amounts in cents.
+     */
+    public long getDiscountAmountCents() {
+        return discountAmountCents;
+    }
+
+    /**
+     * Retrieves the sum of the charge days.
+     */
+    public long getChargeDays() {
+        return chargeDays;
+    }
+
+    /**
+     * Adds the totals of another group.
+     *
+     * @param other
+     *            totals to be added
+     * @return RevenueTotals
+     */
+    public RevenueTotals plus(RevenueTotals other) {
+        return new RevenueTotals(agreements + other.agreements, finalChargeCents + other.finalChargeCents,
+                discountAmountCents + other.discountAmountCents, chargeDays + other.chargeDays);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+
+        if (this == obj) {
+            return true;
+        }
+
+        if (!(obj instanceof RevenueTotals)) {
+            return false;
+        }
+
+        RevenueTotals other = (RevenueTotals) obj;
+
+        return agreements == other.agreements && finalChargeCents == other.finalChargeCents
+                && discountAmountCents == other.discountAmountCents && chargeDays == other.chargeDays;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(agreements, finalChargeCents, discountAmountCents, chargeDays);
+    }
+
+    @Override
+    public String toString() {
+        return "RevenueTotals[" + agreements + " agreements, final " + Money.toDollars(finalChargeCents)
+                + ", discount " + Money.toDollars(discountAmountCents) + ", " + chargeDays + " charge days]";
+    }
+
+}
@@ -0,0 +1,209 @@
+package com.toolShop.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.toolShop.ToolCode;
+
+/**
+ * Timings and counters of checkouts: a latency histogram for every
+ * CheckoutStage, the number and latency of checkouts of every ToolCode, and
+ * the number of exceptions thrown by type.
+ *
+ * Metrics are switched on with the system property toolShop.metrics=true. The
+ * switch is read once into a constant, so with metrics off the static
+ * recording methods do nothing and the JIT removes their calls, including the
+ * clock reads, from the checkout.
+ *
+ * @author tadtab
+ *
+ */
+public final class CheckoutMetrics {
+
+    /**
+     * System property switching the metrics on.
+     */
+    public static final String ENABLED_PROPERTY = "toolShop.metrics";
+
+    private static final boolean ENABLED = Boolean.getBoolean(ENABLED_PROPERTY);
+
+    private static final ToolCode[] TOOL_CODES = ToolCode.values();
+
+    private static final CheckoutMetrics GLOBAL = new CheckoutMetrics();
+
+    private final LatencyHistogram[] stages = new LatencyHistogram[CheckoutStage.values().length];
+    private final LatencyHistogram[] checkouts = new LatencyHistogram[TOOL_CODES.length];
+    private final Map<Class<? extends Exception>, LongAdder> exceptions =
+            new ConcurrentHashMap<Class<? extends Exception>, LongAdder>();
+
+    /**
+     * Constructor of metrics recorded only through the instance methods.
+     */
+    public CheckoutMetrics() {
+
+        for (int i = 0; i < stages.length; i++) {
+            stages[i] = new LatencyHistogram();
+        }
+
+        for (int i = 0; i < checkouts.length; i++) {
+            checkouts[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * Checks if the metrics are switched on.
+     *
+     * @return boolean
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Retrieves the metrics the checkouts record into.
+     *
+     * @return CheckoutMetrics
+     */
+    public static CheckoutMetrics global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Reads the clock at the start of a measurement.
+     *
+     * @return nanoseconds, 0 if the metrics are off
+     */
+    public static long startTime() {
+        return ENABLED ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records the time of a stage into the global metrics.
+     *
+     * @param stage
+     *            the stage which ended
+     * @param startTime
+     *            time the stage started
+     * @return time the stage ended, to start the next stage with
+     */
+    public static long stageEnded(CheckoutStage stage, long startTime) {
+
+        if (!ENABLED) {
+            return 0;
+        }
+
+        long endTime = System.nanoTime();
+        GLOBAL.recordStage(stage, endTime - startTime);
+
+        return endTime;
+    }
+
+    /**
+     * Records a completed checkout into the global metrics.
+     *
+     * @param toolCode
+     *            the tool checked out
+     * @param startTime
+     *            time the checkout started
+     */
+    public static void checkoutEnded(ToolCode toolCode, long startTime) {
+
+        if (ENABLED) {
+            GLOBAL.recordCheckout(toolCode, System.nanoTime() - startTime);
+        }
+    }
+
+    /**
+     * Counts an exception thrown by a checkout in the global metrics.
+     *
+     * @param exceptionType
+     *            type of the exception
+     */
+    public static void exceptionThrown(Class<? extends Exception> exceptionType) {
+
+        if (ENABLED) {
+            GLOBAL.recordException(exceptionType);
+        }
+    }
+
+    /**
+     * Records the time of a stage.
+     *
+     * @param stage
+     *            the stage measured
+     * @param nanos
+     *            time the stage took
+     */
+    public void recordStage(CheckoutStage stage, long nanos) {
+        stages[stage.ordinal()].record(nanos);
+    }
+
+    /**
+     * Records a completed checkout.
+     *
+     * @param toolCode
+     *            the tool checked out
+     * @param nanos
+     *            time the checkout took
+     */
+    public void recordCheckout(ToolCode toolCode, long nanos) {
+        checkouts[toolCode.ordinal()].record(nanos);
+    }
+
+    /**
+     * Counts an exception.
+     *
+     * @param exceptionType
+     *            type of the exception
+     */
+    public void recordException(Class<? extends Exception> exceptionType) {
+        exceptions.computeIfAbsent(exceptionType, type -> new LongAdder()).increment();
+    }
+
+    /**
+     * Copies the metrics recorded so far.
+     *
+     * @return MetricsSnapshot
+     */
+    public MetricsSnapshot snapshot() {
+
+        Map<CheckoutStage, HistogramSnapshot> stageSnapshots = new EnumMap<CheckoutStage, HistogramSnapshot>(
+                CheckoutStage.class);
+        for (CheckoutStage stage : CheckoutStage.values()) {
+            stageSnapshots.put(stage, stages[stage.ordinal()].snapshot());
+        }
+
+        Map<ToolCode, HistogramSnapshot> checkoutSnapshots = new EnumMap<ToolCode, HistogramSnapshot>(
+                ToolCode.class);
+        for (ToolCode toolCode : TOOL_CODES) {
+            checkoutSnapshots.put(toolCode, checkouts[toolCode.ordinal()].snapshot());
+        }
+
+        Map<String, Long> exceptionCounts = new TreeMap<String, Long>();
+        for (Map.Entry<Class<? extends Exception>, LongAdder> entry : exceptions.entrySet()) {
+            exceptionCounts.put(entry.getKey().getSimpleName(), entry.getValue().sum());
+        }
+
+        return new MetricsSnapshot(stageSnapshots, checkoutSnapshots, exceptionCounts);
+    }
+
+    /**
+     * Forgets everything recorded so far.
+     */
+    public void reset() {
+
+        for (LatencyHistogram histogram : stages) {
+            histogram.reset();
+        }
+
+        for (LatencyHistogram histogram : checkouts) {
+            histogram.reset();
+        }
+
+        exceptions.clear();
+    }
+
+}
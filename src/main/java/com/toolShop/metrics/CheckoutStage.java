@@ -0,0 +1,43 @@
+package com.toolShop.metrics;
+
+/**
+ * Stages of a checkout whose time is measured separately.
+ *
+ * @author tadtab
+ *
+ */
+public enum CheckoutStage {
+
+    /**
+     * Checking the rental day count and the discount percent.
+     */
+    VALIDATION,
+
+    /**
+     * Parsing the checkout date.
+     */
+    DATE_PARSING,
+
+    /**
+     * Counting the charge days between the checkout and the due date.
+     */
+    CHARGE_DAY_CALCULATION,
+
+    /**
+     * Calculating the pre-discount charge, the discount and the final charge in
+     * cents.
+     */
+    CHARGE_CALCULATION,
+
+    /**
+     * Building the rental agreement.
+     */
+    AGREEMENT_ASSEMBLY,
+
+    /**
+     * Formatting an amount as currency, done when an agreement is printed or
+     * its amounts are read as text.
+     */
+    MONEY_FORMATTING
+
+}
@@ -0,0 +1,108 @@
+package com.toolShop.metrics;
+
+/**
+ * Values recorded by a LatencyHistogram at one point in time. Percentiles are
+ * reported as the highest value of the bucket they fall in, so they are never
+ * below the true value and at most 1.6% above it.
+ *
+ * @author tadtab
+ *
+ */
+public final class HistogramSnapshot {
+
+    private final long[] counts;
+    private final long count;
+    private final long total;
+    private final long min;
+    private final long max;
+
+    HistogramSnapshot(long[] counts, long total, long min, long max) {
+
+        long count = 0;
+        for (long bucketCount : counts) {
+            count += bucketCount;
+        }
+
+        this.counts = counts;
+        this.count = count;
+        this.total = total;
+        this.min = count == 0 ? 0 : min;
+        this.max = count == 0 ? 0 : max;
+    }
+
+    /**
+     * Retrieves the number of recorded values.
+     *
+     * @return long
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Retrieves the lowest recorded value.
+     *
+     * @return nanoseconds, 0 if nothing was recorded
+     */
+    public long getMin() {
+        return min;
+    }
+
+    /**
+     * Retrieves the highest recorded value.
+     *
+     * @return nanoseconds, 0 if nothing was recorded
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Retrieves the mean of the recorded values.
+     *
+     * @return nanoseconds, 0 if nothing was recorded
+     */
+    public double getMean() {
+        return count == 0 ? 0 : (double) total / count;
+    }
+
+    /**
+     * Retrieves the value below or at which the given percentage of the recorded
+     * values fall.
+     *
+     * @param percentile
+     *            percentage between 0 and 100
+     * @return nanoseconds, 0 if nothing was recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+        }
+
+        if (count == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+
+        for (int bucket = 0; bucket < counts.length; bucket++) {
+
+            seen += counts[bucket];
+
+            if (seen >= rank) {
+                return Math.min(LatencyHistogram.highestValueOf(bucket), max);
+            }
+        }
+
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count %,d, mean %,.0f ns, p50 %,d ns, p99 %,d ns, p99.9 %,d ns, max %,d ns", count,
+                getMean(), getValueAtPercentile(50), getValueAtPercentile(99), getValueAtPercentile(99.9), max);
+    }
+
+}
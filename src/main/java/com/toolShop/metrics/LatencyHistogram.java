@@ -0,0 +1,124 @@
+package com.toolShop.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of latencies in nanoseconds with buckets laid out like an HDR
+ * histogram: values below 128 have a bucket each, and every higher power of
+ * two is split into 64 buckets, so a recorded value is off by at most 1/64
+ * (1.6%) while the whole range up to an hour takes about 2,400 counters.
+ *
+ * Recording is lock free and does not allocate, so many threads can record
+ * into the same histogram. A snapshot taken while values are recorded may
+ * miss some of them.
+ *
+ * @author tadtab
+ *
+ */
+public final class LatencyHistogram {
+
+    /**
+     * Highest value kept apart from the others, about 73 minutes in
+     * nanoseconds. Higher values are counted as this value.
+     */
+    public static final long HIGHEST_TRACKABLE_VALUE = (1L << 42) - 1;
+
+    private static final int SUB_BUCKET_BITS = 6;
+
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    private static final int BUCKET_COUNT = bucketOf(HIGHEST_TRACKABLE_VALUE) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Records a value. Negative values are counted as 0.
+     *
+     * @param value
+     *            latency in nanoseconds
+     */
+    public void record(long value) {
+
+        long clamped = Math.min(Math.max(value, 0), HIGHEST_TRACKABLE_VALUE);
+
+        counts.incrementAndGet(bucketOf(clamped));
+        total.add(clamped);
+
+        for (long current = min.get(); clamped < current && !min.compareAndSet(current, clamped);) {
+            current = min.get();
+        }
+
+        for (long current = max.get(); clamped > current && !max.compareAndSet(current, clamped);) {
+            current = max.get();
+        }
+    }
+
+    /**
+     * Copies the recorded values.
+     *
+     * @return HistogramSnapshot
+     */
+    public HistogramSnapshot snapshot() {
+
+        long[] copy = new long[BUCKET_COUNT];
+
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = counts.get(i);
+        }
+
+        return new HistogramSnapshot(copy, total.sum(), min.get(), max.get());
+    }
+
+    /**
+     * Forgets all recorded values.
+     */
+    public void reset() {
+
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0);
+        }
+
+        total.reset();
+        min.set(Long.MAX_VALUE);
+        max.set(Long.MIN_VALUE);
+    }
+
+    /**
+     * Bucket of a value between 0 and HIGHEST_TRACKABLE_VALUE. The bucket of a
+     * value below 128 is the value itself, above that the value is shifted right
+     * until it has 7 bits and every shift moves it 64 buckets further.
+     */
+    static int bucketOf(long value) {
+
+        int shift = Math.max(0, 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS);
+
+        return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+    }
+
+    /**
+     * Lowest value counted in a bucket.
+     */
+    static long lowestValueOf(int bucket) {
+
+        if (bucket < 2 * SUB_BUCKET_COUNT) {
+            return bucket;
+        }
+
+        int shift = (bucket >>> SUB_BUCKET_BITS) - 1;
+
+        return (long) ((bucket & (SUB_BUCKET_COUNT - 1)) + SUB_BUCKET_COUNT) << shift;
+    }
+
+    /**
+     * Highest value counted in a bucket.
+     */
+    static long highestValueOf(int bucket) {
+        return bucket + 1 < BUCKET_COUNT ? lowestValueOf(bucket + 1) - 1 : HIGHEST_TRACKABLE_VALUE;
+    }
+
+}
@@ -0,0 +1,98 @@
+package com.toolShop.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+
+import com.toolShop.ToolCode;
+
+/**
+ * Checkout metrics at one point in time, readable value by value or as a
+ * printable report.
+ *
+ * @author tadtab
+ *
+ */
+public final class MetricsSnapshot {
+
+    private final Map<CheckoutStage, HistogramSnapshot> stages;
+    private final Map<ToolCode, HistogramSnapshot> checkouts;
+    private final Map<String, Long> exceptionCounts;
+
+    MetricsSnapshot(Map<CheckoutStage, HistogramSnapshot> stages, Map<ToolCode, HistogramSnapshot> checkouts,
+            Map<String, Long> exceptionCounts) {
+        this.stages = Collections.unmodifiableMap(stages);
+        this.checkouts = Collections.unmodifiableMap(checkouts);
+        this.exceptionCounts = Collections.unmodifiableMap(exceptionCounts);
+    }
+
+    /**
+     * Retrieves the latencies of a stage.
+     *
+     * @param stage
+     *            the stage measured
+     * @return HistogramSnapshot
+     */
+    public HistogramSnapshot getStage(CheckoutStage stage) {
+        return stages.get(stage);
+    }
+
+    /**
+     * Retrieves the latencies of the checkouts of a tool. The count of the
+     * snapshot is the number of checkouts.
+     *
+     * @param toolCode
+     *            the tool checked out
+     * @return HistogramSnapshot
+     */
+    public HistogramSnapshot getCheckouts(ToolCode toolCode) {
+        return checkouts.get(toolCode);
+    }
+
+    /**
+     * Retrieves the number of exceptions of a type.
+     *
+     * @param exceptionType
+     *            type of the exception
+     * @return long
+     */
+    public long getExceptionCount(Class<? extends Exception> exceptionType) {
+
+        Long count = exceptionCounts.get(exceptionType.getSimpleName());
+
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * Retrieves the number of exceptions by the simple name of their type.
+     *
+     * @return Map of exception name to count
+     */
+    public Map<String, Long> getExceptionCounts() {
+        return exceptionCounts;
+    }
+
+    @Override
+    public String toString() {
+
+        String lineSeparator = System.lineSeparator();
+        StringBuilder report = new StringBuilder();
+
+        report.append("Stages:").append(lineSeparator);
+        for (Map.Entry<CheckoutStage, HistogramSnapshot> entry : stages.entrySet()) {
+            report.append(String.format("  %-22s %s%n", entry.getKey(), entry.getValue()));
+        }
+
+        report.append("Checkouts:").append(lineSeparator);
+        for (Map.Entry<ToolCode, HistogramSnapshot> entry : checkouts.entrySet()) {
+            report.append(String.format("  %-22s %s%n", entry.getKey(), entry.getValue()));
+        }
+
+        report.append("Exceptions:").append(lineSeparator);
+        for (Map.Entry<String, Long> entry : exceptionCounts.entrySet()) {
+            report.append(String.format("  %-22s %,d%n", entry.getKey(), entry.getValue()));
+        }
+
+        return report.toString();
+    }
+
+}
@@ -0,0 +1,139 @@
+package com.toolShop.pricing;
+
+import java.time.LocalDate;
+
+import com.toolShop.calendar.HolidayCalendar;
+import com.toolShop.util.EpochDays;
+
+/**
+ * Calculates the number of chargeable days of a rental without walking the
+ * rental period day by day. Weekdays and weekend days are counted from the
+ * number of full weeks plus the remaining days, and the holidays falling in the
+ * period are subtracted afterwards, so the cost does not grow with the rental
+ * length.
+ *
+ * Holidays are counted through a HolidayCalendar.
+ *
+ * @author tadtab
+ *
+ */
+public class ChargeDayCalculator {
+
+    private static final int WEEK_DAYS_PER_WEEK = 5;
+
+    /**
+     * Counts chargeable days, from day after checkout through and including due
+     * date, excluding the days on which the charge does not apply. Holidays are
+     * taken from the default HolidayCalendar.
+     *
+     * @param chargePolicy
+     *            days on which the daily charge applies
+     * @param checkOutDate
+     *            the date the tool is checked out
+     * @param dueDate
+     *            the date the tool need to be returned
+     * @return number of chargeable days
+     */
+    public static int countChargeDays(ChargePolicy chargePolicy, LocalDate checkOutDate, LocalDate dueDate) {
+
+        return countChargeDays(chargePolicy, HolidayCalendar.getDefault(), (int) checkOutDate.toEpochDay(),
+                (int) dueDate.toEpochDay());
+    }
+
+    /**
+     * Counts chargeable days, from day after checkout through and including due
+     * date, excluding the days on which the charge does not apply. A holiday is
+     * charged as a holiday even if it falls on a weekend.
+     *
+     * @param chargePolicy
+     *            days on which the daily charge applies
+     * @param holidayCalendar
+     *            the calendar providing the observed holidays
+     * @param checkOutDay
+     *            epoch day the tool is checked out
+     * @param dueDay
+     *            epoch day the tool need to be returned
+     * @return number of chargeable days
+     */
+    public static int countChargeDays(ChargePolicy chargePolicy, HolidayCalendar holidayCalendar, int checkOutDay,
+            int dueDay) {
+
+        int firstDay = checkOutDay + 1;
+        int lastDay = dueDay;
+
+        if (lastDay < firstDay || chargePolicy.getMask() == 0) {
+            return 0;
+        }
+
+        int weekDays = countWeekDays(firstDay, lastDay);
+        int weekEndDays = (lastDay - firstDay + 1) - weekDays;
+
+        int holidays = holidayCalendar.countHolidays(firstDay, lastDay);
+        int weekEndHolidays = holidayCalendar.countWeekEndHolidays(firstDay, lastDay);
+
+        int chargeDays = 0;
+
+        if (chargePolicy.appliesTo(ChargePolicy.WEEK_DAY)) {
+            chargeDays += weekDays - (holidays - weekEndHolidays);
+        }
+
+        if (chargePolicy.appliesTo(ChargePolicy.WEEK_END)) {
+            chargeDays += weekEndDays - weekEndHolidays;
+        }
+
+        if (chargePolicy.appliesTo(ChargePolicy.HOLIDAY)) {
+            chargeDays += holidays;
+        }
+
+        return chargeDays;
+    }
+
+    /**
+     * Classifies a single day as WEEK_DAY, WEEK_END or HOLIDAY.
+     *
+     * @param holidayCalendar
+     *            the calendar providing the observed holidays
+     * @param epochDay
+     *            the day to be classified
+     * @return day class
+     */
+    public static int dayClassOf(HolidayCalendar holidayCalendar, int epochDay) {
+
+        if (holidayCalendar.isHoliday(epochDay)) {
+            return ChargePolicy.HOLIDAY;
+        }
+
+        return EpochDays.dayOfWeek(epochDay) < WEEK_DAYS_PER_WEEK ? ChargePolicy.WEEK_DAY : ChargePolicy.WEEK_END;
+    }
+
+    /**
+     * Counts Monday to Friday days between two epoch days, both inclusive. Full
+     * weeks contribute five weekdays each and at most six remaining days are
+     * examined individually.
+     *
+     * @param firstDay
+     *            first epoch day of the period
+     * @param lastDay
+     *            last epoch day of the period
+     * @return number of weekdays
+     */
+    static int countWeekDays(int firstDay, int lastDay) {
+
+        int totalDays = lastDay - firstDay + 1;
+        int weekDays = (totalDays / EpochDays.DAYS_PER_WEEK) * WEEK_DAYS_PER_WEEK;
+
+        int dayOfWeek = EpochDays.dayOfWeek(firstDay);
+
+        for (int remaining = totalDays % EpochDays.DAYS_PER_WEEK; remaining > 0; remaining--) {
+
+            if (dayOfWeek < WEEK_DAYS_PER_WEEK) {
+                weekDays++;
+            }
+
+            dayOfWeek = (dayOfWeek + 1) % EpochDays.DAYS_PER_WEEK;
+        }
+
+        return weekDays;
+    }
+
+}
@@ -0,0 +1,256 @@
+package com.toolShop.pricing;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.toolShop.calendar.HolidayCalendar;
+import com.toolShop.util.EpochDays;
+
+/**
+ * Prefix sums of chargeable days for every ChargePolicy over 1970 to 2100, so
+ * counting the charge days between any two days of that range is two array
+ * reads and a subtraction. The tables depend only on the charge policy, so tool
+ * types charging the same days share them.
+ *
+ * A table is built lazily one decade of 3,653 days at a time, when a count
+ * first touches it. Counts since 1970 stay below 65,536 and are kept as chars,
+ * so a decade takes about 7 KB, the 47,847 days of a policy about 96 KB and
+ * the tables of all eight policies about 0.77 MB.
+ * Decades are only built while they fit the memory budget; counts touching a
+ * decade past the budget, or days outside the range, are calculated by
+ * ChargeDayCalculator instead. Registering a holiday in the calendar discards
+ * the tables.
+ *
+ * @author tadtab
+ *
+ */
+public final class ChargeDayTables {
+
+    /**
+     * First epoch day covered, 1970-01-01.
+     */
+    public static final int FIRST_DAY = 0;
+
+    /**
+     * Last epoch day covered, 2100-12-31.
+     */
+    public static final int LAST_DAY = EpochDays.of(2100, 12, 31);
+
+    /**
+     * Memory budget if none is given, enough for the tables of every policy.
+     */
+    public static final long DEFAULT_MEMORY_BUDGET = 2L << 20;
+
+    private static final int DECADE_DAYS = 3653;
+
+    private static final int DECADE_COUNT = (LAST_DAY - FIRST_DAY) / DECADE_DAYS + 1;
+
+    private static final int POLICY_COUNT = 8;
+
+    private static final ChargeDayTables DEFAULT = new ChargeDayTables(HolidayCalendar.getDefault(),
+            DEFAULT_MEMORY_BUDGET);
+
+    private final HolidayCalendar holidayCalendar;
+    private final long memoryBudget;
+
+    private volatile Tables tables;
+
+    /**
+     * Constructor with the calendar the tables count the holidays of.
+     *
+     * @param holidayCalendar
+     *            holidays on which the holiday charge applies
+     * @param memoryBudget
+     *            most bytes the tables may take
+     */
+    public ChargeDayTables(HolidayCalendar holidayCalendar, long memoryBudget) {
+        this.holidayCalendar = holidayCalendar;
+        this.memoryBudget = memoryBudget;
+        this.tables = new Tables(holidayCalendar.getVersion());
+    }
+
+    /**
+     * Retrieves the tables of the default holiday calendar.
+     *
+     * @return ChargeDayTables
+     */
+    public static ChargeDayTables getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Retrieves tables counting the holidays of a calendar: the default tables
+     * for the default calendar, new tables with the default budget otherwise.
+     *
+     * @param holidayCalendar
+     *            holidays on which the holiday charge applies
+     * @return ChargeDayTables
+     */
+    public static ChargeDayTables forCalendar(HolidayCalendar holidayCalendar) {
+        return holidayCalendar == HolidayCalendar.getDefault() ? DEFAULT
+                : new ChargeDayTables(holidayCalendar, DEFAULT_MEMORY_BUDGET);
+    }
+
+    /**
+     * Retrieves the calendar the tables count the holidays of.
+     *
+     * @return HolidayCalendar
+     */
+    public HolidayCalendar getHolidayCalendar() {
+        return holidayCalendar;
+    }
+
+    /**
+     * Counts chargeable days, from day after checkout through and including due
+     * date, like ChargeDayCalculator.
+     *
+     * @param chargePolicy
+     *            days on which the daily charge applies
+     * @param checkOutDay
+     *            epoch day the tool is checked out
+     * @param dueDay
+     *            epoch day the tool need to be returned
+     * @return number of chargeable days
+     */
+    public int countChargeDays(ChargePolicy chargePolicy, int checkOutDay, int dueDay) {
+
+        if (dueDay <= checkOutDay) {
+            return 0;
+        }
+
+        if (checkOutDay >= FIRST_DAY && dueDay <= LAST_DAY) {
+
+            Tables current = currentTables();
+            int mask = chargePolicy.getMask();
+
+            char[] dueDecade = decadeOf(current, chargePolicy, mask, (dueDay - FIRST_DAY) / DECADE_DAYS);
+            char[] checkOutDecade = decadeOf(current, chargePolicy, mask, (checkOutDay - FIRST_DAY) / DECADE_DAYS);
+
+            if (dueDecade != null && checkOutDecade != null) {
+                return dueDecade[(dueDay - FIRST_DAY) % DECADE_DAYS]
+                        - checkOutDecade[(checkOutDay - FIRST_DAY) % DECADE_DAYS];
+            }
+        }
+
+        return ChargeDayCalculator.countChargeDays(chargePolicy, holidayCalendar, checkOutDay, dueDay);
+    }
+
+    /**
+     * Counts chargeable days, from day after checkout through and including due
+     * date.
+     *
+     * @param chargePolicy
+     *            days on which the daily charge applies
+     * @param checkOutDate
+     *            the date the tool is checked out
+     * @param dueDate
+     *            the date the tool need to be returned
+     * @return number of chargeable days
+     */
+    public int countChargeDays(ChargePolicy chargePolicy, LocalDate checkOutDate, LocalDate dueDate) {
+        return countChargeDays(chargePolicy, Math.toIntExact(checkOutDate.toEpochDay()),
+                Math.toIntExact(dueDate.toEpochDay()));
+    }
+
+    /**
+     * Retrieves the number of bytes taken by the decades built so far.
+     *
+     * @return long
+     */
+    public long getMemoryUsed() {
+        return tables.memoryUsed.get();
+    }
+
+    /**
+     * Retrieves the tables built for the current version of the calendar.
+     */
+    private Tables currentTables() {
+
+        Tables current = this.tables;
+        int version = holidayCalendar.getVersion();
+
+        if (current.version != version) {
+            current = new Tables(version);
+            this.tables = current;
+        }
+
+        return current;
+    }
+
+    /**
+     * Retrieves a decade of a policy, building it if it fits the budget.
+     *
+     * @return prefix sums of the decade or null if over the budget
+     */
+    private char[] decadeOf(Tables current, ChargePolicy chargePolicy, int mask, int decade) {
+
+        AtomicReferenceArray<char[]> decades = current.decades;
+        int index = mask * DECADE_COUNT + decade;
+        char[] prefixSums = decades.get(index);
+
+        if (prefixSums != null) {
+            return prefixSums;
+        }
+
+        int firstDay = FIRST_DAY + decade * DECADE_DAYS;
+        int lastDay = Math.min(firstDay + DECADE_DAYS - 1, LAST_DAY);
+        long bytes = 2L * (lastDay - firstDay + 1);
+
+        for (long used = current.memoryUsed.get(); used + bytes <= memoryBudget; used = current.memoryUsed.get()) {
+
+            if (current.memoryUsed.compareAndSet(used, used + bytes)) {
+
+                prefixSums = buildDecade(chargePolicy, firstDay, lastDay);
+
+                if (!decades.compareAndSet(index, null, prefixSums)) {
+                    current.memoryUsed.addAndGet(-bytes);
+                    prefixSums = decades.get(index);
+                }
+
+                return prefixSums;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Counts the chargeable days since FIRST_DAY up to and including every day of
+     * a decade.
+     */
+    private char[] buildDecade(ChargePolicy chargePolicy, int firstDay, int lastDay) {
+
+        char[] prefixSums = new char[lastDay - firstDay + 1];
+        int chargeDays = ChargeDayCalculator.countChargeDays(chargePolicy, holidayCalendar, FIRST_DAY - 1,
+                firstDay - 1);
+
+        for (int day = firstDay; day <= lastDay; day++) {
+
+            if (chargePolicy.appliesTo(ChargeDayCalculator.dayClassOf(holidayCalendar, day))) {
+                chargeDays++;
+            }
+
+            prefixSums[day - firstDay] = (char) chargeDays;
+        }
+
+        return prefixSums;
+    }
+
+    /**
+     * Decades built for one version of the calendar, the decades of a policy
+     * mask following the ones of the previous mask.
+     */
+    private static class Tables {
+
+        private final int version;
+        private final AtomicLong memoryUsed = new AtomicLong();
+        private final AtomicReferenceArray<char[]> decades = new AtomicReferenceArray<char[]>(
+                POLICY_COUNT * DECADE_COUNT);
+
+        Tables(int version) {
+            this.version = version;
+        }
+    }
+
+}
@@ -0,0 +1,104 @@
+package com.toolShop.pricing;
+
+/**
+ * Days on which the daily rental charge applies, compiled from the flags of a
+ * tool type into a bit mask of day classes. Checking a day is a single bitwise
+ * test, no matter how many tool types exist.
+ *
+ * There are only eight combinations, so instances are shared.
+ *
+ * @author tadtab
+ *
+ */
+public final class ChargePolicy {
+
+    /**
+     * Day class of Monday to Friday days which are not holidays.
+     */
+    public static final int WEEK_DAY = 1;
+
+    /**
+     * Day class of Saturdays and Sundays which are not holidays.
+     */
+    public static final int WEEK_END = 1 << 1;
+
+    /**
+     * Day class of observed holidays.
+     */
+    public static final int HOLIDAY = 1 << 2;
+
+    private static final ChargePolicy[] POLICIES = new ChargePolicy[8];
+
+    static {
+        for (int mask = 0; mask < POLICIES.length; mask++) {
+            POLICIES[mask] = new ChargePolicy(mask);
+        }
+    }
+
+    private final int mask;
+
+    private ChargePolicy(int mask) {
+        this.mask = mask;
+    }
+
+    /**
+     * Retrieves the policy for the given flags.
+     *
+     * @param weekDayChargeApplies
+     *            indicates whether the daily charge applies to weekdays
+     * @param weekEndChargeApplies
+     *            indicates whether the daily charge applies to weekends
+     * @param holidayChargeApplies
+     *            indicates whether the daily charge applies to holidays
+     * @return ChargePolicy
+     */
+    public static ChargePolicy of(boolean weekDayChargeApplies, boolean weekEndChargeApplies,
+            boolean holidayChargeApplies) {
+
+        return POLICIES[(weekDayChargeApplies ? WEEK_DAY : 0) | (weekEndChargeApplies ? WEEK_END : 0)
+                | (holidayChargeApplies ? HOLIDAY : 0)];
+    }
+
+    /**
+     * Retrieves the policy for the given mask of day classes.
+     *
+     * @param mask
+     *            combination of WEEK_DAY, WEEK_END and HOLIDAY
+     * @return ChargePolicy
+     */
+    public static ChargePolicy ofMask(int mask) {
+
+        if (mask < 0 || mask >= POLICIES.length) {
+            throw new IllegalArgumentException("Invalid charge policy mask " + mask);
+        }
+
+        return POLICIES[mask];
+    }
+
+    /**
+     * Retrieves the mask of day classes on which the charge applies.
+     *
+     * @return int
+     */
+    public int getMask() {
+        return mask;
+    }
+
+    /**
+     * Indicates if the charge applies to the given day class.
+     *
+     * @param dayClass
+     *            one of WEEK_DAY, WEEK_END or HOLIDAY
+     * @return boolean
+     */
+    public boolean appliesTo(int dayClass) {
+        return (mask & dayClass) != 0;
+    }
+
+    @Override
+    public String toString() {
+        return "ChargePolicy[weekDay=" + appliesTo(WEEK_DAY) + ", weekEnd=" + appliesTo(WEEK_END) + ", holiday="
+                + appliesTo(HOLIDAY) + "]";
+    }
+
+}
@@ -0,0 +1,72 @@
+package com.toolShop.pricing;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Arithmetic on amounts of money held as a long number of cents. The pricing
+ * path stays numeric and the amounts are only turned into currency strings
+ * when they are displayed. Every operation that can produce a fraction of a
+ * cent rounds half up.
+ *
+ * @author tadtab
+ *
+ */
+public class Money {
+
+    private static final int CENTS_PER_DOLLAR = 100;
+
+    /**
+     * Converts an amount of dollars to cents, rounded half up.
+     *
+     * @param amount
+     *            dollar amount to be converted
+     * @return long cents
+     */
+    public static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).movePointRight(2).longValueExact();
+    }
+
+    /**
+     * Converts cents to an amount of dollars with two decimal places.
+     *
+     * @param cents
+     *            amount to be converted
+     * @return BigDecimal
+     */
+    public static BigDecimal toDollars(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    /**
+     * Multiplies an amount by a count, for example the daily charge by the number
+     * of charge days.
+     *
+     * @param cents
+     *            amount to be multiplied
+     * @param count
+     *            multiplier
+     * @return long cents
+     */
+    public static long multiply(long cents, int count) {
+        return Math.multiplyExact(cents, (long) count);
+    }
+
+    /**
+     * Calculates a percentage of an amount, rounded half up to cents.
+     *
+     * @param cents
+     *            amount the percentage is taken from
+     * @param percent
+     *            percentage between 0 and 100
+     * @return long cents
+     */
+    public static long percentOf(long cents, int percent) {
+
+        long hundredths = Math.multiplyExact(Math.abs(cents), (long) percent);
+        long rounded = (hundredths + CENTS_PER_DOLLAR / 2) / CENTS_PER_DOLLAR;
+
+        return cents < 0 ? -rounded : rounded;
+    }
+
+}
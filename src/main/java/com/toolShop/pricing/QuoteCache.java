@@ -0,0 +1,258 @@
+package com.toolShop.pricing;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import com.toolShop.RentalAgreement;
+
+/**
+ * Bounded cache of priced agreements. Popular combinations of tool, checkout
+ * date, rental days and discount are priced once and the same immutable
+ * agreement is returned until it expires, is evicted or the prices change.
+ * 
+ * The cache is split into segments, each a least recently used map guarded by
+ * its own lock, so lookups of different keys rarely contend. The maximum size
+ * is spread over the segments, and small caches have fewer segments so each
+ * of them holds at least one entry. Every entry remembers the versions of the
+ * tool catalog and the holiday calendar it was priced with and is ignored once
+ * either of them changes.
+ * 
+ * @author tadtab
+ *
+ */
+public class QuoteCache {
+
+    private static final int SEGMENTS = 16;
+
+    private final Segment[] segments;
+    private final long timeToLiveNanos;
+    private final LongSupplier ticker;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Constructor with the size and the time to live of the cache.
+     * 
+     * @param maximumSize
+     *            maximum number of cached agreements
+     * @param timeToLive
+     *            time an agreement stays cached, zero or less for no limit
+     * @param unit
+     *            unit of the time to live
+     */
+    public QuoteCache(int maximumSize, long timeToLive, TimeUnit unit) {
+        this(maximumSize, timeToLive, unit, System::nanoTime);
+    }
+
+    /**
+     * Constructor with the clock used to expire the agreements.
+     * 
+     * @param maximumSize
+     *            maximum number of cached agreements
+     * @param timeToLive
+     *            time an agreement stays cached, zero or less for no limit
+     * @param unit
+     *            unit of the time to live
+     * @param ticker
+     *            current time in nanoseconds
+     */
+    public QuoteCache(int maximumSize, long timeToLive, TimeUnit unit, LongSupplier ticker) {
+
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("maximumSize must be positive");
+        }
+
+        // a power of two no larger than the maximum size
+        int segmentCount = Math.min(SEGMENTS, Integer.highestOneBit(maximumSize));
+        this.segments = new Segment[segmentCount];
+
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(maximumSize / segmentCount + (i < maximumSize % segmentCount ? 1 : 0));
+        }
+
+        this.timeToLiveNanos = timeToLive > 0 ? unit.toNanos(timeToLive) : Long.MAX_VALUE;
+        this.ticker = ticker;
+    }
+
+    /**
+     * Retrieves the cached agreement of a quote.
+     * 
+     * @param key
+     *            values entered at checkout
+     * @param catalogVersion
+     *            current version of the tool catalog
+     * @param calendarVersion
+     *            current version of the holiday calendar
+     * @return RentalAgreement or null if there is no valid cached agreement
+     */
+    public RentalAgreement get(QuoteKey key, long catalogVersion, int calendarVersion) {
+
+        Segment segment = segmentOf(key);
+        long now = ticker.getAsLong();
+
+        synchronized (segment) {
+
+            Entry entry = segment.get(key);
+
+            if (entry != null) {
+
+                if (entry.catalogVersion == catalogVersion && entry.calendarVersion == calendarVersion
+                        && !entry.isExpired(now)) {
+                    hits.increment();
+                    return entry.rentalAgreement;
+                }
+
+                segment.remove(key);
+                evictions.increment();
+            }
+        }
+
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Caches the agreement of a quote.
+     * 
+     * @param key
+     *            values entered at checkout
+     * @param rentalAgreement
+     *            agreement priced for the values
+     * @param catalogVersion
+     *            version of the tool catalog the agreement was priced with
+     * @param calendarVersion
+     *            version of the holiday calendar the agreement was priced with
+     */
+    public void put(QuoteKey key, RentalAgreement rentalAgreement, long catalogVersion, int calendarVersion) {
+
+        long expiresAt = timeToLiveNanos == Long.MAX_VALUE ? Long.MAX_VALUE : ticker.getAsLong() + timeToLiveNanos;
+        Entry entry = new Entry(rentalAgreement, catalogVersion, calendarVersion, expiresAt);
+        Segment segment = segmentOf(key);
+
+        synchronized (segment) {
+            segment.put(key, entry);
+        }
+    }
+
+    /**
+     * Removes all the cached agreements.
+     */
+    public void invalidateAll() {
+
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    /**
+     * Retrieves the number of cached agreements.
+     * 
+     * @return int
+     */
+    public int size() {
+
+        int size = 0;
+
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+
+        return size;
+    }
+
+    /**
+     * Retrieves the number of lookups which found a valid agreement.
+     * 
+     * @return long
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Retrieves the number of lookups which did not find a valid agreement.
+     * 
+     * @return long
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Retrieves the number of agreements removed because the cache was full, they
+     * expired or the prices changed.
+     * 
+     * @return long
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    private Segment segmentOf(QuoteKey key) {
+
+        int hash = key.hashCode();
+
+        return segments[(hash ^ (hash >>> 16)) & (segments.length - 1)];
+    }
+
+    /**
+     * Cached agreement with the versions it was priced with.
+     */
+    private static class Entry {
+
+        private final RentalAgreement rentalAgreement;
+        private final long catalogVersion;
+        private final int calendarVersion;
+        private final long expiresAt;
+
+        Entry(RentalAgreement rentalAgreement, long catalogVersion, int calendarVersion, long expiresAt) {
+            this.rentalAgreement = rentalAgreement;
+            this.catalogVersion = catalogVersion;
+            this.calendarVersion = calendarVersion;
+            this.expiresAt = expiresAt;
+        }
+
+        /**
+         * Compares the times as differences since the nano time may overflow.
+         */
+        boolean isExpired(long now) {
+            return expiresAt != Long.MAX_VALUE && now - expiresAt >= 0;
+        }
+    }
+
+    /**
+     * Least recently used map of a part of the keys.
+     */
+    private class Segment extends LinkedHashMap<QuoteKey, Entry> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int maximumSize;
+
+        Segment(int maximumSize) {
+            super(16, 0.75f, true);
+            this.maximumSize = maximumSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<QuoteKey, Entry> eldest) {
+
+            if (size() > maximumSize) {
+                evictions.increment();
+                return true;
+            }
+
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,69 @@
+package com.toolShop.pricing;
+
+import com.toolShop.ToolCode;
+
+/**
+ * Identifies a quote by the values entered at checkout. The checkout date is
+ * kept as entered so a cached quote is found without parsing the date.
+ * 
+ * @author tadtab
+ *
+ */
+public final class QuoteKey {
+
+    private final ToolCode toolCode;
+    private final String checkOutDate;
+    private final int rentalDayCount;
+    private final int discountPercent;
+    private final int hash;
+
+    /**
+     * Constructor with the values entered at checkout.
+     * 
+     * @param toolCode
+     *            identifies each tool
+     * @param checkOutDate
+     *            the date the tool is checked out, formatted as M/d/yy
+     * @param rentalDayCount
+     *            number of days the tool will be rented
+     * @param discountPercent
+     *            discount on the daily rental charge
+     */
+    public QuoteKey(ToolCode toolCode, String checkOutDate, int rentalDayCount, int discountPercent) {
+        this.toolCode = toolCode;
+        this.checkOutDate = checkOutDate;
+        this.rentalDayCount = rentalDayCount;
+        this.discountPercent = discountPercent;
+        this.hash = ((toolCode.hashCode() * 31 + checkOutDate.hashCode()) * 31 + rentalDayCount) * 31
+                + discountPercent;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+
+        if (this == obj) {
+            return true;
+        }
+
+        if (!(obj instanceof QuoteKey)) {
+            return false;
+        }
+
+        QuoteKey other = (QuoteKey) obj;
+
+        return toolCode == other.toolCode && rentalDayCount == other.rentalDayCount
+                && discountPercent == other.discountPercent && checkOutDate.equals(other.checkOutDate);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "QuoteKey[" + toolCode + ", " + checkOutDate + ", " + rentalDayCount + " days, " + discountPercent
+                + "%]";
+    }
+
+}
@@ -0,0 +1,315 @@
+package com.toolShop.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeParseException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.toolShop.CheckoutRequest;
+import com.toolShop.RentalAgreement;
+import com.toolShop.RentalPricingService;
+import com.toolShop.ToolCode;
+import com.toolShop.exception.InvalidDiscountPercentException;
+import com.toolShop.exception.InvalidRentalDayCountException;
+import com.toolShop.export.JsonAgreementWriter;
+
+/**
+ * Embedded HTTP front end quoting rentals with a RentalPricingService. A quote
+ * is requested with
+ *
+ * <pre>
+ * GET /quote?tool=LADW&amp;days=3&amp;discount=10&amp;date=7/2/20
+ * </pre>
+ *
+ * and answered with the rental agreement as a JSON object, or with status 400
+ * and an error object if the values are invalid. Failures of the pricing itself
+ * are answered with status 500.
+ *
+ * Every request is handled on its own thread: a virtual thread when the JDK
+ * has them, otherwise a thread of a cached pool. The JSON encoders are pooled,
+ * so answering a quote only allocates what the JDK server itself needs.
+ *
+ * The JDK server writes the headers and the body separately, and with Nagle's
+ * algorithm the body then waits for the delayed ack of the client. Run the JVM
+ * with -Dsun.net.httpserver.nodelay=true to avoid that delay, as
+ * QuoteServerCommand does.
+ *
+ * @author tadtab
+ *
+ */
+public class QuoteServer implements Closeable {
+
+    /**
+     * Path of the quoting endpoint.
+     */
+    public static final String QUOTE_PATH = "/quote";
+
+    private static final int BACKLOG = 1024;
+
+    private static final int ENCODER_BUFFER_SIZE = 1024;
+
+    private final RentalPricingService rentalPricingService;
+    private final HttpServer httpServer;
+    private final ExecutorService executor;
+    private final Queue<QuoteEncoder> encoders = new ConcurrentLinkedQueue<QuoteEncoder>();
+
+    /**
+     * Constructor binding the server to an address. Requests are only accepted
+     * once the server is started.
+     *
+     * @param rentalPricingService
+     *            service pricing the quotes
+     * @param address
+     *            address to listen on, port 0 for any free port
+     * @throws IOException
+     *             thrown if the address cannot be bound
+     */
+    public QuoteServer(RentalPricingService rentalPricingService, InetSocketAddress address) throws IOException {
+        this.rentalPricingService = rentalPricingService;
+        this.httpServer = HttpServer.create(address, BACKLOG);
+        this.executor = newRequestExecutor();
+        this.httpServer.setExecutor(executor);
+        this.httpServer.createContext(QUOTE_PATH, this::handle);
+    }
+
+    /**
+     * Starts accepting requests.
+     */
+    public void start() {
+        httpServer.start();
+    }
+
+    /**
+     * Retrieves the port the server listens on.
+     *
+     * @return int
+     */
+    public int getPort() {
+        return httpServer.getAddress().getPort();
+    }
+
+    /**
+     * Stops accepting requests, waits a second for the requests being handled and
+     * stops the request threads.
+     */
+    @Override
+    public void close() {
+        httpServer.stop(1);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Creates the executor running one thread per request. Virtual threads are
+     * looked up reflectively because the project still compiles for Java 8.
+     *
+     * @return ExecutorService
+     */
+    static ExecutorService newRequestExecutor() {
+
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", "GET");
+                sendError(exchange, 405, "Only GET is supported");
+                return;
+            }
+
+            if (!QUOTE_PATH.equals(exchange.getRequestURI().getPath())) {
+                sendError(exchange, 404, "Not found");
+                return;
+            }
+
+            CheckoutRequest request;
+
+            try {
+                request = parseRequest(exchange.getRequestURI().getRawQuery());
+            } catch (IllegalArgumentException e) {
+                sendError(exchange, 400, e.getMessage());
+                return;
+            }
+
+            if (rentalPricingService.getToolCatalog().get(request.getToolCode()) == null) {
+                sendError(exchange, 400, "Tool is not rented out");
+                return;
+            }
+
+            RentalAgreement rentalAgreement;
+
+            try {
+                rentalAgreement = rentalPricingService.checkOut(request);
+            } catch (InvalidDiscountPercentException e) {
+                sendError(exchange, 400, "Discount percent must be between 0 and 100");
+                return;
+            } catch (InvalidRentalDayCountException e) {
+                sendError(exchange, 400, "Rental day count must be 1 or greater");
+                return;
+            } catch (DateTimeParseException e) {
+                sendError(exchange, 400, "Date must be formatted as M/d/yy");
+                return;
+            } catch (ArithmeticException e) {
+                sendError(exchange, 400, "Rental day count is too large");
+                return;
+            } catch (RuntimeException e) {
+                sendError(exchange, 500, "Quote could not be priced");
+                throw e;
+            }
+
+            sendAgreement(exchange, rentalAgreement);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Reads the checkout values from the query string.
+     *
+     * @throws IllegalArgumentException
+     *             thrown if a value is missing or not a number
+     */
+    static CheckoutRequest parseRequest(String rawQuery) {
+
+        String tool = null;
+        String days = null;
+        String discount = null;
+        String date = null;
+
+        if (rawQuery != null) {
+            for (String parameter : rawQuery.split("&")) {
+
+                int equals = parameter.indexOf('=');
+                if (equals < 0) {
+                    continue;
+                }
+
+                String name = parameter.substring(0, equals);
+                String value = decode(parameter.substring(equals + 1));
+
+                switch (name) {
+                case "tool":
+                    tool = value;
+                    break;
+                case "days":
+                    days = value;
+                    break;
+                case "discount":
+                    discount = value;
+                    break;
+                case "date":
+                    date = value;
+                    break;
+                default:
+                    break;
+                }
+            }
+        }
+
+        if (tool == null || days == null || date == null) {
+            throw new IllegalArgumentException("Parameters tool, days and date are required");
+        }
+
+        ToolCode toolCode;
+
+        try {
+            toolCode = ToolCode.valueOf(tool);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown tool code");
+        }
+
+        try {
+            return new CheckoutRequest(toolCode, Integer.parseInt(days),
+                    discount == null ? 0 : Integer.parseInt(discount), date);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Days and discount must be whole numbers");
+        }
+    }
+
+    private static String decode(String value) {
+
+        try {
+            return URLDecoder.decode(value, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void sendAgreement(HttpExchange exchange, RentalAgreement rentalAgreement) throws IOException {
+
+        QuoteEncoder encoder = encoders.poll();
+
+        if (encoder == null) {
+            encoder = new QuoteEncoder();
+        }
+
+        try {
+            ByteArrayOutputStream json = encoder.encode(rentalAgreement);
+
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, json.size());
+
+            try (OutputStream body = exchange.getResponseBody()) {
+                json.writeTo(body);
+            }
+        } finally {
+            encoders.offer(encoder);
+        }
+    }
+
+    /**
+     * Answers with an error object. The messages are fixed texts, so they need no
+     * escaping.
+     */
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+
+        byte[] json = ("{\"error\":\"" + message + "\"}\n").getBytes(StandardCharsets.UTF_8);
+
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, json.length);
+
+        try (OutputStream body = exchange.getResponseBody()) {
+            body.write(json);
+        }
+    }
+
+    /**
+     * JSON writer of single agreements into a reusable byte array. Used by one
+     * request at a time.
+     */
+    private static class QuoteEncoder {
+
+        private final ByteArrayOutputStream json = new ByteArrayOutputStream(ENCODER_BUFFER_SIZE);
+        private final JsonAgreementWriter writer = new JsonAgreementWriter(Channels.newChannel(json),
+                ENCODER_BUFFER_SIZE, false);
+
+        ByteArrayOutputStream encode(RentalAgreement rentalAgreement) throws IOException {
+
+            json.reset();
+            writer.write(rentalAgreement);
+            writer.flush();
+
+            return json;
+        }
+    }
+
+}
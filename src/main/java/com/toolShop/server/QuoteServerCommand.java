@@ -0,0 +1,59 @@
+package com.toolShop.server;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+
+import com.toolShop.RentalPricingService;
+import com.toolShop.ToolCatalog;
+import com.toolShop.calendar.HolidayCalendar;
+import com.toolShop.pricing.QuoteCache;
+
+/**
+ * Command line entry point running the quoting server with the tools of the
+ * shop until the process is stopped:
+ *
+ * <pre>
+ * java -cp tool-shop.jar com.toolShop.server.QuoteServerCommand [port]
+ * </pre>
+ *
+ * The server listens on port 8080 unless another port is given. Unless set
+ * otherwise on the command line, sun.net.httpserver.nodelay is set to true
+ * before the server starts, so answers are not held back by Nagle's algorithm.
+ *
+ * @author tadtab
+ *
+ */
+public class QuoteServerCommand {
+
+    private static final int DEFAULT_PORT = 8080;
+
+    private static final int CACHED_QUOTES = 100000;
+
+    private static final String NO_DELAY_PROPERTY = "sun.net.httpserver.nodelay";
+
+    public static void main(String[] args) throws IOException {
+
+        if (args.length > 1) {
+            System.err.println("Usage: QuoteServerCommand [port]");
+            System.exit(2);
+        }
+
+        int port = args.length == 1 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+
+        // read by the JDK server when it is first used
+        if (System.getProperty(NO_DELAY_PROPERTY) == null) {
+            System.setProperty(NO_DELAY_PROPERTY, "true");
+        }
+
+        RentalPricingService rentalPricingService = new RentalPricingService(ToolCatalog.createDefault(),
+                HolidayCalendar.getDefault(), new QuoteCache(CACHED_QUOTES, 1, TimeUnit.HOURS));
+
+        QuoteServer quoteServer = new QuoteServer(rentalPricingService, new InetSocketAddress(port));
+        Runtime.getRuntime().addShutdownHook(new Thread(quoteServer::close));
+        quoteServer.start();
+
+        System.out.println("Quoting on http://localhost:" + quoteServer.getPort() + QuoteServer.QUOTE_PATH);
+    }
+
+}
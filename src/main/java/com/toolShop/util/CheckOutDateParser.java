@@ -0,0 +1,137 @@
+package com.toolShop.util;
+
+import java.time.format.DateTimeParseException;
+
+/**
+ * Parser of checkout dates formatted as M/d/yy, straight into an epoch day.
+ * It accepts exactly what DateTimeFormatter.ofPattern("M/d/yy") accepts:
+ * month and day are one or more ASCII digits, the year is exactly two digits
+ * of the years 2000 to 2099, and a day past the end of its month, like 2/30/20
+ * or 4/31/15, is moved back to the last day of the month. Nothing is allocated
+ * unless the text is invalid.
+ *
+ * @author tadtab
+ *
+ */
+public class CheckOutDateParser {
+
+    /**
+     * Returned by the byte parser for text which is not a valid date.
+     */
+    public static final int INVALID = Integer.MIN_VALUE;
+
+    /**
+     * Most digits DateTimeFormatter reads for the month and the day.
+     */
+    private static final int MAX_FIELD_DIGITS = 19;
+
+    private static final int BASE_YEAR = 2000;
+
+    /**
+     * Parses a date formatted as M/d/yy.
+     *
+     * @param text
+     *            date to be parsed
+     * @return epoch day
+     * @throws DateTimeParseException
+     *             thrown if the text is not a valid date
+     */
+    public static int parseEpochDay(CharSequence text) {
+
+        int epochDay = parse(text, null, 0, text.length());
+
+        if (epochDay == INVALID) {
+            throw new DateTimeParseException("Text '" + text + "' could not be parsed as M/d/yy", text, 0);
+        }
+
+        return epochDay;
+    }
+
+    /**
+     * Parses a date formatted as M/d/yy from ASCII bytes.
+     *
+     * @param bytes
+     *            bytes holding the date
+     * @param start
+     *            index of the first byte of the date
+     * @param end
+     *            index after the last byte of the date
+     * @return epoch day or INVALID if the bytes are not a valid date
+     */
+    public static int parseEpochDay(byte[] bytes, int start, int end) {
+        return parse(null, bytes, start, end);
+    }
+
+    /**
+     * Parses from either the text or the bytes.
+     */
+    private static int parse(CharSequence text, byte[] bytes, int start, int end) {
+
+        int position = start;
+
+        // month
+        int digitsStart = position;
+        int month = 0;
+
+        while (position < end && position - digitsStart < MAX_FIELD_DIGITS) {
+
+            int digit = charAt(text, bytes, position) - '0';
+            if (digit < 0 || digit > 9) {
+                break;
+            }
+
+            month = month > 12 ? month : month * 10 + digit;
+            position++;
+        }
+
+        if (position == digitsStart || month < 1 || month > 12 || position == end
+                || charAt(text, bytes, position) != '/') {
+            return INVALID;
+        }
+
+        position++;
+
+        // day
+        digitsStart = position;
+        int day = 0;
+
+        while (position < end && position - digitsStart < MAX_FIELD_DIGITS) {
+
+            int digit = charAt(text, bytes, position) - '0';
+            if (digit < 0 || digit > 9) {
+                break;
+            }
+
+            day = day > 31 ? day : day * 10 + digit;
+            position++;
+        }
+
+        if (position == digitsStart || day < 1 || day > 31 || position == end
+                || charAt(text, bytes, position) != '/') {
+            return INVALID;
+        }
+
+        position++;
+
+        // two digit year
+        if (end - position != 2) {
+            return INVALID;
+        }
+
+        int tens = charAt(text, bytes, position) - '0';
+        int units = charAt(text, bytes, position + 1) - '0';
+
+        if (tens < 0 || tens > 9 || units < 0 || units > 9) {
+            return INVALID;
+        }
+
+        int year = BASE_YEAR + tens * 10 + units;
+
+        return EpochDays.of(year, month, Math.min(day, EpochDays.lengthOfMonth(year, month)));
+    }
+
+    private static char charAt(CharSequence text, byte[] bytes, int index) {
+        return text != null ? text.charAt(index) : (char) (bytes[index] & 0xFF);
+    }
+
+}
@@ -0,0 +1,207 @@
+package com.toolShop.util;
+
+/**
+ * Calendar arithmetic on dates held as int epoch days, days since 1970-01-01
+ * like LocalDate.toEpochDay. The pricing works on epoch days so that stepping
+ * through a rental, finding a day of week or a year never creates objects;
+ * dates are turned into LocalDate only where they leave the shop's API.
+ *
+ * @author tadtab
+ *
+ */
+public final class EpochDays {
+
+    /**
+     * Day of week index of Monday, the first day of the week.
+     */
+    public static final int MONDAY = 0;
+
+    /**
+     * Day of week index of Saturday, the first day of the weekend.
+     */
+    public static final int SATURDAY = 5;
+
+    /**
+     * Day of week index of Sunday, the last day of the week.
+     */
+    public static final int SUNDAY = 6;
+
+    /**
+     * Number of days in a week.
+     */
+    public static final int DAYS_PER_WEEK = 7;
+
+    private static final long DAYS_0000_TO_1970 = 719528;
+
+    private static final long DAYS_PER_400_YEARS = 146097;
+
+    private static final long DAYS_0000_TO_MARCH = 60;
+
+    private static final long DAYS_MARCH_TO_JANUARY = 306;
+
+    private EpochDays() {
+    }
+
+    /**
+     * Converts a date to an epoch day, like LocalDate.of(year, month,
+     * dayOfMonth).toEpochDay() for a valid date.
+     *
+     * @param year
+     *            the year
+     * @param month
+     *            month of year from 1 to 12
+     * @param dayOfMonth
+     *            day of month from 1
+     * @return epoch day
+     */
+    public static int of(int year, int month, int dayOfMonth) {
+
+        long y = year;
+        long total = 365 * y;
+
+        if (y >= 0) {
+            total += (y + 3) / 4 - (y + 99) / 100 + (y + 399) / 400;
+        } else {
+            total -= y / -4 - y / -100 + y / -400;
+        }
+
+        total += (367 * month - 362) / 12;
+        total += dayOfMonth - 1;
+
+        if (month > 2) {
+            total--;
+            if (!isLeapYear(year)) {
+                total--;
+            }
+        }
+
+        return Math.toIntExact(total - DAYS_0000_TO_1970);
+    }
+
+    /**
+     * Day of week of an epoch day where Monday is 0 and Sunday is 6. Epoch day 0
+     * (1970-01-01) was a Thursday.
+     *
+     * @param epochDay
+     *            the day to be examined
+     * @return index of the day of week
+     */
+    public static int dayOfWeek(int epochDay) {
+        return Math.floorMod(epochDay + 3, DAYS_PER_WEEK);
+    }
+
+    /**
+     * Checks if an epoch day is a Saturday or a Sunday.
+     *
+     * @param epochDay
+     *            the day to be examined
+     * @return boolean
+     */
+    public static boolean isWeekEnd(int epochDay) {
+        return dayOfWeek(epochDay) >= SATURDAY;
+    }
+
+    /**
+     * Retrieves the year of an epoch day.
+     *
+     * @param epochDay
+     *            the day to be examined
+     * @return year
+     */
+    public static int yearOf(int epochDay) {
+
+        long shifted = epochDay + DAYS_0000_TO_1970 - DAYS_0000_TO_MARCH;
+        long era = Math.floorDiv(shifted, DAYS_PER_400_YEARS);
+        long dayOfEra = shifted - era * DAYS_PER_400_YEARS;
+        long yearOfEra = yearOfEra(dayOfEra);
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+
+        // the year counted from March ends with January and February of the next year
+        return (int) (yearOfEra + era * 400 + (dayOfYear >= DAYS_MARCH_TO_JANUARY ? 1 : 0));
+    }
+
+    /**
+     * Converts an epoch day to its year, month and day of month packed in one
+     * number as year * 10000 + month * 100 + day, so 2020-07-02 is 20200702. The
+     * packed date is exact for the years 0 to 214747.
+     *
+     * @param epochDay
+     *            the day to be converted
+     * @return packed date
+     */
+    public static int toYearMonthDay(int epochDay) {
+
+        // counted in eras of 400 years starting on March 1st, so leap days end a year
+        long shifted = epochDay + DAYS_0000_TO_1970 - DAYS_0000_TO_MARCH;
+        long era = Math.floorDiv(shifted, DAYS_PER_400_YEARS);
+        long dayOfEra = shifted - era * DAYS_PER_400_YEARS;
+        long yearOfEra = yearOfEra(dayOfEra);
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long shiftedMonth = (5 * dayOfYear + 2) / 153;
+
+        int dayOfMonth = (int) (dayOfYear - (153 * shiftedMonth + 2) / 5 + 1);
+        int month = (int) (shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9);
+        int year = (int) (yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
+
+        return year * 10000 + month * 100 + dayOfMonth;
+    }
+
+    /**
+     * Year within an era of 400 years starting on March 1st, leaving out the leap
+     * days of every 4th, 100th and 400th year.
+     */
+    private static long yearOfEra(long dayOfEra) {
+        return (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+    }
+
+    /**
+     * Adds days to an epoch day.
+     *
+     * @param epochDay
+     *            the day days are added to
+     * @param days
+     *            number of days to be added
+     * @return epoch day
+     * @throws ArithmeticException
+     *             thrown if the result does not fit an int
+     */
+    public static int plusDays(int epochDay, int days) {
+        return Math.addExact(epochDay, days);
+    }
+
+    /**
+     * Checks if a year is a leap year of the ISO calendar.
+     *
+     * @param year
+     *            the year to be examined
+     * @return boolean
+     */
+    public static boolean isLeapYear(int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    /**
+     * Retrieves the number of days of a month.
+     *
+     * @param year
+     *            the year of the month
+     * @param month
+     *            month of year from 1 to 12
+     * @return number of days
+     */
+    public static int lengthOfMonth(int year, int month) {
+
+        switch (month) {
+        case 2:
+            return isLeapYear(year) ? 29 : 28;
+        case 4:
+        case 6:
+        case 9:
+        case 11:
+            return 30;
+        default:
+            return 31;
+        }
+    }
+
+}
@@ -2,30 +2,79 @@ package com.toolShop.util;
 
 import java.math.BigDecimal;
 import java.text.NumberFormat;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import com.toolShop.metrics.CheckoutMetrics;
+import com.toolShop.metrics.CheckoutStage;
 
 /**
- * Utility class for adding currency and percent sign 
+ * Utility class for adding currency and percent sign. NumberFormat is not
+ * thread safe and expensive to look up, so every thread keeps its own
+ * instances per locale.
  * @author tadtab
  *
  */
 public class NumberStringFormatter {
 
+    private static final ThreadLocal<Map<Locale, NumberFormat>> CURRENCY_FORMATS = ThreadLocal
+            .withInitial(HashMap::new);
+
+    private static final ThreadLocal<Map<Locale, NumberFormat>> PERCENT_FORMATS = ThreadLocal
+            .withInitial(HashMap::new);
+
     /**
      * Adds currency symbol $ to the amount specified
      * @param currencyAmount string representation of the formated currency
      * @return
      */
     public static String addCurrencySign(BigDecimal currencyAmount) {
-        return NumberFormat.getCurrencyInstance().format(currencyAmount);
+        return addCurrencySign(currencyAmount, defaultLocale());
+    }
+
+    /**
+     * Adds the currency symbol of the given locale to the amount specified
+     * @param currencyAmount amount to be formatted
+     * @param locale locale of the currency
+     * @return String
+     */
+    public static String addCurrencySign(BigDecimal currencyAmount, Locale locale) {
+        return CURRENCY_FORMATS.get().computeIfAbsent(locale, NumberFormat::getCurrencyInstance)
+                .format(currencyAmount);
     }
 
     /**
-     * Removes the currency sign and returns the currency amount
+     * Adds currency symbol $ to the amount of cents specified
+     * @param cents amount in cents
+     * @return String
+     */
+    public static String formatCents(long cents) {
+
+        long startTime = CheckoutMetrics.startTime();
+        String formatted = addCurrencySign(BigDecimal.valueOf(cents, 2));
+        CheckoutMetrics.stageEnded(CheckoutStage.MONEY_FORMATTING, startTime);
+
+        return formatted;
+    }
+
+    /**
+     * Adds the currency symbol of the given locale to the amount of cents specified
+     * @param cents amount in cents
+     * @param locale locale of the currency
+     * @return String
+     */
+    public static String formatCents(long cents, Locale locale) {
+        return addCurrencySign(BigDecimal.valueOf(cents, 2), locale);
+    }
+
+    /**
+     * Removes the currency sign and grouping separators and returns the currency amount
      * @param str string to be reformatted
      * @return BigDecimal 
      */
     public static BigDecimal convertStringToBigDecimal(String str) {
-        String dailyChargeAmount = str.substring(1);
+        String dailyChargeAmount = str.replace("$", "").replace(",", "");
 
         return new BigDecimal(dailyChargeAmount);
 
@@ -37,8 +86,25 @@ public class NumberStringFormatter {
      * @return String result of the conversion
      */
     public static String addPercentSign(int amount) {
+        return addPercentSign(amount, defaultLocale());
+    }
+
+    /**
+     * Adds a percent sign to the numerical values using the given locale
+     * @param amount numerical value to be formatted
+     * @param locale locale of the percent format
+     * @return String result of the conversion
+     */
+    public static String addPercentSign(int amount, Locale locale) {
         double newAmount = (double) amount / 100;
-        return NumberFormat.getPercentInstance().format(newAmount);
+        return PERCENT_FORMATS.get().computeIfAbsent(locale, NumberFormat::getPercentInstance).format(newAmount);
+    }
+
+    /**
+     * Locale used by NumberFormat when none is specified
+     */
+    private static Locale defaultLocale() {
+        return Locale.getDefault(Locale.Category.FORMAT);
     }
 
 }
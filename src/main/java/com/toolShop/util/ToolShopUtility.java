@@ -1,34 +1,42 @@
 package com.toolShop.util;
 
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeFormatterBuilder;
-import java.util.Locale;
 
 /**
  * Utility class for converting string represented date to LocalDate and add
- * days to it.
+ * days to it. DateTimeFormatter is immutable and thread safe, so the formatters
+ * are created once. Checkout dates are read by CheckOutDateParser.
  * 
  * @author tadtab
  *
  */
 public class ToolShopUtility {
 
+    /**
+     * Format of LocalDate.toString()
+     */
+    private static final DateTimeFormatter ISO_DATE_FORMATTER = new DateTimeFormatterBuilder()
+            .appendPattern("yyyy-MM-dd").toFormatter();
+
+    /**
+     * Format of the dates printed on the rental agreement
+     */
+    private static final DateTimeFormatter DISPLAY_DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy/MM/dd");
+
     /**
      * String parser for converting date with format M/d/yy to a LocalDate
      * 
      * @param date
      *            that is converted to LocalDate
      * @return LocalDate
+     * @throws java.time.format.DateTimeParseException
+     *             thrown if the date is not formatted as M/d/yy
      */
     public static LocalDate convertStringToLocalDate(String date) {
 
-        String inputString = date;
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("M/d/yy");
-
-        return LocalDate.parse(inputString, formatter);
+        return LocalDate.ofEpochDay(CheckOutDateParser.parseEpochDay(date));
 
     }
 
@@ -41,12 +49,22 @@ public class ToolShopUtility {
      */
     public static String convertADateFormatToAnothorDateFormat(String date) {
 
-        DateTimeFormatter f = new DateTimeFormatterBuilder().appendPattern("yyyy-MM-dd").toFormatter();
+        LocalDate parsedDate = LocalDate.parse(date, ISO_DATE_FORMATTER);
 
-        LocalDate parsedDate = LocalDate.parse(date, f);
-        DateTimeFormatter f2 = DateTimeFormatter.ofPattern("yyyy/MM/dd");
+        return formatLocalDate(parsedDate);
+
+    }
+
+    /**
+     * Formats a LocalDate as yyyy/MM/dd for display
+     * 
+     * @param date
+     *            date to be formatted
+     * @return String
+     */
+    public static String formatLocalDate(LocalDate date) {
 
-        return parsedDate.format(f2);
+        return DISPLAY_DATE_FORMATTER.format(date);
 
     }
 
@@ -0,0 +1,242 @@
+package com.toolShop.workload;
+
+import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.toolShop.CheckoutRequest;
+import com.toolShop.RentalTool;
+import com.toolShop.ToolCatalog;
+import com.toolShop.exception.InvalidDiscountPercentException;
+import com.toolShop.exception.InvalidRentalDayCountException;
+
+/**
+ * Checks out generated requests with RentalTool.checkOut from several threads
+ * for a given time, and prints a line per interval with the checkouts per
+ * second, the rejected requests, the garbage collections and their time, and
+ * the heap in use:
+ *
+ * <pre>
+ * java -cp tool-shop.jar com.toolShop.workload.SoakTestRunner [seconds] [threads] [seed]
+ * </pre>
+ *
+ * By default it runs for 60 seconds on as many threads as there are
+ * processors, with seed 0. The threads take the requests in blocks of
+ * consecutive numbers, so every request of the generator is checked out once.
+ *
+ * @author tadtab
+ *
+ */
+public class SoakTestRunner {
+
+    private static final int DEFAULT_SECONDS = 60;
+
+    private static final long REPORT_INTERVAL_MILLIS = 5000;
+
+    private static final int REQUESTS_PER_BLOCK = 1024;
+
+    private final WorkloadGenerator workloadGenerator;
+    private final ToolCatalog toolCatalog;
+    private final int threads;
+
+    private final AtomicLong nextRequest = new AtomicLong();
+    private final LongAdder checkouts = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+
+    private volatile boolean running;
+
+    /**
+     * Constructor taking the requests, the tools they are checked out with and
+     * the number of threads checking out.
+     *
+     * @param workloadGenerator
+     *            requests to be checked out
+     * @param toolCatalog
+     *            tools of the shop
+     * @param threads
+     *            number of threads checking out in parallel
+     */
+    public SoakTestRunner(WorkloadGenerator workloadGenerator, ToolCatalog toolCatalog, int threads) {
+
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be positive");
+        }
+
+        this.workloadGenerator = workloadGenerator;
+        this.toolCatalog = toolCatalog;
+        this.threads = threads;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+
+        if (args.length > 3) {
+            System.err.println("Usage: SoakTestRunner [seconds] [threads] [seed]");
+            System.exit(2);
+        }
+
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_SECONDS;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 0;
+
+        WorkloadGenerator workloadGenerator = new WorkloadGenerator.Builder().seed(seed).invalidShare(0.001)
+                .build();
+
+        new SoakTestRunner(workloadGenerator, ToolCatalog.createDefault(), threads)
+                .run(TimeUnit.SECONDS.toMillis(seconds), REPORT_INTERVAL_MILLIS, System.out);
+    }
+
+    /**
+     * Checks out requests for the given time, printing a line every interval and
+     * the totals at the end.
+     *
+     * @param durationMillis
+     *            how long the requests are checked out
+     * @param reportIntervalMillis
+     *            time between the printed lines
+     * @param out
+     *            stream the lines are printed to
+     * @throws InterruptedException
+     */
+    public void run(long durationMillis, long reportIntervalMillis, PrintStream out) throws InterruptedException {
+
+        List<Thread> workers = new ArrayList<Thread>(threads);
+        running = true;
+
+        for (int i = 0; i < threads; i++) {
+            Thread worker = new Thread(this::checkOutUntilStopped, "soak-" + i);
+            worker.setDaemon(true);
+            workers.add(worker);
+        }
+
+        long startTime = System.nanoTime();
+        Sample last = new Sample(startTime, checkouts.sum(), rejections.sum());
+
+        workers.forEach(Thread::start);
+
+        out.printf("%8s %12s %10s %6s %8s %10s %10s%n", "seconds", "checkouts/s", "rejected", "gcs", "gc ms",
+                "heap MB", "of MB");
+
+        try {
+            long endTime = startTime + TimeUnit.MILLISECONDS.toNanos(durationMillis);
+
+            for (long now = System.nanoTime(); now < endTime; now = System.nanoTime()) {
+
+                TimeUnit.NANOSECONDS.sleep(Math.min(TimeUnit.MILLISECONDS.toNanos(reportIntervalMillis),
+                        endTime - now));
+
+                Sample sample = new Sample(System.nanoTime(), checkouts.sum(), rejections.sum());
+                print(out, startTime, last, sample);
+                last = sample;
+            }
+
+        } finally {
+            running = false;
+
+            for (Thread worker : workers) {
+                worker.join();
+            }
+        }
+
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+
+        out.printf("total %d checkouts, %.0f/s, %d rejected%n", checkouts.sum(), checkouts.sum() / seconds,
+                rejections.sum());
+    }
+
+    /**
+     * Retrieves the number of requests checked out so far.
+     *
+     * @return long
+     */
+    public long getCheckouts() {
+        return checkouts.sum();
+    }
+
+    /**
+     * Retrieves the number of requests rejected by checkout so far.
+     *
+     * @return long
+     */
+    public long getRejections() {
+        return rejections.sum();
+    }
+
+    private void checkOutUntilStopped() {
+
+        while (running) {
+
+            long first = nextRequest.getAndAdd(REQUESTS_PER_BLOCK);
+            long checkedOut = 0;
+
+            for (long index = first; index < first + REQUESTS_PER_BLOCK; index++) {
+
+                CheckoutRequest request = workloadGenerator.request(index);
+                RentalTool rentalTool = toolCatalog.get(request.getToolCode());
+
+                try {
+                    rentalTool.checkOut(request.getToolCode(), request.getRentalDayCount(),
+                            request.getDiscountPercent(), request.getCheckOutDate());
+                    checkedOut++;
+
+                } catch (InvalidDiscountPercentException | InvalidRentalDayCountException e) {
+                    rejections.increment();
+                }
+            }
+
+            checkouts.add(checkedOut);
+        }
+    }
+
+    private static void print(PrintStream out, long startTime, Sample last, Sample sample) {
+
+        double intervalSeconds = (sample.time - last.time) / 1e9;
+
+        out.printf("%8.1f %12.0f %10d %6d %8d %10d %10d%n", (sample.time - startTime) / 1e9,
+                (sample.checkouts - last.checkouts) / intervalSeconds, sample.rejections - last.rejections,
+                sample.gcCount - last.gcCount, sample.gcMillis - last.gcMillis, sample.heapUsed >> 20,
+                sample.heapCommitted >> 20);
+    }
+
+    /**
+     * Counters and JVM state read at one time.
+     */
+    private static final class Sample {
+
+        final long time;
+        final long checkouts;
+        final long rejections;
+        final long gcCount;
+        final long gcMillis;
+        final long heapUsed;
+        final long heapCommitted;
+
+        Sample(long time, long checkouts, long rejections) {
+
+            this.time = time;
+            this.checkouts = checkouts;
+            this.rejections = rejections;
+
+            long count = 0;
+            long millis = 0;
+
+            for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+                count += Math.max(0, collector.getCollectionCount());
+                millis += Math.max(0, collector.getCollectionTime());
+            }
+
+            MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+
+            this.gcCount = count;
+            this.gcMillis = millis;
+            this.heapUsed = heap.getUsed();
+            this.heapCommitted = heap.getCommitted();
+        }
+    }
+
+}
@@ -0,0 +1,427 @@
+package com.toolShop.workload;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import com.toolShop.CheckoutRequest;
+import com.toolShop.ToolCode;
+import com.toolShop.util.EpochDays;
+
+/**
+ * Produces synthetic checkout requests for load and soak testing. Tool codes,
+ * rental days and discount percents are drawn with configurable weights, and a
+ * share of the checkout dates is clustered around July 4th and Labor Day,
+ * where the holiday pricing is exercised; the other dates are spread over the
+ * years evenly.
+ *
+ * The generator is deterministic: the n-th request depends only on the seed
+ * and n, so the same seed always produces the same requests, in sequential or
+ * parallel streams alike, and a run can be replayed from any request.
+ *
+ * Immutable, built with a Builder and shared by threads freely.
+ *
+ * @author tadtab
+ *
+ */
+public final class WorkloadGenerator {
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private static final ToolCode[] TOOL_CODES = ToolCode.values();
+
+    private static final int FIRST_YEAR = 2000;
+    private static final int LAST_YEAR = 2099;
+
+    private final long seed;
+    private final Choice toolCodes;
+    private final Choice rentalDays;
+    private final Choice discountPercents;
+    private final int firstYear;
+    private final int lastYear;
+    private final double holidayShare;
+    private final int holidaySpread;
+    private final double invalidShare;
+
+    private WorkloadGenerator(Builder builder) {
+        this.seed = builder.seed;
+        this.toolCodes = new Choice(builder.toolCodeWeights);
+        this.rentalDays = new Choice(builder.rentalDayWeights);
+        this.discountPercents = new Choice(builder.discountPercentWeights);
+        this.firstYear = builder.firstYear;
+        this.lastYear = builder.lastYear;
+        this.holidayShare = builder.holidayShare;
+        this.holidaySpread = builder.holidaySpread;
+        this.invalidShare = builder.invalidShare;
+    }
+
+    /**
+     * Produces the request with the given number.
+     *
+     * @param index
+     *            number of the request, from 0
+     * @return CheckoutRequest
+     */
+    public CheckoutRequest request(long index) {
+
+        long state = mix(seed + mix(index * GOLDEN_GAMMA));
+
+        ToolCode toolCode = TOOL_CODES[toolCodes.pick(mix(state += GOLDEN_GAMMA))];
+        int rentalDayCount = rentalDays.pick(mix(state += GOLDEN_GAMMA));
+        int discountPercent = discountPercents.pick(mix(state += GOLDEN_GAMMA));
+
+        int year = firstYear + (int) bounded(mix(state += GOLDEN_GAMMA), lastYear - firstYear + 1);
+        int checkOutDay;
+
+        if (unit(mix(state += GOLDEN_GAMMA)) < holidayShare) {
+
+            // two draws add up to offsets most likely on the holiday itself
+            int offset = (int) bounded(mix(state += GOLDEN_GAMMA), holidaySpread + 1)
+                    - (int) bounded(mix(state += GOLDEN_GAMMA), holidaySpread + 1);
+            boolean fourthOfJuly = (mix(state += GOLDEN_GAMMA) & 1) == 0;
+
+            checkOutDay = (fourthOfJuly ? EpochDays.of(year, 7, 4) : laborDayOf(year)) + offset;
+
+        } else {
+            checkOutDay = EpochDays.of(year, 1, 1)
+                    + (int) bounded(mix(state += GOLDEN_GAMMA), EpochDays.isLeapYear(year) ? 366 : 365);
+        }
+
+        if (invalidShare > 0 && unit(mix(state += GOLDEN_GAMMA)) < invalidShare) {
+
+            if ((mix(state += GOLDEN_GAMMA) & 1) == 0) {
+                rentalDayCount = 0;
+            } else {
+                discountPercent = 101;
+            }
+        }
+
+        return new CheckoutRequest(toolCode, rentalDayCount, discountPercent, format(checkOutDay));
+    }
+
+    /**
+     * Produces the first requests as a stream. The stream may be run in
+     * parallel without changing the requests.
+     *
+     * @param count
+     *            number of requests
+     * @return stream of requests 0 to count - 1
+     */
+    public Stream<CheckoutRequest> requests(long count) {
+        return LongStream.range(0, count).mapToObj(this::request);
+    }
+
+    /**
+     * Produces the first requests as a list.
+     *
+     * @param count
+     *            number of requests
+     * @return List of requests 0 to count - 1
+     */
+    public List<CheckoutRequest> generate(int count) {
+
+        List<CheckoutRequest> requests = new ArrayList<CheckoutRequest>(count);
+
+        for (int i = 0; i < count; i++) {
+            requests.add(request(i));
+        }
+
+        return requests;
+    }
+
+    /**
+     * Writes the first requests to an order file read by the
+     * CheckoutFileIngester, one TOOLCODE,days,discount,M/d/yy line each.
+     *
+     * @param path
+     *            file to be written, replaced if it exists
+     * @param count
+     *            number of requests
+     * @throws IOException
+     */
+    public void write(Path path, long count) throws IOException {
+
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.US_ASCII)) {
+
+            for (long i = 0; i < count; i++) {
+
+                CheckoutRequest request = request(i);
+
+                writer.write(request.getToolCode().name());
+                writer.write(',');
+                writer.write(Integer.toString(request.getRentalDayCount()));
+                writer.write(',');
+                writer.write(Integer.toString(request.getDiscountPercent()));
+                writer.write(',');
+                writer.write(request.getCheckOutDate());
+                writer.write('\n');
+            }
+        }
+    }
+
+    /**
+     * First Monday of September.
+     */
+    private static int laborDayOf(int year) {
+
+        int firstOfSeptember = EpochDays.of(year, 9, 1);
+
+        return firstOfSeptember
+                + Math.floorMod(EpochDays.MONDAY - EpochDays.dayOfWeek(firstOfSeptember), EpochDays.DAYS_PER_WEEK);
+    }
+
+    /**
+     * Formats an epoch day as M/d/yy.
+     */
+    private static String format(int epochDay) {
+
+        int yearMonthDay = EpochDays.toYearMonthDay(epochDay);
+
+        return new StringBuilder(8).append(yearMonthDay / 100 % 100).append('/').append(yearMonthDay % 100)
+                .append('/').append((char) ('0' + yearMonthDay / 100000 % 10))
+                .append((char) ('0' + yearMonthDay / 10000 % 10)).toString();
+    }
+
+    /**
+     * SplitMix64 finalizer, turning consecutive states into independent random
+     * bits.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Random bits as a value from 0 to bound - 1.
+     */
+    private static long bounded(long bits, long bound) {
+        return Long.remainderUnsigned(bits, bound);
+    }
+
+    /**
+     * Random bits as a value from 0 to 1, exclusive.
+     */
+    private static double unit(long bits) {
+        return (bits >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * Values drawn by weight.
+     */
+    private static final class Choice {
+
+        private final int[] values;
+        private final long[] cumulativeWeights;
+
+        Choice(int[][] weights) {
+
+            this.values = new int[weights.length];
+            this.cumulativeWeights = new long[weights.length];
+
+            long total = 0;
+            for (int i = 0; i < weights.length; i++) {
+                total += weights[i][1];
+                values[i] = weights[i][0];
+                cumulativeWeights[i] = total;
+            }
+
+            if (total == 0) {
+                throw new IllegalArgumentException("Every weight is zero");
+            }
+        }
+
+        int pick(long bits) {
+
+            long target = bounded(bits, cumulativeWeights[cumulativeWeights.length - 1]);
+
+            // first value whose cumulative weight passes the target, skipping zero weights
+            int low = 0;
+            int high = cumulativeWeights.length - 1;
+
+            while (low < high) {
+
+                int middle = (low + high) >>> 1;
+
+                if (cumulativeWeights[middle] > target) {
+                    high = middle;
+                } else {
+                    low = middle + 1;
+                }
+            }
+
+            return values[low];
+        }
+    }
+
+    /**
+     * Configures a generator. By default tool codes are drawn evenly, rentals
+     * last 1 to 14 days, most checkouts have no discount, and half the checkout
+     * dates of the years 2015 to 2024 fall within a week of July 4th or Labor
+     * Day. All requests are valid unless an invalid share is given.
+     *
+     * @author tadtab
+     *
+     */
+    public static final class Builder {
+
+        private long seed;
+        private int[][] toolCodeWeights;
+        private int[][] rentalDayWeights;
+        private int[][] discountPercentWeights;
+        private int firstYear = 2015;
+        private int lastYear = 2024;
+        private double holidayShare = 0.5;
+        private int holidaySpread = 7;
+        private double invalidShare;
+
+        public Builder() {
+
+            toolCodeWeights = new int[TOOL_CODES.length][];
+            for (int i = 0; i < TOOL_CODES.length; i++) {
+                toolCodeWeights[i] = new int[] { i, 1 };
+            }
+
+            rentalDays(1, 14);
+
+            discountPercentWeights = new int[][] { { 0, 12 }, { 5, 2 }, { 10, 3 }, { 15, 1 }, { 20, 1 },
+                    { 50, 1 } };
+        }
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * Sets how often a tool code is drawn relative to the others.
+         */
+        public Builder toolCodeWeight(ToolCode toolCode, int weight) {
+            toolCodeWeights[toolCode.ordinal()][1] = checkWeight(weight);
+            return this;
+        }
+
+        /**
+         * Draws the rental days evenly from a range, forgetting earlier weights.
+         */
+        public Builder rentalDays(int minDays, int maxDays) {
+
+            if (minDays < 1 || maxDays < minDays) {
+                throw new IllegalArgumentException("Rental days " + minDays + " to " + maxDays);
+            }
+
+            rentalDayWeights = new int[maxDays - minDays + 1][];
+            for (int days = minDays; days <= maxDays; days++) {
+                rentalDayWeights[days - minDays] = new int[] { days, 1 };
+            }
+
+            return this;
+        }
+
+        /**
+         * Sets how often a number of rental days is drawn relative to the others.
+         */
+        public Builder rentalDayWeight(int days, int weight) {
+
+            if (days < 1) {
+                throw new IllegalArgumentException("Rental days " + days);
+            }
+
+            rentalDayWeights = withWeight(rentalDayWeights, days, checkWeight(weight));
+            return this;
+        }
+
+        /**
+         * Sets how often a discount percent is drawn relative to the others.
+         */
+        public Builder discountPercentWeight(int discountPercent, int weight) {
+
+            if (discountPercent < 0 || discountPercent > 100) {
+                throw new IllegalArgumentException("Discount percent " + discountPercent);
+            }
+
+            discountPercentWeights = withWeight(discountPercentWeights, discountPercent, checkWeight(weight));
+            return this;
+        }
+
+        /**
+         * Sets the years the checkout dates are drawn from, between 2000 and 2099
+         * which M/d/yy dates can hold.
+         */
+        public Builder years(int firstYear, int lastYear) {
+
+            if (firstYear < FIRST_YEAR || lastYear > LAST_YEAR || lastYear < firstYear) {
+                throw new IllegalArgumentException("Years " + firstYear + " to " + lastYear);
+            }
+
+            this.firstYear = firstYear;
+            this.lastYear = lastYear;
+            return this;
+        }
+
+        /**
+         * Sets the share of checkout dates clustered around July 4th and Labor
+         * Day, and how many days before or after the holiday they may fall.
+         */
+        public Builder holidayCluster(double share, int spreadDays) {
+
+            if (share < 0 || share > 1 || spreadDays < 0 || spreadDays > 60) {
+                throw new IllegalArgumentException("Holiday cluster " + share + ", " + spreadDays + " days");
+            }
+
+            this.holidayShare = share;
+            this.holidaySpread = spreadDays;
+            return this;
+        }
+
+        /**
+         * Sets the share of requests with no rental days or a discount over 100
+         * percent, which checkout rejects.
+         */
+        public Builder invalidShare(double share) {
+
+            if (share < 0 || share > 1) {
+                throw new IllegalArgumentException("Invalid share " + share);
+            }
+
+            this.invalidShare = share;
+            return this;
+        }
+
+        public WorkloadGenerator build() {
+            return new WorkloadGenerator(this);
+        }
+
+        private static int checkWeight(int weight) {
+
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weight " + weight);
+            }
+
+            return weight;
+        }
+
+        private static int[][] withWeight(int[][] weights, int value, int weight) {
+
+            for (int[] valueWeight : weights) {
+                if (valueWeight[0] == value) {
+                    valueWeight[1] = weight;
+                    return weights;
+                }
+            }
+
+            int[][] grown = Arrays.copyOf(weights, weights.length + 1);
+            grown[weights.length] = new int[] { value, weight };
+
+            return grown;
+        }
+    }
+
+}
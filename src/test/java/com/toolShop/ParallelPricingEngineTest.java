@@ -0,0 +1,107 @@
+package com.toolShop;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import com.toolShop.exception.InvalidDiscountPercentException;
+import com.toolShop.exception.InvalidRentalDayCountException;
+
+/**
+ * Test class for ParallelPricingEngine.
+ * 
+ * @author tadtab
+ *
+ */
+public class ParallelPricingEngineTest {
+
+    private final RentalPricingService service = new RentalPricingService(ToolCatalog.createDefault());
+
+    /**
+     * Tests that parallel pricing produces the same agreements in the same order
+     * as sequential pricing, whatever the parallelism.
+     * 
+     * @throws InvalidDiscountPercentException
+     * @throws InvalidRentalDayCountException
+     */
+    @Test
+    public void test1ParallelMatchesSequential()
+            throws InvalidDiscountPercentException, InvalidRentalDayCountException {
+
+        List<CheckoutRequest> requests = RentalPricingServiceTest.randomRequests(20000, 3L);
+        List<RentalAgreement> sequential = service.checkOutAll(requests);
+
+        for (int parallelism : new int[] { 1, 2, 4, 8 }) {
+
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            ParallelPricingEngine engine = new ParallelPricingEngine(service, pool, 333);
+
+            List<RentalAgreement> parallel = engine.checkOutAll(requests);
+
+            assertEquals(sequential.size(), parallel.size());
+            for (int i = 0; i < sequential.size(); i++) {
+                RentalPricingServiceTest.assertSameAgreement(sequential.get(i), parallel.get(i));
+            }
+
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Tests that the exception of the first invalid request is thrown, even if a
+     * later slice fails first.
+     * 
+     * @throws InvalidDiscountPercentException
+     * @throws InvalidRentalDayCountException
+     */
+    @Test(expected = InvalidDiscountPercentException.class)
+    public void test2FirstInvalidRequestIsReported()
+            throws InvalidDiscountPercentException, InvalidRentalDayCountException {
+
+        List<CheckoutRequest> requests = RentalPricingServiceTest.randomRequests(20000, 5L);
+        requests.set(15000, new CheckoutRequest(ToolCode.LADW, 3, 101, "7/2/20"));
+        requests.set(19000, new CheckoutRequest(ToolCode.LADW, 0, 10, "7/2/20"));
+
+        ParallelPricingEngine engine = new ParallelPricingEngine(service, 4);
+
+        try {
+            engine.checkOutAll(requests);
+        } finally {
+            engine.shutdown();
+        }
+    }
+
+    /**
+     * Tests that all slices are priced against the catalog the call started
+     * with, even if the catalog is emptied meanwhile.
+     * 
+     * @throws InvalidDiscountPercentException
+     * @throws InvalidRentalDayCountException
+     */
+    @Test
+    public void test3SlicesUseOneCatalogSnapshot()
+            throws InvalidDiscountPercentException, InvalidRentalDayCountException {
+
+        List<CheckoutRequest> requests = RentalPricingServiceTest.randomRequests(5000, 7L);
+        List<RentalAgreement> sequential = service.checkOutAll(requests);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        ParallelPricingEngine engine = new ParallelPricingEngine(
+                new RentalPricingService(new RentalPricingServiceTest.ReloadedCatalog()), pool, 100);
+
+        try {
+            List<RentalAgreement> parallel = engine.checkOutAll(requests);
+
+            assertEquals(sequential.size(), parallel.size());
+            for (int i = 0; i < sequential.size(); i++) {
+                RentalPricingServiceTest.assertSameAgreement(sequential.get(i), parallel.get(i));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+}
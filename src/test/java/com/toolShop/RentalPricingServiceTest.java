@@ -0,0 +1,210 @@
+package com.toolShop;
+
+import static org.junit.Assert.assertEquals;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.toolShop.exception.InvalidDiscountPercentException;
+import com.toolShop.exception.InvalidRentalDayCountException;
+
+/**
+ * Test class for RentalPricingService.
+ * 
+ * @author tadtab
+ *
+ */
+public class RentalPricingServiceTest {
+
+    private final RentalPricingService service = new RentalPricingService(ToolCatalog.createDefault());
+
+    /**
+     * Tests that a batch produces the same agreements, in the same order, as
+     * checking out every request on its own.
+     * 
+     * @throws InvalidDiscountPercentException
+     * @throws InvalidRentalDayCountException
+     */
+    @Test
+    public void test1CheckOutAllMatchesSingleCheckOuts()
+            throws InvalidDiscountPercentException, InvalidRentalDayCountException {
+
+        List<CheckoutRequest> requests = randomRequests(5000, 7L);
+
+        List<RentalAgreement> rentalAgreements = service.checkOutAll(requests);
+
+        assertEquals(requests.size(), rentalAgreements.size());
+
+        for (int i = 0; i < requests.size(); i++) {
+            assertSameAgreement(service.checkOut(requests.get(i)), rentalAgreements.get(i));
+        }
+    }
+
+    /**
+     * Tests that an invalid request anywhere in the batch fails the whole batch.
+     * 
+     * @throws InvalidDiscountPercentException
+     * @throws InvalidRentalDayCountException
+     */
+    @Test(expected = InvalidRentalDayCountException.class)
+    public void test2CheckOutAllRejectsInvalidRequest()
+            throws InvalidDiscountPercentException, InvalidRentalDayCountException {
+
+        List<CheckoutRequest> requests = randomRequests(100, 11L);
+        requests.add(new CheckoutRequest(ToolCode.JAKR, 0, 10, "7/2/20"));
+
+        service.checkOutAll(requests);
+    }
+
+    /**
+     * Extends and shortens random rentals several times in a row and checks
+     * every agreement against checking out the new number of days from scratch.
+     * 
+     * @throws InvalidDiscountPercentException
+     * @throws InvalidRentalDayCountException
+     */
+    @Test
+    public void test3ExtendAndReturnEarlyMatchFullRepricing()
+            throws InvalidDiscountPercentException, InvalidRentalDayCountException {
+
+        Random random = new Random(21L);
+
+        for (CheckoutRequest request : randomRequests(3000, 21L)) {
+
+            RentalAgreement rentalAgreement = service.checkOut(request);
+
+            for (int change = 0; change < 8; change++) {
+
+                int rentalDays = rentalAgreement.getRentalDays();
+
+                if (rentalDays > 1 && random.nextBoolean()) {
+                    rentalAgreement = service.returnEarly(rentalAgreement, 1 + random.nextInt(rentalDays - 1));
+                } else {
+                    int extraDays = 1 + random.nextInt(random.nextBoolean() ? 7 : 400);
+                    rentalAgreement = service.extend(rentalAgreement, extraDays);
+                }
+
+                RentalAgreement repriced = service.checkOut(new CheckoutRequest(request.getToolCode(),
+                        rentalAgreement.getRentalDays(), request.getDiscountPercent(), request.getCheckOutDate()));
+
+                assertSameAgreement(repriced, rentalAgreement);
+                assertEquals(repriced, rentalAgreement);
+            }
+        }
+    }
+
+    /**
+     * Tests that a rental cannot be returned on its checkout date.
+     * 
+     * @throws InvalidDiscountPercentException
+     * @throws InvalidRentalDayCountException
+     */
+    @Test(expected = InvalidRentalDayCountException.class)
+    public void test4ReturnEarlyRejectsReturnOnCheckOutDate()
+            throws InvalidDiscountPercentException, InvalidRentalDayCountException {
+
+        RentalAgreement rentalAgreement = service.checkOut(new CheckoutRequest(ToolCode.JAKD, 5, 0, "9/3/15"));
+
+        service.returnEarly(rentalAgreement, 5);
+    }
+
+    /**
+     * Tests that a batch is priced against the catalog it started with, even if
+     * the catalog is emptied while the batch is priced.
+     * 
+     * @throws InvalidDiscountPercentException
+     * @throws InvalidRentalDayCountException
+     */
+    @Test
+    public void test5CheckOutAllUsesOneCatalogSnapshot()
+            throws InvalidDiscountPercentException, InvalidRentalDayCountException {
+
+        List<CheckoutRequest> requests = randomRequests(1000, 11L);
+        List<RentalAgreement> expected = service.checkOutAll(requests);
+
+        List<RentalAgreement> priced = new RentalPricingService(new ReloadedCatalog()).checkOutAll(requests);
+
+        assertEquals(expected.size(), priced.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertSameAgreement(expected.get(i), priced.get(i));
+        }
+    }
+
+    /**
+     * Default catalog which is emptied right after each lookup, as if it was
+     * reloaded concurrently.
+     */
+    static class ReloadedCatalog extends ToolCatalog {
+
+        ReloadedCatalog() {
+            super(ToolCatalog.createDefault().getTools().values());
+        }
+
+        @Override
+        public Map<ToolCode, RentalTool> getTools() {
+
+            Map<ToolCode, RentalTool> tools = super.getTools();
+            reload(Collections.<RentalTool> emptyList());
+
+            return tools;
+        }
+
+        @Override
+        public RentalTool get(ToolCode toolCode) {
+
+            RentalTool rentalTool = super.get(toolCode);
+            reload(Collections.<RentalTool> emptyList());
+
+            return rentalTool;
+        }
+    }
+
+    /**
+     * Random requests around July 4th and Labor day.
+     */
+    public static List<CheckoutRequest> randomRequests(int count, long seed) {
+
+        Random random = new Random(seed);
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("M/d/yy");
+        ToolCode[] toolCodes = ToolCode.values();
+
+        List<CheckoutRequest> requests = new ArrayList<CheckoutRequest>(count);
+
+        for (int i = 0; i < count; i++) {
+
+            LocalDate checkOutDate = LocalDate.of(2015 + random.nextInt(10), 6, 20).plusDays(random.nextInt(90));
+
+            requests.add(new CheckoutRequest(toolCodes[random.nextInt(toolCodes.length)], 1 + random.nextInt(20),
+                    random.nextInt(101), formatter.format(checkOutDate)));
+        }
+
+        return requests;
+    }
+
+    /**
+     * Asserts that every property of the agreements is equal.
+     */
+    static void assertSameAgreement(RentalAgreement expected, RentalAgreement actual) {
+
+        assertEquals(expected.getToolCode(), actual.getToolCode());
+        assertEquals(expected.getToolType(), actual.getToolType());
+        assertEquals(expected.getToolBrand(), actual.getToolBrand());
+        assertEquals(expected.getRentalDays(), actual.getRentalDays());
+        assertEquals(expected.getCheckOutDate(), actual.getCheckOutDate());
+        assertEquals(expected.getDueDate(), actual.getDueDate());
+        assertEquals(expected.getDailyRentalChage(), actual.getDailyRentalChage());
+        assertEquals(expected.getChargeDays(), actual.getChargeDays());
+        assertEquals(expected.getPreDiscountCharge(), actual.getPreDiscountCharge());
+        assertEquals(expected.getDiscountPercent(), actual.getDiscountPercent());
+        assertEquals(expected.getDiscountAmount(), actual.getDiscountAmount());
+        assertEquals(expected.getFinalCharge(), actual.getFinalCharge());
+    }
+
+}
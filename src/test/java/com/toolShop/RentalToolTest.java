@@ -1,7 +1,9 @@
 package com.toolShop;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -33,7 +35,7 @@ public class RentalToolTest {
             throws InvalidDiscountPercentException, InvalidRentalDayCountException {
 
         BigDecimal dailyCharge = new BigDecimal(1.99);
-        ToolType toolType = new ToolType("Jackhammer", dailyCharge, true, true, false);
+        ToolType toolType = new ToolType("Jackhammer", dailyCharge, true, false, false);
 
         RentalTool rentalTool = new RentalTool(ToolCode.LADW, Brand.RIDGID, toolType);
 
@@ -105,7 +107,7 @@ public class RentalToolTest {
             throws InvalidDiscountPercentException, InvalidRentalDayCountException {
 
         BigDecimal dailyCharge = new BigDecimal(1.49);
-        ToolType toolType = new ToolType("Chainsaw", dailyCharge, true, true, false);
+        ToolType toolType = new ToolType("Chainsaw", dailyCharge, true, false, true);
 
         RentalTool rentalTool = new RentalTool(ToolCode.CHNS, Brand.STIHL, toolType);
 
@@ -152,7 +154,7 @@ public class RentalToolTest {
             throws InvalidDiscountPercentException, InvalidRentalDayCountException {
 
         BigDecimal dailyCharge = new BigDecimal(2.99);
-        ToolType toolType = new ToolType("Jackhammer", dailyCharge, true, true, false);
+        ToolType toolType = new ToolType("Jackhammer", dailyCharge, true, false, false);
 
         RentalTool rentalTool = new RentalTool(ToolCode.JAKD, Brand.DEWALT, toolType);
 
@@ -199,7 +201,7 @@ public class RentalToolTest {
             throws InvalidDiscountPercentException, InvalidRentalDayCountException {
 
         BigDecimal dailyCharge = new BigDecimal(2.99);
-        ToolType toolType = new ToolType("Jackhammer", dailyCharge, true, true, false);
+        ToolType toolType = new ToolType("Jackhammer", dailyCharge, true, false, false);
 
         RentalTool rentalTool = new RentalTool(ToolCode.JAKR, Brand.RIDGID, toolType);
 
@@ -246,7 +248,7 @@ public class RentalToolTest {
             throws InvalidDiscountPercentException, InvalidRentalDayCountException {
 
         BigDecimal dailyCharge = new BigDecimal(2.99);
-        ToolType toolType = new ToolType("Jackhammer", dailyCharge, true, true, false);
+        ToolType toolType = new ToolType("Jackhammer", dailyCharge, true, false, false);
 
         RentalTool rentalTool = new RentalTool(ToolCode.JAKR, Brand.RIDGID, toolType);
 
@@ -278,4 +280,124 @@ public class RentalToolTest {
         assertEquals("$1.49", rentalAgreement.getFinalCharge());
     }
 
+    /**
+     * Test tool with code LADW which is Ladder rented for two years.
+     * 
+     * Expected the charges to be above a thousand dollars and the amounts to be
+     * calculated without losing the grouping separator.
+     * 
+     * @throws InvalidDiscountPercentException
+     * @throws InvalidRentalDayCountException
+     */
+    @Test
+    public void test7CheckOutForLadderWithChargeAboveThousandDollars()
+            throws InvalidDiscountPercentException, InvalidRentalDayCountException {
+
+        BigDecimal dailyCharge = new BigDecimal(1.99);
+        ToolType toolType = new ToolType("Ladder", dailyCharge, true, true, false);
+
+        RentalTool rentalTool = new RentalTool(ToolCode.LADW, Brand.WERNER, toolType);
+
+        String cheOutDate = "1/1/20";
+        RentalAgreement rentalAgreement = rentalTool.checkOut(ToolCode.LADW, 730, 15, cheOutDate);
+
+        String dueDate = "12/31/21";
+        LocalDate expectedDueDate = ToolShopUtility.convertStringToLocalDate(dueDate);
+
+        // assert due date
+        assertEquals(expectedDueDate, rentalAgreement.getDueDate());
+
+        // assert charges day, two July 4th and two Labor days are not charged
+        assertEquals(726, rentalAgreement.getChargeDays());
+
+        // assert preDiscount Charge
+        assertEquals("$1,444.74", rentalAgreement.getPreDiscountCharge());
+        assertEquals(144474, rentalAgreement.getPreDiscountChargeCents());
+
+        // assert Discount Amount
+        assertEquals("$216.71", rentalAgreement.getDiscountAmount());
+
+        // assert final charge
+        assertEquals("$1,228.03", rentalAgreement.getFinalCharge());
+        assertEquals(122803, rentalAgreement.getFinalChargeCents());
+    }
+
+    /**
+     * Test that checking out the same values twice produces equal agreements and
+     * that the date is parsed into the agreement only once.
+     * 
+     * @throws InvalidDiscountPercentException
+     * @throws InvalidRentalDayCountException
+     */
+    @Test
+    public void test8CheckOutProducesEqualImmutableAgreements()
+            throws InvalidDiscountPercentException, InvalidRentalDayCountException {
+
+        ToolType toolType = new ToolType("Jackhammer", new BigDecimal("2.99"), true, false, false);
+
+        RentalTool rentalTool = new RentalTool(ToolCode.JAKR, Brand.RIDGID, toolType);
+
+        RentalAgreement first = rentalTool.checkOut(ToolCode.JAKR, 9, 0, "7/2/15");
+        RentalAgreement second = rentalTool.checkOut(ToolCode.JAKR, 9, 0, "7/2/15");
+
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+        assertNotEquals(first, rentalTool.checkOut(ToolCode.JAKR, 9, 10, "7/2/15"));
+
+        assertEquals(LocalDate.of(2015, 7, 2), first.getCheckOutDate());
+        assertEquals(1495, first.getFinalChargeCents());
+    }
+
+    /**
+     * Test that extending a ladder rental over July 4th and returning it early
+     * give the same agreements as checking out the new number of days.
+     * 
+     * @throws InvalidDiscountPercentException
+     * @throws InvalidRentalDayCountException
+     */
+    @Test
+    public void test9ExtendAndReturnEarlyMatchCheckOut()
+            throws InvalidDiscountPercentException, InvalidRentalDayCountException {
+
+        RentalTool ladder = ToolCatalog.createDefault().get(ToolCode.LADW);
+
+        RentalAgreement rentalAgreement = ladder.checkOut(ToolCode.LADW, 1, 10, "7/2/20");
+        RentalAgreement extended = ladder.extend(rentalAgreement, 6);
+
+        assertEquals(ladder.checkOut(ToolCode.LADW, 7, 10, "7/2/20"), extended);
+        assertEquals(LocalDate.of(2020, 7, 9), extended.getDueDate());
+        assertEquals(6, extended.getChargeDays());
+
+        RentalAgreement returned = ladder.returnEarly(extended, 5);
+
+        assertEquals(ladder.checkOut(ToolCode.LADW, 2, 10, "7/2/20"), returned);
+        assertEquals(1, returned.getChargeDays());
+        assertEquals(179, returned.getFinalChargeCents());
+    }
+
+    /**
+     * Test that a rental cannot be extended by no days or returned on or before
+     * its checkout date.
+     * 
+     * @throws InvalidDiscountPercentException
+     * @throws InvalidRentalDayCountException
+     */
+    @Test(expected = InvalidRentalDayCountException.class)
+    public void test10ReturnEarlyLeavingNoRentalDay()
+            throws InvalidDiscountPercentException, InvalidRentalDayCountException {
+
+        RentalTool ladder = ToolCatalog.createDefault().get(ToolCode.LADW);
+
+        RentalAgreement rentalAgreement = ladder.checkOut(ToolCode.LADW, 3, 10, "7/2/20");
+
+        try {
+            ladder.extend(rentalAgreement, 0);
+            fail();
+        } catch (InvalidRentalDayCountException e) {
+            // expected
+        }
+
+        ladder.returnEarly(rentalAgreement, 3);
+    }
+
 }
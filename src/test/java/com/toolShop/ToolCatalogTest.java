@@ -0,0 +1,100 @@
+package com.toolShop;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+/**
+ * Test class for ToolCatalog.
+ * 
+ * @author tadtab
+ *
+ */
+public class ToolCatalogTest {
+
+    /**
+     * Tests the tools of the default catalog.
+     */
+    @Test
+    public void test1DefaultCatalog() {
+
+        ToolCatalog catalog = ToolCatalog.createDefault();
+
+        assertEquals(4, catalog.getTools().size());
+        assertEquals("Ladder", catalog.get(ToolCode.LADW).getToolType().getToolName());
+        assertEquals(Brand.STIHL, catalog.get(ToolCode.CHNS).getBrand());
+        assertEquals("Jackhammer", catalog.get(ToolCode.JAKD).getToolType().getToolName());
+        assertEquals(0, catalog.getVersion());
+    }
+
+    /**
+     * Tests replacing a single tool and reloading the whole catalog.
+     */
+    @Test
+    public void test2UpdateAndReload() {
+
+        ToolCatalog catalog = ToolCatalog.createDefault();
+
+        RentalTool ladder = new RentalTool(ToolCode.LADW, Brand.RIDGID,
+                new ToolType("Ladder", new BigDecimal("2.49"), true, true, false));
+        catalog.update(ladder);
+
+        assertSame(ladder, catalog.get(ToolCode.LADW));
+        assertEquals(Brand.STIHL, catalog.get(ToolCode.CHNS).getBrand());
+        assertEquals(1, catalog.getVersion());
+
+        catalog.reload(Arrays.asList(ladder));
+
+        assertSame(ladder, catalog.get(ToolCode.LADW));
+        assertNull(catalog.get(ToolCode.CHNS));
+        assertEquals(2, catalog.getVersion());
+    }
+
+    /**
+     * Tests that readers always see a complete catalog while it is updated from
+     * several threads.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void test3ConcurrentUpdates() throws Exception {
+
+        ToolCatalog catalog = ToolCatalog.createDefault();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+
+        for (int task = 0; task < 4; task++) {
+            final ToolCode toolCode = ToolCode.values()[task];
+            results.add(executor.submit(() -> {
+                for (int i = 0; i < 2000; i++) {
+                    RentalTool current = catalog.get(toolCode);
+                    catalog.update(new RentalTool(toolCode, current.getBrand(), current.getToolType()));
+                    if (catalog.getTools().size() != 4) {
+                        return false;
+                    }
+                }
+                return true;
+            }));
+        }
+
+        for (Future<Boolean> result : results) {
+            assertTrue(result.get());
+        }
+
+        executor.shutdown();
+
+        assertEquals(8000, catalog.getVersion());
+    }
+
+}
@@ -0,0 +1,124 @@
+package com.toolShop.calendar;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+
+import org.junit.Test;
+
+/**
+ * Test class for HolidayCalendar.
+ *
+ * @author tadtab
+ *
+ */
+public class HolidayCalendarTest {
+
+    /**
+     * Tests the observed July 4th and Labor day of known years.
+     */
+    @Test
+    public void test1IsHolidayForKnownYears() {
+
+        HolidayCalendar calendar = HolidayCalendar.getDefault();
+
+        // July 4th 2015 on Saturday, observed on Friday
+        assertTrue(calendar.isHoliday(epochDay(2015, 7, 3)));
+        assertFalse(calendar.isHoliday(epochDay(2015, 7, 4)));
+
+        // July 4th 2021 on Sunday, observed on Monday
+        assertTrue(calendar.isHoliday(epochDay(2021, 7, 5)));
+        assertFalse(calendar.isHoliday(epochDay(2021, 7, 4)));
+
+        // July 4th 2019 on Thursday
+        assertTrue(calendar.isHoliday(epochDay(2019, 7, 4)));
+
+        // Labor day 2015
+        assertTrue(calendar.isHoliday(epochDay(2015, 9, 7)));
+        assertFalse(calendar.isHoliday(epochDay(2015, 9, 14)));
+    }
+
+    /**
+     * Compares range counts with a day by day count over many years, using a
+     * small cache so that years are evicted and materialized again.
+     */
+    @Test
+    public void test2CountHolidaysMatchesDayByDayCount() {
+
+        HolidayCalendar calendar = new HolidayCalendar(3, new FourthOfJulyRule(), new LaborDayRule());
+
+        int firstDay = epochDay(1990, 1, 1);
+        int lastDay = epochDay(2040, 12, 31);
+
+        int[] prefix = new int[lastDay - firstDay + 2];
+        for (int day = firstDay; day <= lastDay; day++) {
+            prefix[day - firstDay + 1] = prefix[day - firstDay] + (isHoliday(LocalDate.ofEpochDay(day)) ? 1 : 0);
+        }
+
+        for (int from = firstDay; from <= lastDay; from += 97) {
+            for (int length = 0; length < 4000 && from + length <= lastDay; length += 61) {
+
+                int to = from + length;
+
+                assertEquals(prefix[to - firstDay + 1] - prefix[from - firstDay], calendar.countHolidays(from, to));
+                assertEquals(0, calendar.countWeekEndHolidays(from, to));
+            }
+        }
+    }
+
+    /**
+     * Tests registering a holiday which may be observed in the previous year and
+     * on a weekend.
+     */
+    @Test
+    public void test3RegisterHoliday() {
+
+        HolidayCalendar calendar = new HolidayCalendar(8, new FourthOfJulyRule(), new LaborDayRule());
+
+        assertEquals(0, calendar.getVersion());
+        assertEquals(0, calendar.countHolidays(epochDay(2021, 12, 1), epochDay(2022, 1, 31)));
+
+        // New year's day observed on Friday before if it is on Saturday
+        calendar.register(year -> {
+            LocalDate newYear = LocalDate.of(year, 1, 1);
+            return (int) (DayOfWeek.SATURDAY.equals(newYear.getDayOfWeek()) ? newYear.toEpochDay() - 1
+                    : newYear.toEpochDay());
+        });
+
+        assertEquals(1, calendar.getVersion());
+
+        // January 1st 2022 was Saturday
+        assertTrue(calendar.isHoliday(epochDay(2021, 12, 31)));
+        assertEquals(1, calendar.countHolidays(epochDay(2021, 12, 1), epochDay(2022, 1, 31)));
+
+        // January 1st 2023 was Sunday
+        assertEquals(1, calendar.countWeekEndHolidays(epochDay(2022, 12, 1), epochDay(2023, 1, 31)));
+    }
+
+    private static int epochDay(int year, int month, int day) {
+        return (int) LocalDate.of(year, month, day).toEpochDay();
+    }
+
+    /**
+     * Observed July 4th or first Monday of September.
+     */
+    private static boolean isHoliday(LocalDate day) {
+
+        DayOfWeek dayOfWeek = day.getDayOfWeek();
+
+        if (Month.JULY.equals(day.getMonth())) {
+            return (day.getDayOfMonth() == 4 && !DayOfWeek.SATURDAY.equals(dayOfWeek)
+                    && !DayOfWeek.SUNDAY.equals(dayOfWeek))
+                    || (day.getDayOfMonth() == 3 && DayOfWeek.FRIDAY.equals(dayOfWeek))
+                    || (day.getDayOfMonth() == 5 && DayOfWeek.MONDAY.equals(dayOfWeek));
+        }
+
+        return Month.SEPTEMBER.equals(day.getMonth()) && DayOfWeek.MONDAY.equals(dayOfWeek)
+                && day.getDayOfMonth() <= 7;
+    }
+
+}
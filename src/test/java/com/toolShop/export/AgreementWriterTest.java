@@ -0,0 +1,151 @@
+package com.toolShop.export;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.toolShop.CheckoutRequest;
+import com.toolShop.RentalAgreement;
+import com.toolShop.RentalPricingService;
+import com.toolShop.RentalPricingServiceTest;
+import com.toolShop.ToolCatalog;
+import com.toolShop.ToolCode;
+import com.toolShop.exception.InvalidDiscountPercentException;
+import com.toolShop.exception.InvalidRentalDayCountException;
+import com.toolShop.ledger.AgreementRecordCodec;
+
+/**
+ * Test class for the agreement writers.
+ *
+ * @author tadtab
+ *
+ */
+public class AgreementWriterTest {
+
+    private final RentalPricingService service = new RentalPricingService(ToolCatalog.createDefault());
+
+    /**
+     * Tests the CSV lines of a Ladder rented over July 4th 2020.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void test1Csv() throws Exception {
+
+        RentalAgreement ladder = service.checkOut(new CheckoutRequest(ToolCode.LADW, 3, 10, "7/2/20"));
+
+        assertEquals("tool_code,tool_type,tool_brand,rental_days,check_out_date,due_date,daily_rental_charge,"
+                + "charge_days,pre_discount_charge,discount_percent,discount_amount,final_charge\n"
+                + "LADW,Ladder,Werner,3,2020-07-02,2020-07-05,1.99,2,3.98,10,0.40,3.58\n",
+                new String(export(ExportFormat.CSV, ladder), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Tests the JSON array of a Ladder rented over July 4th 2020 and of no
+     * agreements at all.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void test2Json() throws Exception {
+
+        RentalAgreement ladder = service.checkOut(new CheckoutRequest(ToolCode.LADW, 3, 10, "7/2/20"));
+
+        String object = "{\"toolCode\":\"LADW\",\"toolType\":\"Ladder\",\"toolBrand\":\"Werner\",\"rentalDays\":3,"
+                + "\"checkOutDate\":\"2020-07-02\",\"dueDate\":\"2020-07-05\",\"dailyRentalCharge\":1.99,"
+                + "\"chargeDays\":2,\"preDiscountCharge\":3.98,\"discountPercent\":10,\"discountAmount\":0.40,"
+                + "\"finalCharge\":3.58}";
+
+        assertEquals("[\n" + object + ",\n" + object + "\n]\n",
+                new String(export(ExportFormat.JSON, ladder, ladder), StandardCharsets.UTF_8));
+        assertEquals("[\n]\n", new String(export(ExportFormat.JSON), StandardCharsets.UTF_8));
+
+        assertEquals("\"a\\\"b\\\\c\\u000a\"", JsonAgreementWriter.quote("a\"b\\c\n"));
+    }
+
+    /**
+     * Tests that binary records are read back unchanged.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void test3BinaryRoundTrip() throws Exception {
+
+        List<RentalAgreement> agreements = agreements(1000);
+        ByteBuffer records = ByteBuffer
+                .wrap(export(ExportFormat.BINARY, agreements.toArray(new RentalAgreement[0])));
+
+        assertEquals(agreements.size() * AgreementRecordCodec.RECORD_SIZE, records.capacity());
+
+        for (int i = 0; i < agreements.size(); i++) {
+
+            int offset = i * AgreementRecordCodec.RECORD_SIZE;
+
+            assertTrue(AgreementRecordCodec.isValid(records, offset, i));
+            assertEquals(agreements.get(i), AgreementRecordCodec.decode(records, offset));
+        }
+    }
+
+    /**
+     * Tests that a buffer which fills up many times gives the same output as one
+     * large enough for everything.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void test4SmallBufferGivesSameOutput() throws Exception {
+
+        List<RentalAgreement> agreements = agreements(2000);
+
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        ByteArrayOutputStream binary = new ByteArrayOutputStream();
+
+        try (AgreementWriter csvWriter = new CsvAgreementWriter(Channels.newChannel(csv), 300);
+                AgreementWriter jsonWriter = new JsonAgreementWriter(Channels.newChannel(json), 400);
+                AgreementWriter binaryWriter = new BinaryAgreementWriter(Channels.newChannel(binary), 100)) {
+
+            for (RentalAgreement rentalAgreement : agreements) {
+                csvWriter.write(rentalAgreement);
+                jsonWriter.write(rentalAgreement);
+                binaryWriter.write(rentalAgreement);
+            }
+
+            assertEquals(agreements.size(), csvWriter.getWrittenCount());
+        }
+
+        RentalAgreement[] array = agreements.toArray(new RentalAgreement[0]);
+
+        assertArrayEquals(export(ExportFormat.CSV, array), csv.toByteArray());
+        assertArrayEquals(export(ExportFormat.JSON, array), json.toByteArray());
+        assertArrayEquals(export(ExportFormat.BINARY, array), binary.toByteArray());
+    }
+
+    private List<RentalAgreement> agreements(int count)
+            throws InvalidDiscountPercentException, InvalidRentalDayCountException {
+        return service.checkOutAll(RentalPricingServiceTest.randomRequests(count, 15L));
+    }
+
+    private static byte[] export(ExportFormat format, RentalAgreement... agreements) throws IOException {
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        try (AgreementWriter writer = format.createWriter(Channels.newChannel(output))) {
+            for (RentalAgreement rentalAgreement : agreements) {
+                writer.write(rentalAgreement);
+            }
+        }
+
+        return output.toByteArray();
+    }
+
+}
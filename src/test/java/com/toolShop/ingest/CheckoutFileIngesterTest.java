@@ -0,0 +1,234 @@
+package com.toolShop.ingest;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.toolShop.CheckoutRequest;
+import com.toolShop.RentalAgreement;
+import com.toolShop.RentalPricingService;
+import com.toolShop.RentalPricingServiceTest;
+import com.toolShop.RentalTool;
+import com.toolShop.ToolCatalog;
+import com.toolShop.ToolCode;
+import com.toolShop.export.AgreementWriter;
+import com.toolShop.export.CsvAgreementWriter;
+
+/**
+ * Test class for CheckoutFileIngester.
+ *
+ * @author tadtab
+ *
+ */
+public class CheckoutFileIngesterTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final RentalPricingService service = new RentalPricingService(ToolCatalog.createDefault());
+
+    /**
+     * Tests a file with valid, invalid and ignored lines, read through a buffer
+     * much smaller than the file.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void test1AcceptedAndRejectedLines() throws Exception {
+
+        String orders = "# orders of the north branch\n"
+                + "JAKR,5,101,9/3/15\n"
+                + "LADW,3,10,7/2/20\r\n"
+                + "\n"
+                + "CHNS, 5, 25, 7/2/15\n"
+                + "JAKD,0,10,9/3/15\n"
+                + "XXXX,4,0,7/2/20\n"
+                + "JAKR,4,0,7/2/2020\n"
+                + "JAKR,four,0,7/2/20\n"
+                + "JAKD,6,0,9/3/15,extra\n"
+                + "LADW,1,0,2/30/20," + repeat('x', 100) + "\n"
+                + "JAKR,4,50,7/2/20";
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        IngestReport report = ingest(orders, output, 48);
+
+        assertEquals(10, report.getRecordCount());
+        assertEquals(3, report.getAcceptedCount());
+        assertEquals(7, report.getRejectedCount());
+        assertEquals(1, report.getRejectedCount(RejectReason.INVALID_DISCOUNT_PERCENT));
+        assertEquals(1, report.getRejectedCount(RejectReason.INVALID_RENTAL_DAY_COUNT));
+        assertEquals(1, report.getRejectedCount(RejectReason.UNKNOWN_TOOL));
+        assertEquals(4, report.getRejectedCount(RejectReason.MALFORMED));
+
+        assertEquals(2, report.getSampledRejects().get(0).getLineNumber());
+        assertEquals("JAKR,5,101,9/3/15", report.getSampledRejects().get(0).getLine());
+        assertEquals(11, report.getSampledRejects().get(6).getLineNumber());
+
+        assertArrayEquals(csvOf(service.checkOut(new CheckoutRequest(ToolCode.LADW, 3, 10, "7/2/20")),
+                service.checkOut(new CheckoutRequest(ToolCode.CHNS, 5, 25, "7/2/15")),
+                service.checkOut(new CheckoutRequest(ToolCode.JAKR, 4, 50, "7/2/20"))), output.toByteArray());
+    }
+
+    /**
+     * Tests that a day past the end of the month is moved back to the last day of
+     * the month, as the checkout date parser does.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void test2DayPastEndOfMonth() throws Exception {
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ingest("LADW,1,0,2/30/20\nLADW,1,0,2/31/21\n", output, 1024);
+
+        assertArrayEquals(csvOf(service.checkOut(new CheckoutRequest(ToolCode.LADW, 1, 0, "2/30/20")),
+                service.checkOut(new CheckoutRequest(ToolCode.LADW, 1, 0, "2/31/21"))), output.toByteArray());
+    }
+
+    /**
+     * Tests that a large file of random orders gives the same agreements as the
+     * batch checkout, whatever the size of the read buffer.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void test3MatchesBatchCheckout() throws Exception {
+
+        List<CheckoutRequest> requests = RentalPricingServiceTest.randomRequests(20000, 16L);
+        StringBuilder orders = new StringBuilder();
+
+        for (CheckoutRequest request : requests) {
+            orders.append(request.getToolCode()).append(',').append(request.getRentalDayCount()).append(',')
+                    .append(request.getDiscountPercent()).append(',').append(request.getCheckOutDate()).append('\n');
+        }
+
+        byte[] expected = csvOf(service.checkOutAll(requests).toArray(new RentalAgreement[0]));
+
+        for (int bufferSize : new int[] { 40, 4096, CheckoutFileIngester.DEFAULT_BUFFER_SIZE }) {
+
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            IngestReport report = ingest(orders.toString(), output, bufferSize);
+
+            assertEquals(requests.size(), report.getAcceptedCount());
+            assertArrayEquals(expected, output.toByteArray());
+        }
+    }
+
+    /**
+     * Tests that a tool code missing from the catalog is rejected as an unknown
+     * tool.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void test4ToolMissingFromCatalog() throws Exception {
+
+        ToolCatalog catalog = ToolCatalog.createDefault();
+        catalog.reload(Arrays.asList(catalog.get(ToolCode.LADW), catalog.get(ToolCode.CHNS)));
+
+        String orders = "LADW,3,10,7/2/20\n"
+                + "JAKD,6,0,9/3/15\n"
+                + "CHNS,5,25,7/2/15\n";
+
+        IngestReport report = ingest(new RentalPricingService(catalog), orders, new ByteArrayOutputStream(),
+                CheckoutFileIngester.DEFAULT_BUFFER_SIZE);
+
+        assertEquals(2, report.getAcceptedCount());
+        assertEquals(1, report.getRejectedCount(RejectReason.UNKNOWN_TOOL));
+        assertEquals(2, report.getSampledRejects().get(0).getLineNumber());
+    }
+
+    /**
+     * Tests that a line is priced with the tool it was looked up with, even if
+     * the catalog is emptied right after the lookup.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void test5CatalogEmptiedWhileIngesting() throws Exception {
+
+        ToolCatalog catalog = new ToolCatalog(ToolCatalog.createDefault().getTools().values()) {
+
+            @Override
+            public Map<ToolCode, RentalTool> getTools() {
+
+                Map<ToolCode, RentalTool> tools = super.getTools();
+                reload(Collections.<RentalTool> emptyList());
+
+                return tools;
+            }
+
+            @Override
+            public RentalTool get(ToolCode toolCode) {
+
+                RentalTool rentalTool = super.get(toolCode);
+                reload(Collections.<RentalTool> emptyList());
+
+                return rentalTool;
+            }
+        };
+
+        String orders = "LADW,3,10,7/2/20\n"
+                + "CHNS,5,25,7/2/15\n";
+
+        IngestReport report = ingest(new RentalPricingService(catalog), orders, new ByteArrayOutputStream(),
+                CheckoutFileIngester.DEFAULT_BUFFER_SIZE);
+
+        assertEquals(1, report.getAcceptedCount());
+        assertEquals(1, report.getRejectedCount(RejectReason.UNKNOWN_TOOL));
+    }
+
+    private IngestReport ingest(String orders, ByteArrayOutputStream output, int bufferSize) throws Exception {
+        return ingest(service, orders, output, bufferSize);
+    }
+
+    private IngestReport ingest(RentalPricingService rentalPricingService, String orders,
+            ByteArrayOutputStream output, int bufferSize) throws Exception {
+
+        Path file = folder.newFile().toPath();
+        Files.write(file, orders.getBytes(StandardCharsets.UTF_8));
+
+        CheckoutFileIngester ingester = new CheckoutFileIngester(rentalPricingService, bufferSize);
+
+        try (AgreementWriter writer = new CsvAgreementWriter(Channels.newChannel(output))) {
+            return ingester.ingest(file, writer);
+        }
+    }
+
+    private static byte[] csvOf(RentalAgreement... agreements) throws Exception {
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        try (AgreementWriter writer = new CsvAgreementWriter(Channels.newChannel(output))) {
+            for (RentalAgreement rentalAgreement : agreements) {
+                writer.write(rentalAgreement);
+            }
+        }
+
+        return output.toByteArray();
+    }
+
+    private static String repeat(char character, int count) {
+
+        StringBuilder repeated = new StringBuilder(count);
+        for (int i = 0; i < count; i++) {
+            repeated.append(character);
+        }
+
+        return repeated.toString();
+    }
+
+}
@@ -0,0 +1,204 @@
+package com.toolShop.inventory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import com.toolShop.ToolCode;
+
+/**
+ * Stress test for InventoryIndex. Counter staff are simulated by threads
+ * booking units around July 4th, and the reservations left in the index are
+ * checked for units rented twice on the same day.
+ *
+ * @author tadtab
+ *
+ */
+public class InventoryIndexStressTest {
+
+    private static final int UNITS_PER_TOOL = 3;
+    private static final int BOOKINGS_PER_THREAD = 5000;
+    private static final int FIRST_DAY = (int) LocalDate.of(2020, 6, 20).toEpochDay();
+
+    /**
+     * Books and cancels random rentals of every tool from 1 to 64 threads and
+     * reports the throughput of each run.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void test1NoDoubleBookingFromOneToSixtyFourThreads() throws Exception {
+
+        for (int threads = 1; threads <= 64; threads *= 2) {
+
+            InventoryIndex inventory = new InventoryIndex();
+            for (ToolCode toolCode : ToolCode.values()) {
+                inventory.setUnitCount(toolCode, UNITS_PER_TOOL);
+            }
+
+            List<Callable<List<Reservation>>> workers = new ArrayList<Callable<List<Reservation>>>();
+            for (int thread = 0; thread < threads; thread++) {
+                workers.add(new BookingWorker(inventory, thread));
+            }
+
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            long started = System.nanoTime();
+
+            List<Reservation> kept = new ArrayList<Reservation>();
+
+            try {
+                for (Future<List<Reservation>> future : executor.invokeAll(workers)) {
+                    kept.addAll(future.get());
+                }
+            } finally {
+                executor.shutdown();
+            }
+
+            long elapsed = System.nanoTime() - started;
+
+            assertNoUnitIsBookedTwice(kept);
+
+            int indexed = 0;
+            for (ToolCode toolCode : ToolCode.values()) {
+                indexed += inventory.getReservationCount(toolCode);
+            }
+            assertEquals(kept.size(), indexed);
+
+            System.out.printf("InventoryIndex %2d threads: %,12.0f bookings/s, %d reservations kept%n", threads,
+                    threads * (double) BOOKINGS_PER_THREAD * 1e9 / elapsed, kept.size());
+        }
+    }
+
+    /**
+     * Lets many threads book the same Jackhammer for the same days at the same
+     * time. Only as many bookings as there are units can succeed.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void test2RaceForTheSamePeriod() throws Exception {
+
+        final int threads = 32;
+
+        for (int round = 0; round < 50; round++) {
+
+            final InventoryIndex inventory = new InventoryIndex();
+            inventory.setUnitCount(ToolCode.JAKR, UNITS_PER_TOOL);
+
+            final CyclicBarrier start = new CyclicBarrier(threads);
+            List<Callable<Reservation>> racers = new ArrayList<Callable<Reservation>>();
+
+            for (int thread = 0; thread < threads; thread++) {
+                racers.add(new Callable<Reservation>() {
+
+                    @Override
+                    public Reservation call() throws Exception {
+                        start.await();
+                        return inventory.reserve(ToolCode.JAKR, FIRST_DAY + 12, FIRST_DAY + 16);
+                    }
+                });
+            }
+
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            List<Reservation> booked = new ArrayList<Reservation>();
+
+            try {
+                for (Future<Reservation> future : executor.invokeAll(racers)) {
+                    if (future.get() != null) {
+                        booked.add(future.get());
+                    }
+                }
+            } finally {
+                executor.shutdown();
+            }
+
+            assertEquals(UNITS_PER_TOOL, booked.size());
+            assertNoUnitIsBookedTwice(booked);
+        }
+    }
+
+    private static void assertNoUnitIsBookedTwice(List<Reservation> reservations) {
+
+        List<Reservation> sorted = new ArrayList<Reservation>(reservations);
+
+        Collections.sort(sorted, new Comparator<Reservation>() {
+
+            @Override
+            public int compare(Reservation first, Reservation second) {
+
+                int byTool = first.getToolCode().compareTo(second.getToolCode());
+                if (byTool != 0) {
+                    return byTool;
+                }
+
+                int byUnit = Integer.compare(first.getUnit(), second.getUnit());
+                return byUnit != 0 ? byUnit : Integer.compare(first.getStartDay(), second.getStartDay());
+            }
+        });
+
+        for (int i = 1; i < sorted.size(); i++) {
+
+            Reservation previous = sorted.get(i - 1);
+            Reservation current = sorted.get(i);
+
+            if (previous.getToolCode() == current.getToolCode() && previous.getUnit() == current.getUnit()) {
+                assertTrue(previous + " overlaps " + current, previous.getEndDay() <= current.getStartDay());
+            }
+        }
+    }
+
+    /**
+     * Books rentals of one to ten days in the four weeks around July 4th and
+     * cancels about a third of them again.
+     */
+    private static final class BookingWorker implements Callable<List<Reservation>> {
+
+        private final InventoryIndex inventory;
+        private final Random random;
+
+        BookingWorker(InventoryIndex inventory, int seed) {
+            this.inventory = inventory;
+            this.random = new Random(seed);
+        }
+
+        @Override
+        public List<Reservation> call() {
+
+            ToolCode[] toolCodes = ToolCode.values();
+            List<Reservation> kept = new ArrayList<Reservation>();
+
+            for (int i = 0; i < BOOKINGS_PER_THREAD; i++) {
+
+                int startDay = FIRST_DAY + random.nextInt(28);
+                Reservation reservation = inventory.reserve(toolCodes[random.nextInt(toolCodes.length)], startDay,
+                        startDay + 1 + random.nextInt(10));
+
+                if (reservation == null) {
+                    continue;
+                }
+
+                if (random.nextInt(3) == 0) {
+                    assertTrue(inventory.release(reservation));
+                } else {
+                    kept.add(reservation);
+                }
+            }
+
+            return kept;
+        }
+    }
+
+}
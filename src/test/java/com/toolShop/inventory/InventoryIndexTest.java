@@ -0,0 +1,189 @@
+package com.toolShop.inventory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.toolShop.CheckoutRequest;
+import com.toolShop.RentalPricingService;
+import com.toolShop.ToolCatalog;
+import com.toolShop.ToolCode;
+import com.toolShop.exception.InvalidDiscountPercentException;
+import com.toolShop.exception.InvalidRentalDayCountException;
+import com.toolShop.exception.ToolUnavailableException;
+
+/**
+ * Test class for InventoryIndex.
+ * 
+ * @author tadtab
+ *
+ */
+public class InventoryIndexTest {
+
+    /**
+     * Tests reserving the units of a tool over July 4th.
+     */
+    @Test
+    public void test1ReserveUntilNoUnitIsLeft() {
+
+        InventoryIndex inventory = new InventoryIndex();
+        inventory.setUnitCount(ToolCode.JAKR, 2);
+
+        LocalDate july2 = LocalDate.of(2020, 7, 2);
+        LocalDate july9 = LocalDate.of(2020, 7, 9);
+
+        assertTrue(inventory.isAvailable(ToolCode.JAKR, july2, july9));
+
+        assertEquals(0, inventory.reserve(ToolCode.JAKR, july2, july9).getUnit());
+        assertEquals(1, inventory.reserve(ToolCode.JAKR, LocalDate.of(2020, 7, 1), LocalDate.of(2020, 7, 5))
+                .getUnit());
+
+        assertFalse(inventory.isAvailable(ToolCode.JAKR, july2, july9));
+        assertNull(inventory.reserve(ToolCode.JAKR, LocalDate.of(2020, 7, 4), LocalDate.of(2020, 7, 6)));
+
+        // a unit returned on July 5th can go out again the same day
+        assertEquals(1, inventory.countAvailableUnits(ToolCode.JAKR, (int) LocalDate.of(2020, 7, 5).toEpochDay(),
+                (int) LocalDate.of(2020, 7, 8).toEpochDay()));
+        assertEquals(LocalDate.of(2020, 7, 5), inventory.firstAvailableDate(ToolCode.JAKR, july2, 3));
+
+        assertFalse(inventory.isAvailable(ToolCode.CHNS, july2, july9));
+    }
+
+    /**
+     * Tests releasing a reservation.
+     */
+    @Test
+    public void test2Release() {
+
+        InventoryIndex inventory = new InventoryIndex();
+        inventory.setUnitCount(ToolCode.LADW, 1);
+
+        Reservation reservation = inventory.reserve(ToolCode.LADW, 100, 110);
+
+        assertFalse(inventory.isAvailable(ToolCode.LADW, 105, 106));
+        assertTrue(inventory.release(reservation));
+        assertFalse(inventory.release(reservation));
+        assertTrue(inventory.isAvailable(ToolCode.LADW, 105, 106));
+    }
+
+    /**
+     * Compares the queries with a brute force scan of the reservations, after
+     * releasing some of them.
+     */
+    @Test
+    public void test3QueriesMatchBruteForce() {
+
+        Random random = new Random(17);
+        InventoryIndex inventory = new InventoryIndex();
+        inventory.setUnitCount(ToolCode.CHNS, 3);
+
+        List<Reservation> reservations = new ArrayList<Reservation>();
+
+        for (int i = 0; i < 3000; i++) {
+
+            int startDay = random.nextInt(5000);
+            Reservation reservation = inventory.reserve(ToolCode.CHNS, startDay, startDay + 1 + random.nextInt(10));
+
+            if (reservation != null) {
+                reservations.add(reservation);
+            }
+        }
+
+        for (int i = reservations.size() - 1; i >= 0; i -= 1 + random.nextInt(5)) {
+            assertTrue(inventory.release(reservations.remove(i)));
+        }
+
+        for (int i = 0; i < 2000; i++) {
+
+            int startDay = random.nextInt(5200);
+            int days = 1 + random.nextInt(15);
+
+            assertEquals(freeUnits(reservations, startDay, startDay + days),
+                    inventory.countAvailableUnits(ToolCode.CHNS, startDay, startDay + days));
+
+            int firstDay = startDay;
+            while (freeUnits(reservations, firstDay, firstDay + days) == 0) {
+                firstDay++;
+            }
+
+            assertEquals(firstDay, inventory.firstAvailableDay(ToolCode.CHNS, startDay, days));
+        }
+    }
+
+    /**
+     * Tests that queries stay fast with a long history of reservations.
+     */
+    @Test(timeout = 10000)
+    public void test4LongHistory() {
+
+        InventoryIndex inventory = new InventoryIndex();
+        inventory.setUnitCount(ToolCode.JAKD, 4);
+
+        for (int day = 0; day < 1000000; day += 2) {
+            for (int unit = 0; unit < 4; unit++) {
+                assertNotNull(inventory.reserve(ToolCode.JAKD, day, day + 2));
+            }
+        }
+
+        assertEquals(2000000, inventory.getReservationCount(ToolCode.JAKD));
+
+        for (int i = 0; i < 100000; i++) {
+            assertFalse(inventory.isAvailable(ToolCode.JAKD, i * 7, i * 7 + 1));
+        }
+
+        assertEquals(1000000, inventory.firstAvailableDay(ToolCode.JAKD, 500000, 3));
+    }
+
+    /**
+     * Tests checking out with a reservation.
+     * 
+     * @throws InvalidDiscountPercentException
+     * @throws InvalidRentalDayCountException
+     * @throws ToolUnavailableException
+     */
+    @Test(expected = ToolUnavailableException.class)
+    public void test5CheckOutAndReserve()
+            throws InvalidDiscountPercentException, InvalidRentalDayCountException, ToolUnavailableException {
+
+        RentalPricingService service = new RentalPricingService(ToolCatalog.createDefault());
+        InventoryIndex inventory = new InventoryIndex();
+        inventory.setUnitCount(ToolCode.JAKR, 1);
+
+        Booking booking = service.checkOutAndReserve(new CheckoutRequest(ToolCode.JAKR, 9, 0, "7/2/15"), inventory);
+
+        assertEquals(5, booking.getRentalAgreement().getChargeDays());
+        assertEquals(LocalDate.of(2015, 7, 11), booking.getReservation().getEndDate());
+
+        service.checkOutAndReserve(new CheckoutRequest(ToolCode.JAKR, 2, 0, "7/10/15"), inventory);
+    }
+
+    private static int freeUnits(List<Reservation> reservations, int startDay, int endDay) {
+
+        boolean[] busy = new boolean[3];
+
+        for (Reservation reservation : reservations) {
+            if (reservation.overlaps(startDay, endDay)) {
+                busy[reservation.getUnit()] = true;
+            }
+        }
+
+        int free = 0;
+        for (boolean unitBusy : busy) {
+            if (!unitBusy) {
+                free++;
+            }
+        }
+
+        return free;
+    }
+
+}
@@ -0,0 +1,118 @@
+package com.toolShop.ledger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import com.toolShop.RentalAgreement;
+import com.toolShop.RentalPricingService;
+import com.toolShop.RentalPricingServiceTest;
+import com.toolShop.ToolCatalog;
+
+/**
+ * Test class for AgreementColumnStore.
+ *
+ * @author tadtab
+ *
+ */
+public class AgreementColumnStoreTest {
+
+    /**
+     * Tests that agreements over several chunks are read back unchanged by row
+     * and by every column getter.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void test1AppendAndRandomAccess() throws Exception {
+
+        List<RentalAgreement> agreements = agreements(AgreementColumnStore.CHUNK_ROWS * 2 + 100, 3L);
+        AgreementColumnStore store = new AgreementColumnStore();
+
+        for (int i = 0; i < agreements.size(); i++) {
+            assertEquals(i, store.append(agreements.get(i)));
+        }
+
+        assertEquals(agreements.size(), store.size());
+        assertEquals(3L * AgreementColumnStore.CHUNK_ROWS * AgreementColumnStore.ROW_SIZE, store.getMemoryUsed());
+
+        for (int row = 0; row < agreements.size(); row += 97) {
+
+            RentalAgreement rentalAgreement = agreements.get(row);
+
+            assertEquals(rentalAgreement, store.get(row));
+            assertEquals(rentalAgreement.getToolCode(), store.getToolCode(row));
+            assertEquals(rentalAgreement.getToolBrand(), store.getToolBrand(row));
+            assertEquals(rentalAgreement.getToolType(), store.getToolType(row));
+            assertEquals(rentalAgreement.getCheckOutEpochDay(), store.getCheckOutEpochDay(row));
+            assertEquals(rentalAgreement.getFinalChargeCents(), store.getFinalChargeCents(row));
+        }
+
+        try {
+            store.get(agreements.size());
+            fail();
+        } catch (IndexOutOfBoundsException e) {
+            // past the last row
+        }
+    }
+
+    /**
+     * Tests scanning all rows and a range of rows crossing a chunk with cursors.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void test2Scan() throws Exception {
+
+        List<RentalAgreement> agreements = agreements(AgreementColumnStore.CHUNK_ROWS + 500, 4L);
+        AgreementColumnStore store = new AgreementColumnStore();
+        store.appendAll(agreements);
+
+        AgreementColumnStore.Cursor cursor = store.cursor();
+        long finalChargeCents = 0;
+        int rows = 0;
+
+        while (cursor.next()) {
+
+            RentalAgreement rentalAgreement = agreements.get(rows);
+
+            assertEquals(rows, cursor.getRow());
+            assertEquals(rentalAgreement.getToolCode(), cursor.getToolCode());
+            assertEquals(rentalAgreement.getToolBrand(), cursor.getToolBrand());
+            assertEquals(rentalAgreement.getToolType(), cursor.getToolType());
+            assertEquals(rentalAgreement.getDiscountPercentValue(), cursor.getDiscountPercent());
+            assertEquals(rentalAgreement.getRentalDays(), cursor.getRentalDays());
+            assertEquals(rentalAgreement.getDueEpochDay(), cursor.getDueEpochDay());
+            assertEquals(rentalAgreement.getChargeDays(), cursor.getChargeDays());
+            assertEquals(rentalAgreement.getDailyRentalChargeCents(), cursor.getDailyRentalChargeCents());
+            assertEquals(rentalAgreement.getPreDiscountChargeCents(), cursor.getPreDiscountChargeCents());
+            assertEquals(rentalAgreement.getDiscountAmountCents(), cursor.getDiscountAmountCents());
+
+            finalChargeCents += cursor.getFinalChargeCents();
+            rows++;
+        }
+
+        assertEquals(agreements.size(), rows);
+        assertEquals(agreements.stream().mapToLong(RentalAgreement::getFinalChargeCents).sum(), finalChargeCents);
+        assertFalse(cursor.next());
+
+        cursor = store.cursor(AgreementColumnStore.CHUNK_ROWS - 2, AgreementColumnStore.CHUNK_ROWS + 2);
+        for (int row = AgreementColumnStore.CHUNK_ROWS - 2; row < AgreementColumnStore.CHUNK_ROWS + 2; row++) {
+            cursor.next();
+            assertEquals(agreements.get(row).getCheckOutEpochDay(), cursor.getCheckOutEpochDay());
+        }
+        assertFalse(cursor.next());
+    }
+
+    private static List<RentalAgreement> agreements(int count, long seed) throws Exception {
+
+        RentalPricingService service = new RentalPricingService(ToolCatalog.createDefault());
+
+        return service.checkOutAll(RentalPricingServiceTest.randomRequests(count, seed));
+    }
+
+}
@@ -0,0 +1,247 @@
+package com.toolShop.ledger;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.toolShop.CheckoutRequest;
+import com.toolShop.RentalAgreement;
+import com.toolShop.RentalPricingService;
+import com.toolShop.RentalPricingServiceTest;
+import com.toolShop.ToolCatalog;
+import com.toolShop.exception.InvalidDiscountPercentException;
+import com.toolShop.exception.InvalidRentalDayCountException;
+
+/**
+ * Test class for RentalLedger and AgreementRecordCodec.
+ *
+ * @author tadtab
+ *
+ */
+public class RentalLedgerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Tests that an agreement is written and read back unchanged.
+     *
+     * @throws InvalidDiscountPercentException
+     * @throws InvalidRentalDayCountException
+     */
+    @Test
+    public void test1CodecRoundTrip() throws InvalidDiscountPercentException, InvalidRentalDayCountException {
+
+        ByteBuffer buffer = ByteBuffer.allocate(3 * AgreementRecordCodec.RECORD_SIZE);
+
+        for (RentalAgreement rentalAgreement : agreements(3, 1L)) {
+
+            AgreementRecordCodec.encode(buffer, AgreementRecordCodec.RECORD_SIZE, 42, rentalAgreement);
+
+            assertEquals(true, AgreementRecordCodec.isValid(buffer, AgreementRecordCodec.RECORD_SIZE, 42));
+            assertEquals(false, AgreementRecordCodec.isValid(buffer, AgreementRecordCodec.RECORD_SIZE, 43));
+            assertEquals(false, AgreementRecordCodec.isValid(buffer, 0, 0));
+            assertEquals(rentalAgreement, AgreementRecordCodec.decode(buffer, AgreementRecordCodec.RECORD_SIZE));
+        }
+    }
+
+    /**
+     * Tests appending over several segments, reading by sequence number, scanning
+     * and reopening the ledger.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void test2AppendScanAndReopen() throws Exception {
+
+        Path directory = folder.getRoot().toPath();
+        List<RentalAgreement> agreements = agreements(2500, 2L);
+
+        try (RentalLedger ledger = new RentalLedger(directory, 1000)) {
+
+            for (int i = 0; i < agreements.size(); i++) {
+                assertEquals(i, ledger.append(agreements.get(i)));
+            }
+
+            assertEquals(agreements.get(1999), ledger.read(1999));
+            assertEquals(agreements.get(2000), ledger.read(2000));
+        }
+
+        assertEquals(3, directory.toFile().list().length);
+
+        try (RentalLedger ledger = new RentalLedger(directory, 1000)) {
+
+            assertEquals(2500, ledger.size());
+            assertEquals(agreements, scan(ledger));
+
+            assertEquals(2500, ledger.append(agreements.get(0)));
+            assertEquals(agreements.get(0), ledger.read(2500));
+        }
+    }
+
+    /**
+     * Tests that a corrupt record of a full segment fails the opening without
+     * changing any segment file.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void test3CorruptFullSegmentFailsOpening() throws Exception {
+
+        Path directory = folder.getRoot().toPath();
+        List<RentalAgreement> agreements = agreements(250, 3L);
+
+        try (RentalLedger ledger = new RentalLedger(directory, 100)) {
+            for (RentalAgreement rentalAgreement : agreements) {
+                ledger.append(rentalAgreement);
+            }
+        }
+
+        // record 130, in the second segment
+        flipByte(directory.resolve("ledger-00000000000000000100.seg"), 30);
+
+        Map<String, byte[]> files = contents(directory);
+
+        try {
+            new RentalLedger(directory, 100).close();
+            fail();
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("Record 130"));
+        }
+
+        assertEquals(3, files.size());
+        assertEquals(files.keySet(), contents(directory).keySet());
+
+        for (Map.Entry<String, byte[]> entry : contents(directory).entrySet()) {
+            assertArrayEquals(files.get(entry.getKey()), entry.getValue());
+        }
+    }
+
+    /**
+     * Tests that a torn record of the last segment and the records after it are
+     * dropped on recovery, and that appending continues from there.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void test4RecoverFromTornRecordOfLastSegment() throws Exception {
+
+        Path directory = folder.getRoot().toPath();
+        List<RentalAgreement> agreements = agreements(250, 3L);
+
+        try (RentalLedger ledger = new RentalLedger(directory, 100)) {
+            for (RentalAgreement rentalAgreement : agreements) {
+                ledger.append(rentalAgreement);
+            }
+        }
+
+        // record 230, in the last segment
+        flipByte(directory.resolve("ledger-00000000000000000200.seg"), 30);
+
+        try (RentalLedger ledger = new RentalLedger(directory, 100)) {
+
+            assertEquals(230, ledger.size());
+            assertEquals(agreements.subList(0, 230), scan(ledger));
+            assertEquals(3, directory.toFile().list().length);
+
+            assertEquals(230, ledger.append(agreements.get(0)));
+        }
+
+        try (RentalLedger ledger = new RentalLedger(directory, 100)) {
+
+            assertEquals(231, ledger.size());
+            assertEquals(agreements.get(0), ledger.read(230));
+        }
+    }
+
+    /**
+     * Tests that a missing segment file fails the opening.
+     *
+     * @throws Exception
+     */
+    @Test(expected = IOException.class)
+    public void test5MissingSegmentFailsOpening() throws Exception {
+
+        Path directory = folder.getRoot().toPath();
+
+        try (RentalLedger ledger = new RentalLedger(directory, 100)) {
+            for (RentalAgreement rentalAgreement : agreements(250, 4L)) {
+                ledger.append(rentalAgreement);
+            }
+        }
+
+        Files.delete(directory.resolve("ledger-00000000000000000100.seg"));
+
+        new RentalLedger(directory, 100).close();
+    }
+
+    /**
+     * Flips a byte of the charges of a record of a segment file.
+     */
+    private static void flipByte(Path segment, int slot) throws IOException {
+
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+
+            long position = (long) slot * AgreementRecordCodec.RECORD_SIZE + 70;
+            file.seek(position);
+            int value = file.read();
+            file.seek(position);
+            file.write(value ^ 0x5A);
+        }
+    }
+
+    private static Map<String, byte[]> contents(Path directory) throws IOException {
+
+        Map<String, byte[]> contents = new TreeMap<String, byte[]>();
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path path : stream) {
+                contents.put(path.getFileName().toString(), Files.readAllBytes(path));
+            }
+        }
+
+        return contents;
+    }
+
+    private static List<RentalAgreement> agreements(int count, long seed)
+            throws InvalidDiscountPercentException, InvalidRentalDayCountException {
+
+        RentalPricingService service = new RentalPricingService(ToolCatalog.createDefault());
+        List<CheckoutRequest> requests = RentalPricingServiceTest.randomRequests(count, seed);
+
+        return service.checkOutAll(requests);
+    }
+
+    private static List<RentalAgreement> scan(RentalLedger ledger) {
+
+        final List<RentalAgreement> scanned = new ArrayList<RentalAgreement>();
+
+        ledger.scan(new Consumer<RentalAgreement>() {
+
+            @Override
+            public void accept(RentalAgreement rentalAgreement) {
+                scanned.add(rentalAgreement);
+            }
+        });
+
+        return scanned;
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.toolShop.ledger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.YearMonth;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import org.junit.Test;
+
+import com.toolShop.Brand;
+import com.toolShop.RentalAgreement;
+import com.toolShop.RentalPricingService;
+import com.toolShop.RentalPricingServiceTest;
+import com.toolShop.ToolCatalog;
+import com.toolShop.ToolCode;
+
+/**
+ * Test class for RevenueAggregator. The totals are compared against adding up
+ * the agreements one by one.
+ *
+ * @author tadtab
+ *
+ */
+public class RevenueAggregatorTest {
+
+    /**
+     * Tests every grouping over several chunks, including agreements checked out
+     * before 1970.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void test1TotalsMatchAgreements() throws Exception {
+
+        List<RentalAgreement> agreements = new RentalPricingService(ToolCatalog.createDefault())
+                .checkOutAll(RentalPricingServiceTest.randomRequests(AgreementColumnStore.CHUNK_ROWS * 3 + 17, 24L));
+
+        agreements.set(5, agreements.get(5).toBuilder().checkOutEpochDay(-400).build());
+        agreements.set(70000, agreements.get(70000).toBuilder().checkOutEpochDay(-398).build());
+
+        AgreementColumnStore store = new AgreementColumnStore();
+        store.appendAll(agreements);
+
+        RevenueAggregator aggregator = new RevenueAggregator(4);
+
+        try {
+            assertEquals(fold(agreements, RentalAgreement::getToolCode, new EnumMap<ToolCode, RevenueTotals>(
+                    ToolCode.class)), aggregator.byToolCode(store));
+            assertEquals(fold(agreements, RentalAgreement::getToolBrand, new EnumMap<Brand, RevenueTotals>(
+                    Brand.class)), aggregator.byBrand(store));
+            assertEquals(fold(agreements, RentalAgreement::getToolType, new TreeMap<String, RevenueTotals>()),
+                    aggregator.byToolType(store));
+
+            Map<YearMonth, RevenueTotals> byMonth = aggregator.byMonth(store);
+
+            assertEquals(fold(agreements, rentalAgreement -> YearMonth.from(rentalAgreement.getCheckOutDate()),
+                    new TreeMap<YearMonth, RevenueTotals>()), byMonth);
+            assertEquals(2, byMonth.get(YearMonth.of(1968, 11)).getAgreements());
+
+            RevenueTotals total = aggregator.total(store);
+
+            assertEquals(agreements.size(), total.getAgreements());
+            assertTrue(total.getFinalChargeCents() > 0);
+            assertEquals(new RevenueTotals(0, 0, 0, 0), aggregator.total(new AgreementColumnStore()));
+
+        } finally {
+            aggregator.shutdown();
+        }
+    }
+
+    private static <K> Map<K, RevenueTotals> fold(List<RentalAgreement> agreements,
+            Function<RentalAgreement, K> grouping, Map<K, RevenueTotals> totals) {
+
+        for (RentalAgreement rentalAgreement : agreements) {
+            totals.merge(grouping.apply(rentalAgreement),
+                    new RevenueTotals(1, rentalAgreement.getFinalChargeCents(),
+                            rentalAgreement.getDiscountAmountCents(), rentalAgreement.getChargeDays()),
+                    RevenueTotals::plus);
+        }
+
+        return totals;
+    }
+
+}
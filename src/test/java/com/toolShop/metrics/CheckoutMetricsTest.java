@@ -0,0 +1,116 @@
+package com.toolShop.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import com.toolShop.CheckoutRequest;
+import com.toolShop.RentalAgreement;
+import com.toolShop.RentalPricingService;
+import com.toolShop.RentalTool;
+import com.toolShop.ToolCatalog;
+import com.toolShop.ToolCode;
+import com.toolShop.exception.InvalidDiscountPercentException;
+import com.toolShop.exception.InvalidRentalDayCountException;
+
+/**
+ * Test class for CheckoutMetrics. The build switches the metrics on for the
+ * tests; the checks of the global metrics are skipped if they are off.
+ *
+ * @author tadtab
+ *
+ */
+public class CheckoutMetricsTest {
+
+    /**
+     * Tests that recorded values end up in the snapshot and are forgotten on
+     * reset.
+     */
+    @Test
+    public void test1SnapshotAndReset() {
+
+        CheckoutMetrics metrics = new CheckoutMetrics();
+
+        metrics.recordStage(CheckoutStage.DATE_PARSING, 150);
+        metrics.recordStage(CheckoutStage.DATE_PARSING, 250);
+        metrics.recordCheckout(ToolCode.JAKR, 1000);
+        metrics.recordException(InvalidDiscountPercentException.class);
+        metrics.recordException(InvalidDiscountPercentException.class);
+
+        MetricsSnapshot snapshot = metrics.snapshot();
+
+        assertEquals(2, snapshot.getStage(CheckoutStage.DATE_PARSING).getCount());
+        assertEquals(200, snapshot.getStage(CheckoutStage.DATE_PARSING).getMean(), 0);
+        assertEquals(0, snapshot.getStage(CheckoutStage.VALIDATION).getCount());
+        assertEquals(1, snapshot.getCheckouts(ToolCode.JAKR).getCount());
+        assertEquals(0, snapshot.getCheckouts(ToolCode.LADW).getCount());
+        assertEquals(2, snapshot.getExceptionCount(InvalidDiscountPercentException.class));
+        assertEquals(0, snapshot.getExceptionCount(InvalidRentalDayCountException.class));
+        assertTrue(snapshot.toString().contains("InvalidDiscountPercentException"));
+
+        metrics.reset();
+        snapshot = metrics.snapshot();
+
+        assertEquals(0, snapshot.getStage(CheckoutStage.DATE_PARSING).getCount());
+        assertEquals(0, snapshot.getCheckouts(ToolCode.JAKR).getCount());
+        assertEquals(0, snapshot.getExceptionCount(InvalidDiscountPercentException.class));
+    }
+
+    /**
+     * Tests that checkouts record every stage, the checkout of the tool and the
+     * exceptions of invalid values into the global metrics.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void test2CheckoutsRecordIntoGlobalMetrics() throws Exception {
+
+        Assume.assumeTrue(CheckoutMetrics.isEnabled());
+
+        CheckoutMetrics metrics = CheckoutMetrics.global();
+        metrics.reset();
+
+        ToolCatalog toolCatalog = ToolCatalog.createDefault();
+        RentalTool ladder = toolCatalog.get(ToolCode.LADW);
+
+        for (int i = 0; i < 10; i++) {
+            ladder.checkOut(ToolCode.LADW, 3, 10, "7/2/20");
+        }
+
+        RentalAgreement rentalAgreement = new RentalPricingService(toolCatalog)
+                .checkOut(new CheckoutRequest(ToolCode.JAKR, 4, 50, "7/2/20"));
+        rentalAgreement.getFinalCharge();
+
+        try {
+            ladder.checkOut(ToolCode.LADW, 3, 101, "7/2/20");
+            fail();
+        } catch (InvalidDiscountPercentException e) {
+            // counted
+        }
+
+        try {
+            ladder.checkOut(ToolCode.LADW, 0, 10, "7/2/20");
+            fail();
+        } catch (InvalidRentalDayCountException e) {
+            // counted
+        }
+
+        MetricsSnapshot snapshot = metrics.snapshot();
+
+        assertEquals(10, snapshot.getCheckouts(ToolCode.LADW).getCount());
+        assertEquals(1, snapshot.getCheckouts(ToolCode.JAKR).getCount());
+        assertEquals(0, snapshot.getCheckouts(ToolCode.CHNS).getCount());
+        assertEquals(11, snapshot.getStage(CheckoutStage.VALIDATION).getCount());
+        assertEquals(11, snapshot.getStage(CheckoutStage.DATE_PARSING).getCount());
+        assertEquals(11, snapshot.getStage(CheckoutStage.CHARGE_DAY_CALCULATION).getCount());
+        assertEquals(11, snapshot.getStage(CheckoutStage.CHARGE_CALCULATION).getCount());
+        assertEquals(11, snapshot.getStage(CheckoutStage.AGREEMENT_ASSEMBLY).getCount());
+        assertEquals(1, snapshot.getStage(CheckoutStage.MONEY_FORMATTING).getCount());
+        assertEquals(1, snapshot.getExceptionCount(InvalidDiscountPercentException.class));
+        assertEquals(1, snapshot.getExceptionCount(InvalidRentalDayCountException.class));
+    }
+
+}
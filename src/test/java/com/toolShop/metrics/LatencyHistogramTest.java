@@ -0,0 +1,123 @@
+package com.toolShop.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Test class for LatencyHistogram.
+ *
+ * @author tadtab
+ *
+ */
+public class LatencyHistogramTest {
+
+    /**
+     * Tests that every value falls in a bucket whose bounds hold it, and that
+     * the buckets follow each other without gaps.
+     */
+    @Test
+    public void test1BucketBounds() {
+
+        Random random = new Random(20);
+
+        for (int i = 0; i < 1000000; i++) {
+
+            long value = i < 10000 ? i : random.nextLong() & LatencyHistogram.HIGHEST_TRACKABLE_VALUE;
+            int bucket = LatencyHistogram.bucketOf(value);
+
+            assertTrue(value + "", LatencyHistogram.lowestValueOf(bucket) <= value);
+            assertTrue(value + "", LatencyHistogram.highestValueOf(bucket) >= value);
+            assertTrue(value + "", LatencyHistogram.highestValueOf(bucket) - LatencyHistogram.lowestValueOf(bucket)
+                    <= LatencyHistogram.lowestValueOf(bucket) / 64);
+        }
+
+        int lastBucket = LatencyHistogram.bucketOf(LatencyHistogram.HIGHEST_TRACKABLE_VALUE);
+
+        for (int bucket = 1; bucket <= lastBucket; bucket++) {
+            assertEquals(LatencyHistogram.highestValueOf(bucket - 1) + 1, LatencyHistogram.lowestValueOf(bucket));
+        }
+    }
+
+    /**
+     * Compares the percentiles with the exact percentiles of random latencies
+     * spread over six orders of magnitude.
+     */
+    @Test
+    public void test2PercentilesWithinOnePointSixPercent() {
+
+        Random random = new Random(99);
+        LatencyHistogram histogram = new LatencyHistogram();
+        long[] values = new long[200000];
+
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) Math.pow(10, 2 + random.nextDouble() * 6);
+            histogram.record(values[i]);
+        }
+
+        Arrays.sort(values);
+        HistogramSnapshot snapshot = histogram.snapshot();
+
+        assertEquals(values.length, snapshot.getCount());
+        assertEquals(values[0], snapshot.getMin());
+        assertEquals(values[values.length - 1], snapshot.getMax());
+        assertEquals(Arrays.stream(values).average().getAsDouble(), snapshot.getMean(), 1e-6);
+
+        for (double percentile : new double[] { 0, 1, 25, 50, 90, 99, 99.9, 99.99, 100 }) {
+
+            long exact = values[Math.max(0, (int) Math.ceil(percentile / 100 * values.length) - 1)];
+            long reported = snapshot.getValueAtPercentile(percentile);
+
+            assertTrue(percentile + "", reported >= exact);
+            assertTrue(percentile + "", reported <= exact + exact / 64);
+        }
+    }
+
+    /**
+     * Tests recording from many threads, and values out of range.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void test3ConcurrentRecordingAndClamping() throws Exception {
+
+        final LatencyHistogram histogram = new LatencyHistogram();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        for (int thread = 0; thread < 8; thread++) {
+            executor.execute(() -> {
+                for (int i = 1; i <= 100000; i++) {
+                    histogram.record(i);
+                }
+            });
+        }
+
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+        HistogramSnapshot snapshot = histogram.snapshot();
+
+        assertEquals(800000, snapshot.getCount());
+        assertEquals(1, snapshot.getMin());
+        assertEquals(100000, snapshot.getMax());
+
+        histogram.reset();
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+
+        snapshot = histogram.snapshot();
+
+        assertEquals(2, snapshot.getCount());
+        assertEquals(0, snapshot.getMin());
+        assertEquals(LatencyHistogram.HIGHEST_TRACKABLE_VALUE, snapshot.getMax());
+        assertEquals(0, new LatencyHistogram().snapshot().getValueAtPercentile(99));
+    }
+
+}
@@ -0,0 +1,175 @@
+package com.toolShop.pricing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.toolShop.calendar.HolidayCalendar;
+
+/**
+ * Test class for ChargeDayCalculator. The closed form count is compared
+ * against a day by day walk of the rental period.
+ *
+ * @author tadtab
+ *
+ */
+public class ChargeDayCalculatorTest {
+
+    /**
+     * Tests the charge day counts of the RentalToolTest scenarios.
+     */
+    @Test
+    public void test1CountChargeDaysForKnownScenarios() {
+
+        ChargePolicy ladder = ChargePolicy.of(true, true, false);
+        ChargePolicy chainsaw = ChargePolicy.of(true, false, true);
+        ChargePolicy jackhammer = ChargePolicy.of(true, false, false);
+
+        // Ladder, July 4th 2020 on Saturday
+        assertEquals(2,
+                ChargeDayCalculator.countChargeDays(ladder, LocalDate.of(2020, 7, 2), LocalDate.of(2020, 7, 5)));
+
+        // Chainsaw, July 4th 2015 on Saturday
+        assertEquals(3,
+                ChargeDayCalculator.countChargeDays(chainsaw, LocalDate.of(2015, 7, 2), LocalDate.of(2015, 7, 7)));
+
+        // Jackhammer, Labor day 2015
+        assertEquals(3,
+                ChargeDayCalculator.countChargeDays(jackhammer, LocalDate.of(2015, 9, 3), LocalDate.of(2015, 9, 9)));
+
+        // Jackhammer, July 4th 2015 on Saturday
+        assertEquals(5,
+                ChargeDayCalculator.countChargeDays(jackhammer, LocalDate.of(2015, 7, 2), LocalDate.of(2015, 7, 11)));
+
+        // Jackhammer, July 4th 2020 on Saturday
+        assertEquals(1,
+                ChargeDayCalculator.countChargeDays(jackhammer, LocalDate.of(2020, 7, 2), LocalDate.of(2020, 7, 6)));
+    }
+
+    /**
+     * Compares the closed form count with the day by day walk for random checkout
+     * dates, rental lengths up to ten years and every charge combination.
+     */
+    @Test
+    public void test2CountChargeDaysMatchesDayByDayWalk() {
+
+        Random random = new Random(20150704L);
+
+        for (int i = 0; i < 20000; i++) {
+
+            LocalDate checkOutDate = LocalDate.of(1990, 1, 1).plusDays(random.nextInt(365 * 60));
+            int rentalDays = i % 4 == 0 ? 1 + random.nextInt(3650) : 1 + random.nextInt(40);
+            LocalDate dueDate = checkOutDate.plusDays(rentalDays);
+
+            boolean weekDay = random.nextBoolean();
+            boolean weekEnd = random.nextBoolean();
+            boolean holiday = random.nextBoolean();
+
+            assertEquals(checkOutDate + " + " + rentalDays,
+                    countByWalking(checkOutDate, dueDate, weekDay, weekEnd, holiday),
+                    ChargeDayCalculator.countChargeDays(ChargePolicy.of(weekDay, weekEnd, holiday), checkOutDate,
+                            dueDate));
+        }
+    }
+
+    /**
+     * Tests that every July 4th and Labor day around the turn of the century is
+     * counted with each possible checkout day of week.
+     */
+    @Test
+    public void test3CountChargeDaysAroundEveryHoliday() {
+
+        for (int year = 1995; year <= 2035; year++) {
+
+            LocalDate[] anchors = { LocalDate.of(year, Month.JULY, 1), LocalDate.of(year, Month.AUGUST, 31) };
+
+            for (LocalDate anchor : anchors) {
+                for (int offset = 0; offset < 7; offset++) {
+                    for (int rentalDays = 1; rentalDays <= 10; rentalDays++) {
+
+                        LocalDate checkOutDate = anchor.plusDays(offset);
+                        LocalDate dueDate = checkOutDate.plusDays(rentalDays);
+
+                        assertEquals(countByWalking(checkOutDate, dueDate, true, true, false),
+                                ChargeDayCalculator.countChargeDays(ChargePolicy.of(true, true, false), checkOutDate,
+                                        dueDate));
+                        assertEquals(countByWalking(checkOutDate, dueDate, true, false, true),
+                                ChargeDayCalculator.countChargeDays(ChargePolicy.of(true, false, true), checkOutDate,
+                                        dueDate));
+                        assertEquals(countByWalking(checkOutDate, dueDate, true, false, false),
+                                ChargeDayCalculator.countChargeDays(ChargePolicy.of(true, false, false), checkOutDate,
+                                        dueDate));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests the classification of single days.
+     */
+    @Test
+    public void test4DayClassOf() {
+
+        HolidayCalendar calendar = HolidayCalendar.getDefault();
+
+        assertEquals(ChargePolicy.WEEK_DAY,
+                ChargeDayCalculator.dayClassOf(calendar, (int) LocalDate.of(2015, 7, 2).toEpochDay()));
+        assertEquals(ChargePolicy.HOLIDAY,
+                ChargeDayCalculator.dayClassOf(calendar, (int) LocalDate.of(2015, 7, 3).toEpochDay()));
+        assertEquals(ChargePolicy.WEEK_END,
+                ChargeDayCalculator.dayClassOf(calendar, (int) LocalDate.of(2015, 7, 4).toEpochDay()));
+        assertEquals(ChargePolicy.HOLIDAY,
+                ChargeDayCalculator.dayClassOf(calendar, (int) LocalDate.of(2015, 9, 7).toEpochDay()));
+
+        assertTrue(ChargePolicy.of(true, false, true).appliesTo(ChargePolicy.HOLIDAY));
+        assertFalse(ChargePolicy.of(true, false, true).appliesTo(ChargePolicy.WEEK_END));
+    }
+
+    /**
+     * Reference implementation walking every day of the rental period.
+     */
+    private static int countByWalking(LocalDate checkOutDate, LocalDate dueDate, boolean weekDay, boolean weekEnd,
+            boolean holiday) {
+
+        int chargeDays = 0;
+
+        for (LocalDate day = checkOutDate.plusDays(1); !day.isAfter(dueDate); day = day.plusDays(1)) {
+
+            boolean isWeekEnd = DayOfWeek.SATURDAY.equals(day.getDayOfWeek())
+                    || DayOfWeek.SUNDAY.equals(day.getDayOfWeek());
+
+            if (isHoliday(day) ? holiday : isWeekEnd ? weekEnd : weekDay) {
+                chargeDays++;
+            }
+        }
+
+        return chargeDays;
+    }
+
+    /**
+     * Observed July 4th or first Monday of September.
+     */
+    private static boolean isHoliday(LocalDate day) {
+
+        DayOfWeek dayOfWeek = day.getDayOfWeek();
+
+        if (Month.JULY.equals(day.getMonth())) {
+            return (day.getDayOfMonth() == 4 && !DayOfWeek.SATURDAY.equals(dayOfWeek)
+                    && !DayOfWeek.SUNDAY.equals(dayOfWeek))
+                    || (day.getDayOfMonth() == 3 && DayOfWeek.FRIDAY.equals(dayOfWeek))
+                    || (day.getDayOfMonth() == 5 && DayOfWeek.MONDAY.equals(dayOfWeek));
+        }
+
+        return Month.SEPTEMBER.equals(day.getMonth()) && DayOfWeek.MONDAY.equals(dayOfWeek)
+                && !Month.SEPTEMBER.equals(day.minusDays(7).getMonth());
+    }
+
+}
@@ -0,0 +1,120 @@
+package com.toolShop.pricing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDate;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.toolShop.calendar.FourthOfJulyRule;
+import com.toolShop.calendar.HolidayCalendar;
+import com.toolShop.calendar.LaborDayRule;
+
+/**
+ * Test class for ChargeDayTables. The table counts are compared against the
+ * closed form count of ChargeDayCalculator.
+ *
+ * @author tadtab
+ *
+ */
+public class ChargeDayTablesTest {
+
+    /**
+     * Compares the table count with the closed form count for random ranges of
+     * the whole covered period, ranges around the decade boundaries and every
+     * charge combination.
+     */
+    @Test
+    public void test1CountChargeDaysMatchesCalculator() {
+
+        HolidayCalendar calendar = HolidayCalendar.getDefault();
+        ChargeDayTables tables = new ChargeDayTables(calendar, ChargeDayTables.DEFAULT_MEMORY_BUDGET);
+        Random random = new Random(22);
+
+        for (int mask = 0; mask < 8; mask++) {
+
+            ChargePolicy chargePolicy = ChargePolicy.ofMask(mask);
+
+            for (int i = 0; i < 20000; i++) {
+
+                int checkOutDay = ChargeDayTables.FIRST_DAY
+                        + random.nextInt(ChargeDayTables.LAST_DAY - ChargeDayTables.FIRST_DAY + 1);
+                int dueDay = i % 2 == 0 ? checkOutDay + random.nextInt(40)
+                        : ChargeDayTables.FIRST_DAY
+                                + random.nextInt(ChargeDayTables.LAST_DAY - ChargeDayTables.FIRST_DAY + 1);
+
+                assertEquals(checkOutDay + " " + dueDay,
+                        ChargeDayCalculator.countChargeDays(chargePolicy, calendar, checkOutDay, dueDay),
+                        tables.countChargeDays(chargePolicy, checkOutDay, dueDay));
+            }
+
+            for (int boundary = 3653; boundary < ChargeDayTables.LAST_DAY; boundary += 3653) {
+                for (int checkOutDay = boundary - 3; checkOutDay <= boundary + 1; checkOutDay++) {
+
+                    assertEquals(ChargeDayCalculator.countChargeDays(chargePolicy, calendar, checkOutDay, boundary),
+                            tables.countChargeDays(chargePolicy, checkOutDay, boundary));
+                    assertEquals(
+                            ChargeDayCalculator.countChargeDays(chargePolicy, calendar, checkOutDay, boundary + 2),
+                            tables.countChargeDays(chargePolicy, checkOutDay, boundary + 2));
+                }
+            }
+        }
+
+        assertTrue(tables.getMemoryUsed() <= ChargeDayTables.DEFAULT_MEMORY_BUDGET);
+        assertEquals(2, tables.countChargeDays(ChargePolicy.of(true, true, false), LocalDate.of(2020, 7, 2),
+                LocalDate.of(2020, 7, 5)));
+    }
+
+    /**
+     * Tests ranges reaching out of the covered period, and a budget too small for
+     * every decade.
+     */
+    @Test
+    public void test2OutOfRangeAndOverBudget() {
+
+        HolidayCalendar calendar = HolidayCalendar.getDefault();
+        ChargeDayTables tables = new ChargeDayTables(calendar, 3 * 3653 * 2);
+        ChargePolicy chargePolicy = ChargePolicy.of(true, false, true);
+        Random random = new Random(5);
+
+        for (int i = 0; i < 20000; i++) {
+
+            int checkOutDay = -20000 + random.nextInt(100000);
+            int dueDay = checkOutDay + random.nextInt(5000);
+
+            assertEquals(checkOutDay + " " + dueDay,
+                    ChargeDayCalculator.countChargeDays(chargePolicy, calendar, checkOutDay, dueDay),
+                    tables.countChargeDays(chargePolicy, checkOutDay, dueDay));
+        }
+
+        assertEquals(3 * 3653 * 2, tables.getMemoryUsed());
+        assertEquals(0, tables.countChargeDays(chargePolicy, 100, 100));
+        assertEquals(0, tables.countChargeDays(chargePolicy, 100, 50));
+    }
+
+    /**
+     * Tests that the tables are built again once a holiday is registered.
+     */
+    @Test
+    public void test3RegisteredHolidayDiscardsTables() {
+
+        HolidayCalendar calendar = new HolidayCalendar(16, new FourthOfJulyRule(), new LaborDayRule());
+        ChargeDayTables tables = new ChargeDayTables(calendar, ChargeDayTables.DEFAULT_MEMORY_BUDGET);
+        ChargePolicy jackhammer = ChargePolicy.of(true, false, false);
+
+        int checkOutDay = (int) LocalDate.of(2020, 7, 2).toEpochDay();
+        int dueDay = (int) LocalDate.of(2020, 7, 10).toEpochDay();
+
+        // July 3rd observed, July 6th to 10th
+        assertEquals(5, tables.countChargeDays(jackhammer, checkOutDay, dueDay));
+
+        calendar.register(year -> (int) LocalDate.of(year, 7, 7).toEpochDay());
+
+        assertEquals(4, tables.countChargeDays(jackhammer, checkOutDay, dueDay));
+        assertEquals(ChargeDayCalculator.countChargeDays(jackhammer, calendar, 0, ChargeDayTables.LAST_DAY),
+                tables.countChargeDays(jackhammer, 0, ChargeDayTables.LAST_DAY));
+    }
+
+}
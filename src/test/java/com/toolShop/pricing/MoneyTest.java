@@ -0,0 +1,63 @@
+package com.toolShop.pricing;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigDecimal;
+
+import org.junit.Test;
+
+/**
+ * Test class for Money.
+ *
+ * @author tadtab
+ *
+ */
+public class MoneyTest {
+
+    /**
+     * Tests conversion of dollar amounts to cents, rounded half up.
+     */
+    @Test
+    public void test1ToCents() {
+
+        assertEquals(199, Money.toCents(new BigDecimal(1.99)));
+        assertEquals(199, Money.toCents(new BigDecimal("1.985")));
+        assertEquals(198, Money.toCents(new BigDecimal("1.9849")));
+        assertEquals(123456789, Money.toCents(new BigDecimal("1234567.89")));
+        assertEquals(new BigDecimal("1234567.89"), Money.toDollars(123456789));
+    }
+
+    /**
+     * Tests that percentages are rounded half up and not half even.
+     */
+    @Test
+    public void test2PercentOf() {
+
+        // $3.98 X 10% = $0.398
+        assertEquals(40, Money.percentOf(398, 10));
+
+        // $4.47 X 25% = $1.1175
+        assertEquals(112, Money.percentOf(447, 25));
+
+        // $2.99 X 50% = $1.495
+        assertEquals(150, Money.percentOf(299, 50));
+
+        // $2.50 X 1% = $0.025
+        assertEquals(3, Money.percentOf(250, 1));
+        assertEquals(-3, Money.percentOf(-250, 1));
+
+        assertEquals(0, Money.percentOf(299, 0));
+        assertEquals(299, Money.percentOf(299, 100));
+    }
+
+    /**
+     * Tests multiplying the daily charge by the charge days.
+     */
+    @Test
+    public void test3Multiply() {
+
+        assertEquals(1495, Money.multiply(299, 5));
+        assertEquals(0, Money.multiply(299, 0));
+    }
+
+}
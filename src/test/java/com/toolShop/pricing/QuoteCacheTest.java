@@ -0,0 +1,184 @@
+package com.toolShop.pricing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import com.toolShop.Brand;
+import com.toolShop.CheckoutRequest;
+import com.toolShop.RentalAgreement;
+import com.toolShop.RentalPricingService;
+import com.toolShop.RentalTool;
+import com.toolShop.ToolCatalog;
+import com.toolShop.ToolCode;
+import com.toolShop.ToolType;
+import com.toolShop.calendar.FourthOfJulyRule;
+import com.toolShop.calendar.HolidayCalendar;
+import com.toolShop.calendar.LaborDayRule;
+import com.toolShop.exception.InvalidDiscountPercentException;
+import com.toolShop.exception.InvalidRentalDayCountException;
+
+/**
+ * Test class for QuoteCache.
+ *
+ * @author tadtab
+ *
+ */
+public class QuoteCacheTest {
+
+    private final AtomicLong time = new AtomicLong();
+
+    private final ToolCatalog catalog = ToolCatalog.createDefault();
+
+    private final HolidayCalendar calendar = new HolidayCalendar(16, new FourthOfJulyRule(), new LaborDayRule());
+
+    private final QuoteCache cache = new QuoteCache(64, 10, TimeUnit.MINUTES, time::get);
+
+    private final RentalPricingService service = new RentalPricingService(catalog, calendar, cache);
+
+    /**
+     * Tests that the same quote is returned from the cache.
+     *
+     * @throws InvalidDiscountPercentException
+     * @throws InvalidRentalDayCountException
+     */
+    @Test
+    public void test1RepeatedQuoteIsCached() throws InvalidDiscountPercentException, InvalidRentalDayCountException {
+
+        RentalAgreement first = service.checkOut(new CheckoutRequest(ToolCode.JAKR, 9, 0, "7/2/15"));
+        RentalAgreement second = service.checkOut(new CheckoutRequest(ToolCode.JAKR, 9, 0, "7/2/15"));
+
+        assertSame(first, second);
+        assertEquals(5, second.getChargeDays());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+
+        service.checkOut(new CheckoutRequest(ToolCode.JAKR, 9, 10, "7/2/15"));
+
+        assertEquals(2, cache.getMissCount());
+        assertEquals(2, cache.size());
+    }
+
+    /**
+     * Tests that quotes expire after the time to live.
+     *
+     * @throws InvalidDiscountPercentException
+     * @throws InvalidRentalDayCountException
+     */
+    @Test
+    public void test2QuoteExpires() throws InvalidDiscountPercentException, InvalidRentalDayCountException {
+
+        RentalAgreement first = service.checkOut(new CheckoutRequest(ToolCode.LADW, 3, 10, "7/2/20"));
+
+        time.addAndGet(TimeUnit.MINUTES.toNanos(9));
+        assertSame(first, service.checkOut(new CheckoutRequest(ToolCode.LADW, 3, 10, "7/2/20")));
+
+        time.addAndGet(TimeUnit.MINUTES.toNanos(2));
+        RentalAgreement repriced = service.checkOut(new CheckoutRequest(ToolCode.LADW, 3, 10, "7/2/20"));
+
+        assertNotSame(first, repriced);
+        assertEquals(first, repriced);
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    /**
+     * Tests that the cache does not grow beyond its size.
+     *
+     * @throws InvalidDiscountPercentException
+     * @throws InvalidRentalDayCountException
+     */
+    @Test
+    public void test3CacheIsBounded() throws InvalidDiscountPercentException, InvalidRentalDayCountException {
+
+        for (int rentalDays = 1; rentalDays <= 1000; rentalDays++) {
+            service.checkOut(new CheckoutRequest(ToolCode.CHNS, rentalDays, 0, "7/2/15"));
+        }
+
+        assertTrue(cache.size() <= 64);
+        assertEquals(1000 - cache.size(), cache.getEvictionCount());
+    }
+
+    /**
+     * Tests that cached quotes are priced again when a rate or the holidays
+     * change.
+     *
+     * @throws InvalidDiscountPercentException
+     * @throws InvalidRentalDayCountException
+     */
+    @Test
+    public void test4QuoteIsInvalidatedByRateAndHolidayChanges()
+            throws InvalidDiscountPercentException, InvalidRentalDayCountException {
+
+        CheckoutRequest request = new CheckoutRequest(ToolCode.JAKR, 9, 0, "7/2/15");
+
+        assertEquals(1495, service.checkOut(request).getFinalChargeCents());
+
+        catalog.update(new RentalTool(ToolCode.JAKR, Brand.RIDGID,
+                new ToolType("Jackhammer", new BigDecimal("3.49"), true, false, false)));
+
+        assertEquals(1745, service.checkOut(request).getFinalChargeCents());
+
+        // make July 7th 2015 a holiday
+        calendar.register(year -> (int) LocalDate.of(year, 7, 7).toEpochDay());
+
+        RentalAgreement rentalAgreement = service.checkOut(request);
+
+        assertEquals(4, rentalAgreement.getChargeDays());
+        assertEquals(0, cache.getHitCount());
+        assertEquals(2, cache.getEvictionCount());
+    }
+
+    /**
+     * Tests direct use of the cache.
+     */
+    @Test
+    public void test5GetAndPut() {
+
+        QuoteKey key = new QuoteKey(ToolCode.JAKD, "9/3/15", 6, 0);
+
+        assertNull(cache.get(key, 0, 0));
+
+        RentalAgreement rentalAgreement = new RentalAgreement.Builder().toolCode(ToolCode.JAKD).build();
+        cache.put(key, rentalAgreement, 0, 0);
+
+        assertSame(rentalAgreement, cache.get(new QuoteKey(ToolCode.JAKD, "9/3/15", 6, 0), 0, 0));
+        assertNull(cache.get(key, 1, 0));
+
+        cache.put(key, rentalAgreement, 0, 0);
+        cache.invalidateAll();
+
+        assertEquals(0, cache.size());
+    }
+
+    /**
+     * Tests that caches smaller than the number of segments, or not a multiple
+     * of it, fill up to their maximum size and never hold more.
+     */
+    @Test
+    public void test6SmallCacheIsBounded() {
+
+        RentalAgreement rentalAgreement = new RentalAgreement.Builder().toolCode(ToolCode.LADW).build();
+
+        for (int maximumSize : new int[] { 1, 3, 4, 20 }) {
+
+            QuoteCache smallCache = new QuoteCache(maximumSize, 0, TimeUnit.MINUTES, time::get);
+
+            for (int rentalDays = 1; rentalDays <= 1000; rentalDays++) {
+                smallCache.put(new QuoteKey(ToolCode.LADW, "7/2/15", rentalDays, 0), rentalAgreement, 0, 0);
+            }
+
+            assertEquals(maximumSize, smallCache.size());
+            assertEquals(1000 - maximumSize, smallCache.getEvictionCount());
+        }
+    }
+
+}
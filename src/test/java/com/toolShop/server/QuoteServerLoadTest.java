@@ -0,0 +1,219 @@
+package com.toolShop.server;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URLEncoder;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.toolShop.CheckoutRequest;
+import com.toolShop.RentalPricingService;
+import com.toolShop.RentalPricingServiceTest;
+import com.toolShop.ToolCatalog;
+import com.toolShop.calendar.HolidayCalendar;
+import com.toolShop.export.AgreementWriter;
+import com.toolShop.export.JsonAgreementWriter;
+import com.toolShop.pricing.QuoteCache;
+
+/**
+ * Load test for QuoteServer. Clients on localhost request random quotes as
+ * fast as they can, each over its own kept-alive connection. Every answer is
+ * checked, and the throughput with the p50 and p99 latency of each run is
+ * reported.
+ *
+ * @author tadtab
+ *
+ */
+public class QuoteServerLoadTest {
+
+    private static final int REQUESTS_PER_RUN = 16000;
+
+    /**
+     * Runs 4 to 64 clients against a server with a quote cache.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void test1LatencyFromFourToSixtyFourClients() throws Exception {
+
+        RentalPricingService service = new RentalPricingService(ToolCatalog.createDefault(),
+                HolidayCalendar.getDefault(), new QuoteCache(10000, 1, TimeUnit.HOURS));
+
+        List<CheckoutRequest> requests = RentalPricingServiceTest.randomRequests(2000, 19L);
+        String[] paths = new String[requests.size()];
+        String[] expected = new String[requests.size()];
+
+        for (int i = 0; i < paths.length; i++) {
+
+            CheckoutRequest request = requests.get(i);
+
+            paths[i] = "/quote?tool=" + request.getToolCode() + "&days=" + request.getRentalDayCount()
+                    + "&discount=" + request.getDiscountPercent() + "&date="
+                    + URLEncoder.encode(request.getCheckOutDate(), "UTF-8");
+            expected[i] = jsonOf(service, request);
+        }
+
+        try (QuoteServer quoteServer = new QuoteServer(service,
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0))) {
+
+            quoteServer.start();
+
+            for (int clients = 4; clients <= 64; clients *= 4) {
+
+                List<Callable<long[]>> workers = new ArrayList<Callable<long[]>>();
+                for (int client = 0; client < clients; client++) {
+                    workers.add(new QuoteClient(quoteServer.getPort(), paths, expected, client,
+                            REQUESTS_PER_RUN / clients));
+                }
+
+                ExecutorService executor = Executors.newFixedThreadPool(clients);
+                long[] latencies = new long[0];
+                long started = System.nanoTime();
+
+                try {
+                    for (Future<long[]> future : executor.invokeAll(workers)) {
+
+                        long[] clientLatencies = future.get();
+                        int merged = latencies.length;
+
+                        latencies = Arrays.copyOf(latencies, merged + clientLatencies.length);
+                        System.arraycopy(clientLatencies, 0, latencies, merged, clientLatencies.length);
+                    }
+                } finally {
+                    executor.shutdown();
+                }
+
+                long elapsed = System.nanoTime() - started;
+                Arrays.sort(latencies);
+
+                System.out.printf("QuoteServer %2d clients: %,8.0f quotes/s, p50 %6.3f ms, p99 %6.3f ms%n", clients,
+                        latencies.length * 1e9 / elapsed, percentile(latencies, 50) / 1e6,
+                        percentile(latencies, 99) / 1e6);
+            }
+        }
+    }
+
+    private static long percentile(long[] sortedLatencies, int percent) {
+
+        int index = (int) Math.ceil(sortedLatencies.length * percent / 100.0) - 1;
+
+        return sortedLatencies[Math.max(index, 0)];
+    }
+
+    private static String jsonOf(RentalPricingService service, CheckoutRequest request) throws Exception {
+
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+
+        try (AgreementWriter writer = new JsonAgreementWriter(Channels.newChannel(json), 1024, false)) {
+            writer.write(service.checkOut(request));
+        }
+
+        return new String(json.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Requests quotes one after another over a single kept-alive connection and
+     * measures each of them.
+     */
+    private static class QuoteClient implements Callable<long[]> {
+
+        private final int port;
+        private final String[] paths;
+        private final String[] expected;
+        private final int client;
+        private final int requestCount;
+
+        QuoteClient(int port, String[] paths, String[] expected, int client, int requestCount) {
+            this.port = port;
+            this.paths = paths;
+            this.expected = expected;
+            this.client = client;
+            this.requestCount = requestCount;
+        }
+
+        @Override
+        public long[] call() throws Exception {
+
+            long[] latencies = new long[requestCount];
+
+            try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+
+                socket.setTcpNoDelay(true);
+                OutputStream output = socket.getOutputStream();
+                InputStream input = new BufferedInputStream(socket.getInputStream());
+
+                for (int i = 0; i < requestCount; i++) {
+
+                    int request = (client * 7919 + i) % paths.length;
+                    long started = System.nanoTime();
+
+                    output.write(("GET " + paths[request] + " HTTP/1.1\r\nHost: localhost\r\n\r\n")
+                            .getBytes(StandardCharsets.US_ASCII));
+                    output.flush();
+
+                    String statusLine = readLine(input);
+                    int contentLength = -1;
+
+                    for (String header = readLine(input); !header.isEmpty(); header = readLine(input)) {
+                        if (header.toLowerCase(Locale.ROOT).startsWith("content-length:")) {
+                            contentLength = Integer.parseInt(header.substring(15).trim());
+                        }
+                    }
+
+                    byte[] body = new byte[contentLength];
+                    for (int read = 0; read < body.length;) {
+                        int chunk = input.read(body, read, body.length - read);
+                        if (chunk < 0) {
+                            throw new EOFException();
+                        }
+                        read += chunk;
+                    }
+
+                    latencies[i] = System.nanoTime() - started;
+
+                    assertEquals("HTTP/1.1 200 OK", statusLine);
+                    assertEquals(expected[request], new String(body, StandardCharsets.UTF_8));
+                }
+            }
+
+            return latencies;
+        }
+
+        private static String readLine(InputStream input) throws IOException {
+
+            StringBuilder line = new StringBuilder();
+
+            for (int character = input.read(); character != '\n'; character = input.read()) {
+                if (character < 0) {
+                    throw new EOFException();
+                }
+                if (character != '\r') {
+                    line.append((char) character);
+                }
+            }
+
+            return line.toString();
+        }
+    }
+
+}
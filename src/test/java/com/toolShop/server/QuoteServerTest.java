@@ -0,0 +1,193 @@
+package com.toolShop.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.toolShop.CheckoutRequest;
+import com.toolShop.RentalAgreement;
+import com.toolShop.RentalPricingService;
+import com.toolShop.ToolCatalog;
+import com.toolShop.ToolCode;
+import com.toolShop.export.AgreementWriter;
+import com.toolShop.export.JsonAgreementWriter;
+
+/**
+ * Test class for QuoteServer.
+ *
+ * @author tadtab
+ *
+ */
+public class QuoteServerTest {
+
+    private final RentalPricingService service = new RentalPricingService(ToolCatalog.createDefault());
+
+    private QuoteServer quoteServer;
+
+    @Before
+    public void startServer() throws IOException {
+
+        quoteServer = new QuoteServer(service, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        quoteServer.start();
+    }
+
+    @After
+    public void stopServer() {
+        quoteServer.close();
+    }
+
+    /**
+     * Tests that a quote is answered with the agreement as a JSON object, with an
+     * encoded date and with the discount left out.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void test1Quote() throws Exception {
+
+        Response response = get("/quote?tool=LADW&days=3&discount=10&date=7/2/20");
+
+        assertEquals(200, response.status);
+        assertEquals(jsonOf(new CheckoutRequest(ToolCode.LADW, 3, 10, "7/2/20")), response.body);
+
+        response = get("/quote?tool=JAKR&days=4&date=7%2F2%2F20");
+
+        assertEquals(200, response.status);
+        assertEquals(jsonOf(new CheckoutRequest(ToolCode.JAKR, 4, 0, "7/2/20")), response.body);
+    }
+
+    /**
+     * Tests that invalid values are answered with status 400 and an error object.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void test2InvalidValues() throws Exception {
+
+        String[] queries = { "tool=JAKR&days=5&discount=101&date=9/3/15", "tool=JAKR&days=0&date=9/3/15",
+                "tool=JAKR&days=5&date=9/3/2015", "tool=XXXX&days=5&date=9/3/15", "tool=JAKR&days=five&date=9/3/15",
+                "tool=JAKR&date=9/3/15", "tool=JAKR&days=2147483647&date=9/3/15", "" };
+
+        for (String query : queries) {
+
+            Response response = get("/quote?" + query);
+
+            assertEquals(query, 400, response.status);
+            assertTrue(query, response.body.startsWith("{\"error\":\""));
+        }
+    }
+
+    /**
+     * Tests that a tool missing from the catalog is answered with status 400 and
+     * a failure of the pricing with status 500.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void test4MissingToolAndPricingFailure() throws Exception {
+
+        service.getToolCatalog().reload(Arrays.asList(service.getToolCatalog().get(ToolCode.LADW)));
+
+        Response response = get("/quote?tool=JAKR&days=5&date=9/3/15");
+
+        assertEquals(400, response.status);
+        assertEquals("{\"error\":\"Tool is not rented out\"}\n", response.body);
+
+        RentalPricingService failingService = new RentalPricingService(ToolCatalog.createDefault()) {
+
+            @Override
+            public RentalAgreement checkOut(CheckoutRequest request) {
+                throw new IllegalArgumentException("pricing bug");
+            }
+        };
+
+        quoteServer.close();
+        quoteServer = new QuoteServer(failingService, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        quoteServer.start();
+
+        assertEquals(500, get("/quote?tool=LADW&days=5&date=9/3/15").status);
+    }
+
+    /**
+     * Tests that other paths and methods are refused.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void test3OtherPathsAndMethods() throws Exception {
+
+        assertEquals(404, get("/quote/all?tool=LADW&days=3&date=7/2/20").status);
+
+        HttpURLConnection connection = open("/quote?tool=LADW&days=3&date=7/2/20");
+        connection.setRequestMethod("DELETE");
+
+        assertEquals(405, connection.getResponseCode());
+        assertEquals("GET", connection.getHeaderField("Allow"));
+        read(connection);
+    }
+
+    private String jsonOf(CheckoutRequest request) throws Exception {
+
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+
+        try (AgreementWriter writer = new JsonAgreementWriter(Channels.newChannel(json), 1024, false)) {
+            writer.write(service.checkOut(request));
+        }
+
+        return new String(json.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private Response get(String pathAndQuery) throws IOException {
+
+        HttpURLConnection connection = open(pathAndQuery);
+
+        return new Response(connection.getResponseCode(), read(connection));
+    }
+
+    private HttpURLConnection open(String pathAndQuery) throws IOException {
+        return (HttpURLConnection) new URL("http://127.0.0.1:" + quoteServer.getPort() + pathAndQuery)
+                .openConnection();
+    }
+
+    static String read(HttpURLConnection connection) throws IOException {
+
+        InputStream body = connection.getResponseCode() < 400 ? connection.getInputStream()
+                : connection.getErrorStream();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] chunk = new byte[1024];
+
+        try (InputStream input = body) {
+            for (int read = input.read(chunk); read >= 0; read = input.read(chunk)) {
+                bytes.write(chunk, 0, read);
+            }
+        }
+
+        return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static class Response {
+
+        private final int status;
+        private final String body;
+
+        Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+
+}
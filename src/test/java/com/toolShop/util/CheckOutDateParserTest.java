@@ -0,0 +1,128 @@
+package com.toolShop.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Test class for CheckOutDateParser. Every result is compared with the
+ * DateTimeFormatter the checkout dates used to be parsed with.
+ *
+ * @author tadtab
+ *
+ */
+public class CheckOutDateParserTest {
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("M/d/yy");
+
+    /**
+     * Tests every day of the century, with and without leading zeros.
+     */
+    @Test
+    public void test1EveryDayOfTheCentury() {
+
+        DateTimeFormatter padded = DateTimeFormatter.ofPattern("MM/dd/yy");
+
+        for (LocalDate date = LocalDate.of(2000, 1, 1); date.getYear() < 2100; date = date.plusDays(1)) {
+
+            assertEquals(date.toEpochDay(), CheckOutDateParser.parseEpochDay(FORMATTER.format(date)));
+            assertEquals(date.toEpochDay(), CheckOutDateParser.parseEpochDay(padded.format(date)));
+        }
+    }
+
+    /**
+     * Tests that a day past the end of the month is moved back to the last day of
+     * the month, and that a day past 31 is rejected.
+     */
+    @Test
+    public void test2DayPastEndOfMonth() {
+
+        assertEquals(LocalDate.of(2020, 2, 29).toEpochDay(), CheckOutDateParser.parseEpochDay("2/30/20"));
+        assertEquals(LocalDate.of(2021, 2, 28).toEpochDay(), CheckOutDateParser.parseEpochDay("2/29/21"));
+        assertEquals(LocalDate.of(2015, 4, 30).toEpochDay(), CheckOutDateParser.parseEpochDay("4/31/15"));
+
+        assertEquals(CheckOutDateParser.INVALID, parseBytes("2/32/20"));
+        assertEquals(CheckOutDateParser.INVALID, parseBytes("13/1/20"));
+        assertEquals(CheckOutDateParser.INVALID, parseBytes("0/1/20"));
+        assertEquals(CheckOutDateParser.INVALID, parseBytes("1/0/20"));
+    }
+
+    /**
+     * Compares the parser with the formatter for random text made of digits,
+     * slashes and a few other characters.
+     */
+    @Test
+    public void test3MatchesFormatterOnRandomText() {
+
+        Random random = new Random(1717);
+        String alphabet = "0123456789//// +-a\u0661";
+
+        for (int i = 0; i < 200000; i++) {
+
+            StringBuilder text = new StringBuilder();
+            int length = random.nextInt(12);
+
+            for (int j = 0; j < length; j++) {
+                text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+
+            assertSameAsFormatter(text.toString());
+        }
+
+        String[] edgeCases = { "", "/", "//", "7/2/", "7//20", "/2/20", "7/2/2", "7/2/200", "7/2/2020", "07/02/20",
+                "007/002/20", "0000000000000000007/2/20", "00000000000000000007/2/20", "7/2/20 ", " 7/2/20",
+                "+7/2/20", "-7/2/20", "7/+2/20", "7/2/+20", "7/2/-2", "12/31/99", "1/1/00", "99999999999/1/20",
+                "1/99999999999999999999/20" };
+
+        for (String edgeCase : edgeCases) {
+            assertSameAsFormatter(edgeCase);
+        }
+    }
+
+    /**
+     * Tests that invalid text is reported as a DateTimeParseException, like the
+     * formatter did.
+     */
+    @Test(expected = DateTimeParseException.class)
+    public void test4InvalidTextThrows() {
+
+        CheckOutDateParser.parseEpochDay("7/2/2020");
+    }
+
+    private static void assertSameAsFormatter(String text) {
+
+        int expected;
+
+        try {
+            expected = (int) LocalDate.parse(text, FORMATTER).toEpochDay();
+        } catch (DateTimeParseException e) {
+            expected = CheckOutDateParser.INVALID;
+        }
+
+        assertEquals("'" + text + "'", expected, parseBytes(text));
+
+        int parsed;
+
+        try {
+            parsed = CheckOutDateParser.parseEpochDay(text);
+        } catch (DateTimeParseException e) {
+            parsed = CheckOutDateParser.INVALID;
+        }
+
+        assertEquals("'" + text + "'", expected, parsed);
+    }
+
+    private static int parseBytes(String text) {
+
+        byte[] bytes = ("xx" + text + "yy").getBytes(StandardCharsets.UTF_8);
+
+        return CheckOutDateParser.parseEpochDay(bytes, 2, bytes.length - 2);
+    }
+
+}
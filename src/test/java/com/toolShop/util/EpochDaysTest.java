@@ -0,0 +1,86 @@
+package com.toolShop.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+import org.junit.Test;
+
+/**
+ * Test class for EpochDays. Every result is compared with LocalDate.
+ *
+ * @author tadtab
+ *
+ */
+public class EpochDaysTest {
+
+    /**
+     * Tests every day from 1600 to 2400 against LocalDate.
+     */
+    @Test
+    public void test1MatchesLocalDate() {
+
+        for (LocalDate date = LocalDate.of(1600, 1, 1); date.getYear() <= 2400; date = date.plusDays(1)) {
+
+            int epochDay = (int) date.toEpochDay();
+
+            assertEquals(epochDay, EpochDays.of(date.getYear(), date.getMonthValue(), date.getDayOfMonth()));
+            assertEquals(date.getYear() * 10000 + date.getMonthValue() * 100 + date.getDayOfMonth(),
+                    EpochDays.toYearMonthDay(epochDay));
+            assertEquals(date.getYear(), EpochDays.yearOf(epochDay));
+            assertEquals(date.getDayOfWeek().getValue() - 1, EpochDays.dayOfWeek(epochDay));
+            assertEquals(date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY,
+                    EpochDays.isWeekEnd(epochDay));
+        }
+    }
+
+    /**
+     * Tests leap years and month lengths against LocalDate.
+     */
+    @Test
+    public void test2LeapYearsAndMonthLengths() {
+
+        for (int year = 0; year <= 3000; year++) {
+
+            assertEquals(LocalDate.of(year, 1, 1).isLeapYear(), EpochDays.isLeapYear(year));
+
+            for (int month = 1; month <= 12; month++) {
+                assertEquals(LocalDate.of(year, month, 1).lengthOfMonth(), EpochDays.lengthOfMonth(year, month));
+            }
+        }
+    }
+
+    /**
+     * Tests the first and the last day of the years far from the epoch.
+     */
+    @Test
+    public void test3DistantYears() {
+
+        int[] years = { 0, 1, 4, 99, 100, 400, 9999, 10000, 99999, 1000000 };
+
+        for (int year : years) {
+
+            LocalDate first = LocalDate.of(year, 1, 1);
+            LocalDate last = LocalDate.of(year, 12, 31);
+
+            assertEquals(first.toEpochDay(), EpochDays.of(year, 1, 1));
+            assertEquals(last.toEpochDay(), EpochDays.of(year, 12, 31));
+            assertEquals(year, EpochDays.yearOf((int) first.toEpochDay()));
+            assertEquals(year, EpochDays.yearOf((int) last.toEpochDay()));
+        }
+
+        assertEquals(LocalDate.of(-1, 12, 31).toEpochDay(), EpochDays.of(-1, 12, 31));
+        assertEquals(LocalDate.of(-400, 3, 1).toEpochDay(), EpochDays.of(-400, 3, 1));
+    }
+
+    /**
+     * Tests that adding days past the range of an int is rejected.
+     */
+    @Test(expected = ArithmeticException.class)
+    public void test4PlusDaysOverflow() {
+
+        EpochDays.plusDays(Integer.MAX_VALUE - 1, 2);
+    }
+
+}
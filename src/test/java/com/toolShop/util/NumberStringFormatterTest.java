@@ -0,0 +1,85 @@
+package com.toolShop.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import com.toolShop.pricing.Money;
+
+/**
+ * Test class for NumberStringFormatter.
+ *
+ * @author tadtab
+ *
+ */
+public class NumberStringFormatterTest {
+
+    /**
+     * Tests that formatted amounts can be converted back, including amounts with a
+     * grouping separator.
+     */
+    @Test
+    public void test1ConvertStringToBigDecimal() {
+
+        assertEquals(new BigDecimal("1.99"), NumberStringFormatter.convertStringToBigDecimal("$1.99"));
+        assertEquals(new BigDecimal("1234.56"), NumberStringFormatter.convertStringToBigDecimal("$1,234.56"));
+        assertEquals(new BigDecimal("1234567.89"),
+                NumberStringFormatter.convertStringToBigDecimal(NumberStringFormatter.formatCents(123456789)));
+    }
+
+    /**
+     * Tests formatting of cents and percentages.
+     */
+    @Test
+    public void test2FormatCentsAndPercent() {
+
+        assertEquals("$0.00", NumberStringFormatter.formatCents(0));
+        assertEquals("$1,444.74", NumberStringFormatter.formatCents(144474));
+        assertEquals("25%", NumberStringFormatter.addPercentSign(25));
+    }
+
+    /**
+     * Tests formatting with an explicit locale and from several threads sharing
+     * the cached formats.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void test3FormatWithLocaleFromSeveralThreads() throws Exception {
+
+        assertEquals("$1,444.74", NumberStringFormatter.formatCents(144474, Locale.US));
+        assertEquals("15%", NumberStringFormatter.addPercentSign(15, Locale.US));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+
+        for (int task = 0; task < 8; task++) {
+            final long offset = task;
+            results.add(executor.submit(() -> {
+                for (long cents = offset; cents < 200000; cents += 8) {
+                    String formatted = NumberStringFormatter.formatCents(cents, Locale.US);
+                    if (Money.toCents(NumberStringFormatter.convertStringToBigDecimal(formatted)) != cents) {
+                        return false;
+                    }
+                }
+                return true;
+            }));
+        }
+
+        for (Future<Boolean> result : results) {
+            assertTrue(result.get());
+        }
+
+        executor.shutdown();
+    }
+
+}
@@ -0,0 +1,47 @@
+package com.toolShop.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+import org.junit.Test;
+
+/**
+ * Test class for ToolShopUtility.
+ *
+ * @author tadtab
+ *
+ */
+public class ToolShopUtilityTest {
+
+    /**
+     * Tests parsing of checkout dates.
+     */
+    @Test
+    public void test1ConvertStringToLocalDate() {
+
+        assertEquals(LocalDate.of(2020, 7, 2), ToolShopUtility.convertStringToLocalDate("7/2/20"));
+        assertEquals(LocalDate.of(2015, 12, 31), ToolShopUtility.convertStringToLocalDate("12/31/15"));
+    }
+
+    /**
+     * Tests that malformed checkout dates are rejected.
+     */
+    @Test(expected = DateTimeParseException.class)
+    public void test2ConvertStringToLocalDateRejectsFourDigitYear() {
+
+        ToolShopUtility.convertStringToLocalDate("7/2/2020");
+    }
+
+    /**
+     * Tests formatting of dates for display.
+     */
+    @Test
+    public void test3FormatLocalDate() {
+
+        assertEquals("2020/07/02", ToolShopUtility.formatLocalDate(LocalDate.of(2020, 7, 2)));
+        assertEquals("2020/07/02", ToolShopUtility.convertADateFormatToAnothorDateFormat("2020-07-02"));
+    }
+
+}
@@ -0,0 +1,44 @@
+package com.toolShop.workload;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import org.junit.Test;
+
+import com.toolShop.ToolCatalog;
+
+/**
+ * Test class for SoakTestRunner.
+ *
+ * @author tadtab
+ *
+ */
+public class SoakTestRunnerTest {
+
+    /**
+     * Tests a short run printing a line per interval and counting checkouts and
+     * rejections.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void test1ShortRun() throws Exception {
+
+        WorkloadGenerator generator = new WorkloadGenerator.Builder().seed(3).invalidShare(0.01).build();
+        SoakTestRunner runner = new SoakTestRunner(generator, ToolCatalog.createDefault(), 2);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        runner.run(1000, 250, new PrintStream(output, true));
+
+        String[] lines = output.toString().split("\n");
+
+        assertTrue(output.toString(), lines.length >= 5);
+        assertTrue(lines[0].contains("checkouts/s"));
+        assertTrue(lines[lines.length - 1].startsWith("total " + runner.getCheckouts() + " checkouts"));
+        assertTrue(runner.getCheckouts() > 0);
+        assertTrue(runner.getRejections() > 0);
+    }
+
+}
@@ -0,0 +1,143 @@
+package com.toolShop.workload;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.toolShop.CheckoutRequest;
+import com.toolShop.RentalPricingService;
+import com.toolShop.ToolCatalog;
+import com.toolShop.ToolCode;
+import com.toolShop.export.AgreementWriter;
+import com.toolShop.export.CsvAgreementWriter;
+import com.toolShop.ingest.CheckoutFileIngester;
+import com.toolShop.ingest.IngestReport;
+
+/**
+ * Test class for WorkloadGenerator.
+ *
+ * @author tadtab
+ *
+ */
+public class WorkloadGeneratorTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Tests that the requests depend only on the seed and their number, in lists
+     * and in sequential and parallel streams.
+     */
+    @Test
+    public void test1Deterministic() {
+
+        WorkloadGenerator generator = new WorkloadGenerator.Builder().seed(25).build();
+
+        List<String> generated = strings(generator.generate(10000));
+
+        assertEquals(generated, strings(new WorkloadGenerator.Builder().seed(25).build().generate(10000)));
+        assertEquals(generated, strings(generator.requests(10000).collect(Collectors.toList())));
+        assertEquals(generated, strings(generator.requests(10000).parallel().collect(Collectors.toList())));
+        assertEquals(generated.get(1234), generator.request(1234).toString());
+        assertNotEquals(generated, strings(new WorkloadGenerator.Builder().seed(26).build().generate(10000)));
+    }
+
+    /**
+     * Tests the configured weights, years and holiday cluster over many
+     * requests.
+     */
+    @Test
+    public void test2Distributions() {
+
+        WorkloadGenerator generator = new WorkloadGenerator.Builder().seed(7)
+                .toolCodeWeight(ToolCode.LADW, 3)
+                .toolCodeWeight(ToolCode.JAKD, 0)
+                .rentalDays(3, 5)
+                .rentalDayWeight(4, 0)
+                .discountPercentWeight(0, 0)
+                .discountPercentWeight(100, 5)
+                .years(2020, 2021)
+                .holidayCluster(0.8, 3)
+                .build();
+
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("M/d/yy");
+        Map<ToolCode, Integer> toolCodes = new EnumMap<ToolCode, Integer>(ToolCode.class);
+        int count = 200000;
+        int nearHolidays = 0;
+
+        for (CheckoutRequest request : generator.generate(count)) {
+
+            toolCodes.merge(request.getToolCode(), 1, Integer::sum);
+
+            assertTrue(request.getRentalDayCount() == 3 || request.getRentalDayCount() == 5);
+            assertTrue(request.getDiscountPercent() > 0);
+
+            LocalDate checkOutDate = LocalDate.parse(request.getCheckOutDate(), formatter);
+            assertTrue(checkOutDate.getYear() == 2020 || checkOutDate.getYear() == 2021);
+
+            LocalDate fourthOfJuly = LocalDate.of(checkOutDate.getYear(), 7, 4);
+            LocalDate laborDay = checkOutDate.getYear() == 2020 ? LocalDate.of(2020, 9, 7) : LocalDate.of(2021, 9, 6);
+
+            if (Math.abs(ChronoUnit.DAYS.between(fourthOfJuly, checkOutDate)) <= 3
+                    || Math.abs(ChronoUnit.DAYS.between(laborDay, checkOutDate)) <= 3) {
+                nearHolidays++;
+            }
+        }
+
+        assertEquals(null, toolCodes.get(ToolCode.JAKD));
+        assertEquals(3.0, toolCodes.get(ToolCode.LADW) / (double) toolCodes.get(ToolCode.CHNS), 0.1);
+        // the cluster and the evenly spread dates landing near the holidays
+        assertEquals(0.8 + 0.2 * 14 / 365.0, nearHolidays / (double) count, 0.01);
+    }
+
+    /**
+     * Tests that the default requests are all checked out, and that a written
+     * order file is ingested with the expected rejections.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void test3CheckOutAndWriteOrderFile() throws Exception {
+
+        RentalPricingService service = new RentalPricingService(ToolCatalog.createDefault());
+
+        assertEquals(50000, service.checkOutAll(new WorkloadGenerator.Builder().seed(1).build().generate(50000))
+                .size());
+
+        WorkloadGenerator generator = new WorkloadGenerator.Builder().seed(2).invalidShare(0.1).build();
+        Path orders = folder.newFile("orders.csv").toPath();
+        generator.write(orders, 20000);
+
+        long invalid = generator.requests(20000)
+                .filter(request -> request.getRentalDayCount() < 1 || request.getDiscountPercent() > 100).count();
+
+        IngestReport report;
+        try (AgreementWriter writer = new CsvAgreementWriter(Channels.newChannel(new ByteArrayOutputStream()))) {
+            report = new CheckoutFileIngester(service).ingest(orders, writer);
+        }
+
+        assertEquals(20000, report.getRecordCount());
+        assertEquals(invalid, report.getRejectedCount());
+        assertEquals(0.1, invalid / 20000.0, 0.01);
+    }
+
+    private static List<String> strings(List<CheckoutRequest> requests) {
+        return requests.stream().map(CheckoutRequest::toString).collect(Collectors.toList());
+    }
+
+}